@@ -3,9 +3,11 @@ package com.AccountService;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.context.annotation.ComponentScan;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
 @ComponentScan("com.AccountService")
+@EnableScheduling
 public class AccountService {
     public static void main(String[] args) {
         SpringApplication.run(AccountService.class, args);
@@ -0,0 +1,27 @@
+package com.AccountService.dto.request;
+
+import com.AccountService.model.AccountDescription;
+import lombok.*;
+
+import java.util.Set;
+import java.util.UUID;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class AccountListFilter {
+    // Null lists every owner
+    private UUID userId;
+
+    // An empty set matches every value
+    @Builder.Default
+    private Set<AccountDescription.AccountType> accountTypes = Set.of();
+
+    @Builder.Default
+    private Set<AccountDescription.AccountStatus> accountStatuses = Set.of();
+
+    @Builder.Default
+    private Set<AccountDescription.CurrencyType> currencyTypes = Set.of();
+}
@@ -0,0 +1,22 @@
+package com.AccountService.dto.request;
+
+import jakarta.validation.constraints.*;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class CaptureHoldRequest {
+    @NotNull(message = "Hold id required")
+    private UUID holdId;
+
+    // In the account's currency, at most the held amount; null captures the whole hold
+    @DecimalMin(value = "0.0", message = "Capture amount cannot be negative")
+    @Digits(integer = 15, fraction = 2, message = "Amount must have up to 2 decimal places")
+    private BigDecimal amount;
+}
@@ -24,4 +24,8 @@ public class DebitRequest {
     @Pattern(regexp = "KES|USD|EUR|GBP",
             message = "Invalid currency. Allowed: KES, USD, EUR, GBP")
     private AccountDescription.CurrencyType currencyType;
+
+    // Optional caller key; a repeat with the same key returns the first result without re-applying
+    @Size(max = 255, message = "Idempotency key must be at most 255 characters")
+    private String idempotencyKey;
 }
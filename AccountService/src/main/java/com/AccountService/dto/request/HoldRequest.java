@@ -0,0 +1,29 @@
+package com.AccountService.dto.request;
+
+import com.AccountService.model.AccountDescription;
+import jakarta.validation.constraints.*;
+import lombok.*;
+
+import java.math.BigDecimal;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class HoldRequest {
+    @NotNull(message = "Account number required")
+    private String accountNumber;
+
+    @NotNull(message = "Amount required")
+    @DecimalMin(value = "0.0", message = "Hold amount cannot be negative")
+    @Digits(integer = 15, fraction = 2, message = "Amount must have up to 2 decimal places")
+    private BigDecimal amount;
+
+    @NotNull(message = "Currency Type required")
+    private AccountDescription.CurrencyType currencyType;
+
+    // Seconds until the hold expires on its own; 0 uses account.holds.default-ttl-minutes
+    @PositiveOrZero(message = "Hold lifetime cannot be negative")
+    private long ttlSeconds;
+}
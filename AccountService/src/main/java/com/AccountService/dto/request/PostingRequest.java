@@ -0,0 +1,33 @@
+package com.AccountService.dto.request;
+
+import com.AccountService.model.AccountDescription;
+import jakarta.validation.constraints.*;
+import lombok.*;
+
+import java.math.BigDecimal;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class PostingRequest {
+    // Caller supplied identifier echoed back in the matching PostingResult
+    private String postingId;
+
+    @NotNull(message = "Account number required")
+    private String accountNumber;
+
+    @NotNull(message = "Posting type required")
+    private AccountDescription.PostingType postingType;
+
+    @NotNull(message = "Amount required")
+    @DecimalMin(value = "0.0", message = "Amount cannot be negative")
+    @Digits(integer = 15, fraction = 2, message = "Amount must have up to 2 decimal places")
+    private BigDecimal amount;
+
+    @NotNull(message = "Currency Type required")
+    @Pattern(regexp = "KES|USD|EUR|GBP",
+            message = "Invalid currency. Allowed: KES, USD, EUR, GBP")
+    private AccountDescription.CurrencyType currencyType;
+}
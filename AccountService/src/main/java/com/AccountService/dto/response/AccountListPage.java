@@ -0,0 +1,27 @@
+package com.AccountService.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * One keyset page of a filtered account listing. Filters are applied after rows are decrypted,
+ * so a page can hold fewer entries than were scanned, or none; the next page starts after
+ * lastScannedId either way.
+ */
+@Getter
+@AllArgsConstructor
+public class AccountListPage {
+    private final List<Entry> entries;
+    private final long lastScannedId;
+    // True once the scan reached the end of the table
+    private final boolean exhausted;
+
+    @Getter
+    @AllArgsConstructor
+    public static class Entry {
+        private final long id;
+        private final AccountResponse account;
+    }
+}
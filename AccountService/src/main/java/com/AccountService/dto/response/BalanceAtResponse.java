@@ -0,0 +1,24 @@
+package com.AccountService.dto.response;
+
+import com.AccountService.model.AccountDescription;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class BalanceAtResponse {
+    private String accountNumber;
+    private AccountDescription.CurrencyType currencyType;
+    private BigDecimal currentBalance;
+    private BigDecimal availableBalance;
+    private LocalDateTime at;
+    // Time of the last balance change at or before `at`, null if there was none
+    private LocalDateTime lastChangeAt;
+}
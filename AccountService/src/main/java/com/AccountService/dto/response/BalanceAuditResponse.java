@@ -0,0 +1,23 @@
+package com.AccountService.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class BalanceAuditResponse {
+    private String accountNumber;
+    // Logical balance (account row plus slots) as found, before any repair
+    private BigDecimal currentBalance;
+    private BigDecimal availableBalance;
+    private BigDecimal logCurrentBalance;
+    private BigDecimal logAvailableBalance;
+    private boolean drifted;
+    private boolean repaired;
+}
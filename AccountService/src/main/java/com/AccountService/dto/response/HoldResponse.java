@@ -0,0 +1,28 @@
+package com.AccountService.dto.response;
+
+import com.AccountService.model.AccountDescription;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class HoldResponse {
+    private UUID holdId;
+    private String accountNumber;
+    private AccountDescription.HoldStatus status;
+    // Held amount, in the account's currency
+    private BigDecimal amount;
+    // Set once the hold is captured
+    private BigDecimal capturedAmount;
+    private AccountDescription.CurrencyType currencyType;
+    private BigDecimal availableBalance;
+    private LocalDateTime expiresAt;
+}
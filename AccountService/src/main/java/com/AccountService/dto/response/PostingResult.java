@@ -0,0 +1,20 @@
+package com.AccountService.dto.response;
+
+import lombok.*;
+
+import java.math.BigDecimal;
+
+@Getter
+@Setter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class PostingResult {
+    private String postingId;
+    private String accountNumber;
+    private boolean success;
+    private BigDecimal newBalance;
+    // Same values as the error-type metadata of the unary RPCs, null on success
+    private String errorType;
+    private String errorMessage;
+}
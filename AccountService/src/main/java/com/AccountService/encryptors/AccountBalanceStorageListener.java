@@ -0,0 +1,36 @@
+package com.AccountService.encryptors;
+
+import com.AccountService.model.Account;
+import com.AccountService.model.AccountDescription;
+import com.AccountService.service.NumericBalanceStore;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Moves balances between the encrypted columns (or sealed state) and the plain numeric columns
+ * to match account.storage.balances, and records whether the single-statement numeric updates may
+ * post to the row and whether the dormancy sweep still has to look at it. Runs before
+ * AccountEnvelopeListener, which then seals whatever is left in the encrypted fields.
+ */
+@Component
+public class AccountBalanceStorageListener {
+
+    @Autowired
+    private NumericBalanceStore numericBalanceStore;
+
+    @PrePersist
+    @PreUpdate
+    public void beforeWrite(Account account) {
+        AccountDescription.AccountStatus status = account.getAccountStatus();
+        account.setPostingsOpen(status == AccountDescription.AccountStatus.ACTIVE);
+        account.setIdleSince(status == AccountDescription.AccountStatus.ACTIVE || status == AccountDescription.AccountStatus.INACTIVE
+                ? account.getLastActivityAt() : Account.NOT_IDLE);
+        if (numericBalanceStore.isEnabled()) {
+            account.moveBalancesToNumeric();
+        } else {
+            account.moveBalancesFromNumeric();
+        }
+    }
+}
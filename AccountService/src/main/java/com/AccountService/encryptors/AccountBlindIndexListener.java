@@ -0,0 +1,24 @@
+package com.AccountService.encryptors;
+
+import com.AccountService.model.Account;
+import com.AccountService.service.BlindIndexService;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+@Component
+public class AccountBlindIndexListener {
+
+    @Autowired
+    private BlindIndexService blindIndexService;
+
+    @PrePersist
+    @PreUpdate
+    public void beforeWrite(Account account) {
+        // Account numbers never change, so an existing index is left alone
+        if (account.getAccountNumberHmac() == null) {
+            account.setAccountNumberHmac(blindIndexService.hash(account.getAccountNumber()));
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.AccountService.encryptors;
+
+import com.AccountService.model.AccountDescription;
+import com.AccountService.model.AccountSealedState;
+import com.AccountService.service.EncryptionService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Base64;
+
+/**
+ * Serializes AccountSealedState into a compact binary record and encrypts it once per row.
+ *
+ * Layout (format version 1):
+ *   version:u8 | accountType:u8 | accountStatus:u8 | currencyType:u8 |
+ *   currentBalance | availableBalance | interestRate
+ * where each decimal is scale:i32 | length:i8 | unscaled two's-complement bytes, length -1 meaning null.
+ * Enums are stored by ordinal, so AccountDescription constants must only ever be appended.
+ */
+@Component
+public class AccountEnvelopeCodec {
+    public enum StorageMode { COLUMN, ENVELOPE }
+
+    private static final byte FORMAT_VERSION = 1;
+
+    private final EncryptionService encryptionService;
+    private final StorageMode storageMode;
+
+    public AccountEnvelopeCodec(EncryptionService encryptionService,
+                                @Value("${account.storage.mode:COLUMN}") StorageMode storageMode) {
+        this.encryptionService = encryptionService;
+        this.storageMode = storageMode;
+    }
+
+    public boolean isEnvelopeMode() {
+        return storageMode == StorageMode.ENVELOPE;
+    }
+
+    public String seal(AccountSealedState state) {
+        try {
+            ByteArrayOutputStream buffer = new ByteArrayOutputStream(64);
+            DataOutputStream out = new DataOutputStream(buffer);
+            out.writeByte(FORMAT_VERSION);
+            out.writeByte(state.getAccountType().ordinal());
+            out.writeByte(state.getAccountStatus().ordinal());
+            out.writeByte(state.getCurrencyType().ordinal());
+            writeDecimal(out, state.getCurrentBalance());
+            writeDecimal(out, state.getAvailableBalance());
+            writeDecimal(out, state.getInterestRate());
+
+            return Base64.getEncoder().encodeToString(encryptionService.encryptBytes(buffer.toByteArray()));
+        } catch (Exception e) {
+            throw new RuntimeException("Envelope encryption failed", e);
+        }
+    }
+
+    public AccountSealedState open(String sealed) {
+        try {
+            byte[] plain = encryptionService.decryptBytes(Base64.getDecoder().decode(sealed));
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(plain));
+
+            byte version = in.readByte();
+            if (version != FORMAT_VERSION) {
+                throw new IllegalStateException("Unsupported sealed account format " + version);
+            }
+
+            AccountSealedState state = new AccountSealedState();
+            state.setAccountType(AccountDescription.AccountType.values()[in.readUnsignedByte()]);
+            state.setAccountStatus(AccountDescription.AccountStatus.values()[in.readUnsignedByte()]);
+            state.setCurrencyType(AccountDescription.CurrencyType.values()[in.readUnsignedByte()]);
+            state.setCurrentBalance(readDecimal(in));
+            state.setAvailableBalance(readDecimal(in));
+            state.setInterestRate(readDecimal(in));
+            return state;
+        } catch (Exception e) {
+            throw new RuntimeException("Envelope decryption failed", e);
+        }
+    }
+
+    private static void writeDecimal(DataOutputStream out, BigDecimal value) throws IOException {
+        if (value == null) {
+            out.writeInt(0);
+            out.writeByte(-1);
+            return;
+        }
+        byte[] unscaled = value.unscaledValue().toByteArray();
+        out.writeInt(value.scale());
+        out.writeByte(unscaled.length);
+        out.write(unscaled);
+    }
+
+    private static BigDecimal readDecimal(DataInputStream in) throws IOException {
+        int scale = in.readInt();
+        int length = in.readByte();
+        if (length < 0) {
+            return null;
+        }
+        byte[] unscaled = new byte[length];
+        in.readFully(unscaled);
+        return new BigDecimal(new BigInteger(unscaled), scale);
+    }
+}
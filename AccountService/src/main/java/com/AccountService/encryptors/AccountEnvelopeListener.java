@@ -0,0 +1,38 @@
+package com.AccountService.encryptors;
+
+import com.AccountService.model.Account;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Moves Account rows between per-column encryption and a single sealed blob.
+ * Rows are written in the configured storage mode and read in whichever mode they were stored,
+ * so existing rows migrate the next time they are updated.
+ */
+@Component
+public class AccountEnvelopeListener {
+
+    @Autowired
+    private AccountEnvelopeCodec codec;
+
+    @PrePersist
+    @PreUpdate
+    public void beforeWrite(Account account) {
+        if (codec.isEnvelopeMode()) {
+            account.moveColumnsToSealedState();
+            account.setSealedState(codec.seal(account.getSealed()));
+        } else {
+            account.moveSealedStateToColumns();
+        }
+    }
+
+    @PostLoad
+    public void afterLoad(Account account) {
+        if (account.getSealedState() != null) {
+            account.setSealed(codec.open(account.getSealedState()));
+        }
+    }
+}
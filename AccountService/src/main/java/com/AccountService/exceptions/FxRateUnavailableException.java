@@ -0,0 +1,26 @@
+package com.AccountService.exceptions;
+
+import com.AccountService.model.AccountDescription.CurrencyType;
+import lombok.Getter;
+
+/**
+ * Thrown when a posting needs a currency conversion for which no rate is loaded.
+ * An ineligibility of the posting rather than of the account, so it travels the same checked
+ * paths, but callers that can tell the two apart should catch it first.
+ */
+@Getter
+public class FxRateUnavailableException extends IneligibleAccountException {
+    private final CurrencyType from;
+    private final CurrencyType to;
+
+    public FxRateUnavailableException(CurrencyType from, CurrencyType to) {
+        super("No FX rate available", null);
+        this.from = from;
+        this.to = to;
+    }
+
+    @Override
+    public String getMessage() {
+        return "No FX rate available for " + from + " to " + to;
+    }
+}
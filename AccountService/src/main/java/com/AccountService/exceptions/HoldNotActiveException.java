@@ -0,0 +1,21 @@
+package com.AccountService.exceptions;
+
+import com.AccountService.model.AccountDescription;
+import lombok.Getter;
+
+import java.util.UUID;
+
+/**
+ * Thrown when a capture or release reaches a hold that was already captured, released or expired.
+ */
+@Getter
+public class HoldNotActiveException extends RuntimeException {
+    private final UUID holdId;
+    private final AccountDescription.HoldStatus status;
+
+    public HoldNotActiveException(UUID holdId, AccountDescription.HoldStatus status) {
+        super("Hold " + holdId + " is " + status);
+        this.holdId = holdId;
+        this.status = status;
+    }
+}
@@ -0,0 +1,19 @@
+package com.AccountService.exceptions;
+
+import lombok.Getter;
+
+import java.util.UUID;
+
+/**
+ * Thrown when a capture or release names a hold that does not exist. Unchecked, like
+ * IdempotencyKeyReusedException: hold ids come from the caller, not from an account condition.
+ */
+@Getter
+public class HoldNotFoundException extends RuntimeException {
+    private final UUID holdId;
+
+    public HoldNotFoundException(UUID holdId) {
+        super("Hold not found: " + holdId);
+        this.holdId = holdId;
+    }
+}
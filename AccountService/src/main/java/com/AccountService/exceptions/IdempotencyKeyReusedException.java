@@ -0,0 +1,17 @@
+package com.AccountService.exceptions;
+
+import lombok.Getter;
+
+/**
+ * Thrown when an idempotency key arrives with a different request than the one it was first
+ * used for. Unchecked: it signals a caller bug rather than an account condition.
+ */
+@Getter
+public class IdempotencyKeyReusedException extends RuntimeException {
+    private final String idempotencyKey;
+
+    public IdempotencyKeyReusedException(String idempotencyKey) {
+        super("Idempotency key was already used for a different request");
+        this.idempotencyKey = idempotencyKey;
+    }
+}
@@ -1,22 +1,38 @@
 package com.AccountService.grpc;
 
 import com.AccountService.exceptions.AccountNotFoundException;
+import com.AccountService.exceptions.FxRateUnavailableException;
+import com.AccountService.exceptions.HoldNotActiveException;
+import com.AccountService.exceptions.HoldNotFoundException;
+import com.AccountService.exceptions.IdempotencyKeyReusedException;
 import com.AccountService.exceptions.IneligibleAccountException;
 import com.AccountService.exceptions.InsufficientFundsException;
 import com.AccountService.service.AccountService;
 import com.AccountService.dto.request.*;
+import com.AccountService.dto.response.AccountListPage;
+import com.AccountService.dto.response.BalanceAuditResponse;
 import com.AccountService.model.AccountDescription;
 import io.grpc.Metadata;
 import io.grpc.Status;
+import io.grpc.stub.ServerCallStreamObserver;
 import io.grpc.stub.StreamObserver;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import net.devh.boot.grpc.server.service.GrpcService;
-import org.springframework.cache.annotation.Cacheable;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Slice;
 
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Deque;
 import java.util.List;
 import java.util.UUID;
+import java.util.stream.Collectors;
 
 @Slf4j
 @GrpcService
@@ -31,6 +47,14 @@ public class AccountGrpcService extends AccountServiceGrpc.AccountServiceImplBas
     private static final Metadata.Key<String> ATTEMPTED_OPERATION_KEY = Metadata.Key.of("attempted-operation", Metadata.ASCII_STRING_MARSHALLER);
     private static final Metadata.Key<String> BALANCE_KEY = Metadata.Key.of("balance", Metadata.ASCII_STRING_MARSHALLER);
     private static final Metadata.Key<String> REQUESTED_KEY = Metadata.Key.of("requested", Metadata.ASCII_STRING_MARSHALLER);
+    private static final Metadata.Key<String> HOLD_ID_KEY = Metadata.Key.of("hold-id", Metadata.ASCII_STRING_MARSHALLER);
+    private static final Metadata.Key<String> HOLD_STATUS_KEY = Metadata.Key.of("hold-status", Metadata.ASCII_STRING_MARSHALLER);
+
+    // Postings buffered from StreamPostings before they are applied and answered as one batch
+    private static final int STREAM_POSTINGS_FLUSH_SIZE = 5000;
+
+    // Accounts read per ListAccounts page; at most one page is buffered per call
+    private static final int LIST_ACCOUNTS_PAGE_SIZE = 500;
 
     @Override
     public void createAccount(CreateAccountRequest request, StreamObserver<AccountResponse> responseObserver) {
@@ -53,20 +77,26 @@ public class AccountGrpcService extends AccountServiceGrpc.AccountServiceImplBas
         }
     }
     @Override
-    @Cacheable("accounts")
     public void getAccountDetailsByUserId(GetAccountsByUserIdRequest request,
                                           StreamObserver<AccountsListResponse> responseObserver) {
         try {
             // Convert the user ID string to UUID
             UUID userId = UUID.fromString(request.getUserId());
 
-            // Call the service method
-            List<com.AccountService.dto.response.AccountResponse> accountResponses =
-                    accountService.getAccountDetailsByUserId(userId);
-
             // Convert to gRPC response
             AccountsListResponse.Builder responseBuilder = AccountsListResponse.newBuilder();
 
+            // Call the service method, paged when the caller asks for a page size
+            List<com.AccountService.dto.response.AccountResponse> accountResponses;
+            if (request.getSize() > 0) {
+                Slice<com.AccountService.dto.response.AccountResponse> page =
+                        accountService.getAccountDetailsByUserId(userId, request.getPage(), request.getSize());
+                accountResponses = page.getContent();
+                responseBuilder.setHasMore(page.hasNext());
+            } else {
+                accountResponses = accountService.getAccountDetailsByUserId(userId);
+            }
+
             // Add each account to the response
             for (com.AccountService.dto.response.AccountResponse response : accountResponses) {
                 responseBuilder.addAccounts(convertToGrpcResponse(response));
@@ -96,6 +126,164 @@ public class AccountGrpcService extends AccountServiceGrpc.AccountServiceImplBas
         }
     }
 
+    @Override
+    public void getBalanceAt(BalanceAtRequest request, StreamObserver<BalanceAtResponse> responseObserver) {
+        LocalDateTime at;
+        try {
+            at = LocalDateTime.parse(request.getAt());
+        } catch (DateTimeParseException e) {
+            responseObserver.onError(Status.INVALID_ARGUMENT
+                    .withDescription("Invalid point in time: " + request.getAt())
+                    .asRuntimeException());
+            return;
+        }
+
+        try {
+            com.AccountService.dto.response.BalanceAtResponse response = accountService.getBalanceAt(request.getAccountNumber(), at);
+            responseObserver.onNext(convertToGrpcBalanceAtResponse(response));
+            responseObserver.onCompleted();
+        } catch (AccountNotFoundException e) {
+            handleAccountNotFoundError(responseObserver, e);
+        } catch (Exception e) {
+            handleGenericError(responseObserver, e);
+        }
+    }
+
+    @Override
+    public void auditBalance(AuditBalanceRequest request, StreamObserver<AuditBalanceResponse> responseObserver) {
+        try {
+            BalanceAuditResponse response = accountService.auditBalance(request.getAccountNumber(), request.getRepair());
+            responseObserver.onNext(AuditBalanceResponse.newBuilder()
+                    .setAccountNumber(response.getAccountNumber())
+                    .setCurrentBalance(response.getCurrentBalance().toString())
+                    .setAvailableBalance(response.getAvailableBalance().toString())
+                    .setLogCurrentBalance(response.getLogCurrentBalance().toString())
+                    .setLogAvailableBalance(response.getLogAvailableBalance().toString())
+                    .setDrifted(response.isDrifted())
+                    .setRepaired(response.isRepaired())
+                    .build());
+            responseObserver.onCompleted();
+        } catch (AccountNotFoundException e) {
+            handleAccountNotFoundError(responseObserver, e);
+        } catch (OptimisticLockingFailureException e) {
+            handleConcurrencyConflictError(responseObserver, e);
+        } catch (Exception e) {
+            handleGenericError(responseObserver, e);
+        }
+    }
+
+    @Override
+    public void listAccounts(ListAccountsRequest request, StreamObserver<AccountListEntry> responseObserver) {
+        AccountListFilter filter;
+        long afterId;
+        try {
+            filter = AccountListFilter.builder()
+                    .userId(request.getUserId().isEmpty() ? null : UUID.fromString(request.getUserId()))
+                    .accountTypes(request.getAccountTypesList().stream()
+                            .map(type -> AccountDescription.AccountType.valueOf(type.name()))
+                            .collect(Collectors.toSet()))
+                    .accountStatuses(request.getAccountStatusesList().stream()
+                            .map(status -> AccountDescription.AccountStatus.valueOf(status.name()))
+                            .collect(Collectors.toSet()))
+                    .currencyTypes(request.getCurrencyTypesList().stream()
+                            .map(currency -> AccountDescription.CurrencyType.valueOf(currency.name()))
+                            .collect(Collectors.toSet()))
+                    .build();
+            afterId = decodeListCursor(request.getAfterCursor());
+        } catch (IllegalArgumentException e) {
+            responseObserver.onError(Status.INVALID_ARGUMENT
+                    .withDescription("Invalid account listing request: " + e.getMessage())
+                    .asRuntimeException());
+            return;
+        }
+
+        long limit = request.getLimit() > 0 ? request.getLimit() : Long.MAX_VALUE;
+        new AccountListingStream(filter, afterId, limit, (ServerCallStreamObserver<AccountListEntry>) responseObserver).start();
+    }
+
+    /**
+     * Sends ListAccounts entries only while the transport reports the client ready and reads the
+     * next page only once the previous one has been sent, so a slow reader leaves at most one page
+     * buffered here. Sending resumes from the onReady callback.
+     */
+    private final class AccountListingStream {
+        private final AccountListFilter filter;
+        private final ServerCallStreamObserver<AccountListEntry> observer;
+        private final Deque<AccountListEntry> pending = new ArrayDeque<>();
+        private long afterId;
+        private long remaining;
+        private boolean exhausted;
+        private boolean done;
+        private volatile boolean cancelled;
+
+        private AccountListingStream(AccountListFilter filter, long afterId, long limit,
+                                     ServerCallStreamObserver<AccountListEntry> observer) {
+            this.filter = filter;
+            this.afterId = afterId;
+            this.remaining = limit;
+            this.observer = observer;
+        }
+
+        private void start() {
+            observer.setOnCancelHandler(() -> cancelled = true);
+            observer.setOnReadyHandler(this::drain);
+            drain();
+        }
+
+        // Runs from the handler and from onReady callbacks, never both at once
+        private synchronized void drain() {
+            if (done) {
+                return;
+            }
+            try {
+                while (observer.isReady()) {
+                    if (cancelled) {
+                        done = true;
+                        return;
+                    }
+                    if (remaining == 0 || (pending.isEmpty() && exhausted)) {
+                        done = true;
+                        observer.onCompleted();
+                        return;
+                    }
+                    if (pending.isEmpty()) {
+                        fetchPage();
+                    } else {
+                        observer.onNext(pending.poll());
+                        remaining--;
+                    }
+                }
+            } catch (Exception e) {
+                done = true;
+                handleGenericError(observer, e);
+            }
+        }
+
+        private void fetchPage() {
+            AccountListPage page = accountService.listAccounts(filter, afterId, LIST_ACCOUNTS_PAGE_SIZE);
+            for (AccountListPage.Entry entry : page.getEntries()) {
+                pending.add(AccountListEntry.newBuilder()
+                        .setAccount(convertToGrpcResponse(entry.getAccount()))
+                        .setCursor(encodeListCursor(entry.getId()))
+                        .build());
+            }
+            afterId = page.getLastScannedId();
+            exhausted = page.isExhausted();
+        }
+    }
+
+    // Cursors are opaque to clients; they only carry the id the next page starts after
+    private static String encodeListCursor(long id) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(Long.toString(id).getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private static long decodeListCursor(String cursor) {
+        if (cursor.isEmpty()) {
+            return 0;
+        }
+        return Long.parseLong(new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.US_ASCII));
+    }
+
     @Override
     public void creditAccount(CreditRequest request, StreamObserver<CreditResponse> responseObserver) {
         try {
@@ -103,15 +291,22 @@ public class AccountGrpcService extends AccountServiceGrpc.AccountServiceImplBas
                     .accountNumber(request.getAccountNumber())
                     .amount(new BigDecimal(request.getAmount()))
                     .currencyType(AccountDescription.CurrencyType.valueOf(String.valueOf(request.getCurrencyType())))
+                    .idempotencyKey(request.getIdempotencyKey())
                     .build();
 
             com.AccountService.dto.response.CreditResponse response = accountService.creditAccount(creditRequest);
             responseObserver.onNext(convertToGrpcCreditResponse(response));
             responseObserver.onCompleted();
+        } catch (FxRateUnavailableException e) {
+            handleFxRateUnavailableError(responseObserver, e);
         } catch(IneligibleAccountException e) {
             handleIneligibleAccountError(responseObserver, e, "account debit operation");
         } catch (AccountNotFoundException e) {
             handleAccountNotFoundError(responseObserver, e);
+        } catch (OptimisticLockingFailureException e) {
+            handleConcurrencyConflictError(responseObserver, e);
+        } catch (IdempotencyKeyReusedException e) {
+            handleIdempotencyKeyReusedError(responseObserver, e);
         } catch (Exception e) {
             handleGenericError(responseObserver, e);
         }
@@ -124,7 +319,7 @@ public class AccountGrpcService extends AccountServiceGrpc.AccountServiceImplBas
                     .accountNumber(request.getAccountNumber())
                     .amount(new BigDecimal(request.getAmount()))
                     .currencyType(AccountDescription.CurrencyType.valueOf(String.valueOf(request.getCurrencyType())))
-
+                    .idempotencyKey(request.getIdempotencyKey())
                     .build();
 
             com.AccountService.dto.response.DebitResponse response = accountService.debitAccount(debitRequest);
@@ -132,10 +327,111 @@ public class AccountGrpcService extends AccountServiceGrpc.AccountServiceImplBas
             responseObserver.onCompleted();
         } catch (InsufficientFundsException e) {
             handleInsufficientFundsError(responseObserver, e);
+        } catch (FxRateUnavailableException e) {
+            handleFxRateUnavailableError(responseObserver, e);
         } catch(IneligibleAccountException e) {
             handleIneligibleAccountError(responseObserver, e, "account debit operation");
         } catch (AccountNotFoundException e) {
             handleAccountNotFoundError(responseObserver, e);
+        } catch (OptimisticLockingFailureException e) {
+            handleConcurrencyConflictError(responseObserver, e);
+        } catch (IdempotencyKeyReusedException e) {
+            handleIdempotencyKeyReusedError(responseObserver, e);
+        } catch (Exception e) {
+            handleGenericError(responseObserver, e);
+        }
+    }
+
+    @Override
+    public void placeHold(PlaceHoldRequest request, StreamObserver<HoldResponse> responseObserver) {
+        com.AccountService.dto.request.HoldRequest holdRequest;
+        try {
+            holdRequest = com.AccountService.dto.request.HoldRequest.builder()
+                    .accountNumber(request.getAccountNumber())
+                    .amount(new BigDecimal(request.getAmount()))
+                    .currencyType(AccountDescription.CurrencyType.valueOf(String.valueOf(request.getCurrencyType())))
+                    .ttlSeconds(Math.max(0, request.getTtlSeconds()))
+                    .build();
+        } catch (IllegalArgumentException e) {
+            handleInvalidArgumentError(responseObserver, "Invalid hold request: " + e.getMessage());
+            return;
+        }
+
+        try {
+            com.AccountService.dto.response.HoldResponse response = accountService.placeHold(holdRequest);
+            responseObserver.onNext(convertToGrpcHoldResponse(response));
+            responseObserver.onCompleted();
+        } catch (InsufficientFundsException e) {
+            handleInsufficientFundsError(responseObserver, e);
+        } catch (FxRateUnavailableException e) {
+            handleFxRateUnavailableError(responseObserver, e);
+        } catch(IneligibleAccountException e) {
+            handleIneligibleAccountError(responseObserver, e, "funds hold operation");
+        } catch (AccountNotFoundException e) {
+            handleAccountNotFoundError(responseObserver, e);
+        } catch (OptimisticLockingFailureException e) {
+            handleConcurrencyConflictError(responseObserver, e);
+        } catch (Exception e) {
+            handleGenericError(responseObserver, e);
+        }
+    }
+
+    @Override
+    public void captureHold(CaptureHoldRequest request, StreamObserver<HoldResponse> responseObserver) {
+        com.AccountService.dto.request.CaptureHoldRequest captureRequest;
+        try {
+            captureRequest = com.AccountService.dto.request.CaptureHoldRequest.builder()
+                    .holdId(UUID.fromString(request.getHoldId()))
+                    .amount(request.getAmount().isEmpty() ? null : new BigDecimal(request.getAmount()))
+                    .build();
+        } catch (IllegalArgumentException e) {
+            handleInvalidArgumentError(responseObserver, "Invalid capture request: " + e.getMessage());
+            return;
+        }
+
+        try {
+            com.AccountService.dto.response.HoldResponse response = accountService.captureHold(captureRequest);
+            responseObserver.onNext(convertToGrpcHoldResponse(response));
+            responseObserver.onCompleted();
+        } catch(IneligibleAccountException e) {
+            handleIneligibleAccountError(responseObserver, e, "hold capture operation");
+        } catch (AccountNotFoundException e) {
+            handleAccountNotFoundError(responseObserver, e);
+        } catch (HoldNotFoundException e) {
+            handleHoldNotFoundError(responseObserver, e);
+        } catch (HoldNotActiveException e) {
+            handleHoldNotActiveError(responseObserver, e);
+        } catch (IllegalArgumentException e) {
+            handleInvalidArgumentError(responseObserver, e.getMessage());
+        } catch (OptimisticLockingFailureException e) {
+            handleConcurrencyConflictError(responseObserver, e);
+        } catch (Exception e) {
+            handleGenericError(responseObserver, e);
+        }
+    }
+
+    @Override
+    public void releaseHold(ReleaseHoldRequest request, StreamObserver<HoldResponse> responseObserver) {
+        UUID holdId;
+        try {
+            holdId = UUID.fromString(request.getHoldId());
+        } catch (IllegalArgumentException e) {
+            handleInvalidArgumentError(responseObserver, "Invalid hold id: " + request.getHoldId());
+            return;
+        }
+
+        try {
+            com.AccountService.dto.response.HoldResponse response = accountService.releaseHold(holdId);
+            responseObserver.onNext(convertToGrpcHoldResponse(response));
+            responseObserver.onCompleted();
+        } catch (AccountNotFoundException e) {
+            handleAccountNotFoundError(responseObserver, e);
+        } catch (HoldNotFoundException e) {
+            handleHoldNotFoundError(responseObserver, e);
+        } catch (HoldNotActiveException e) {
+            handleHoldNotActiveError(responseObserver, e);
+        } catch (OptimisticLockingFailureException e) {
+            handleConcurrencyConflictError(responseObserver, e);
         } catch (Exception e) {
             handleGenericError(responseObserver, e);
         }
@@ -177,11 +473,122 @@ public class AccountGrpcService extends AccountServiceGrpc.AccountServiceImplBas
             handleIneligibleAccountError(responseObserver, e, "account deletion operation");
         } catch (AccountNotFoundException e) {
             handleAccountNotFoundError(responseObserver, e);
+        } catch (OptimisticLockingFailureException e) {
+            handleConcurrencyConflictError(responseObserver, e);
+        } catch (Exception e) {
+            handleGenericError(responseObserver, e);
+        }
+    }
+
+    @Override
+    public void batchPostings(BatchPostingsRequest request, StreamObserver<BatchPostingsResponse> responseObserver) {
+        try {
+            BatchPostingsResponse.Builder responseBuilder = BatchPostingsResponse.newBuilder();
+            applyPostings(request.getPostingsList(), responseBuilder);
+            responseObserver.onNext(responseBuilder.build());
+            responseObserver.onCompleted();
         } catch (Exception e) {
             handleGenericError(responseObserver, e);
         }
     }
 
+    @Override
+    public StreamObserver<PostingRequest> streamPostings(StreamObserver<BatchPostingsResponse> responseObserver) {
+        return new StreamObserver<>() {
+            private final List<PostingRequest> buffer = new ArrayList<>();
+            private long applied;
+            private boolean failed;
+
+            @Override
+            public void onNext(PostingRequest posting) {
+                if (failed) {
+                    return;
+                }
+                buffer.add(posting);
+                // Applying inline holds back further messages, so flow control bounds the buffer
+                if (buffer.size() >= STREAM_POSTINGS_FLUSH_SIZE) {
+                    flush();
+                }
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                log.warn("Client aborted posting stream after {} results: {}", applied, t.getMessage());
+            }
+
+            @Override
+            public void onCompleted() {
+                flush();
+                if (!failed) {
+                    responseObserver.onCompleted();
+                }
+            }
+
+            private void flush() {
+                if (failed || buffer.isEmpty()) {
+                    return;
+                }
+                try {
+                    // Answered per chunk, so neither the server nor a response outgrows one chunk
+                    BatchPostingsResponse.Builder responseBuilder = BatchPostingsResponse.newBuilder();
+                    applyPostings(buffer, responseBuilder);
+                    applied += buffer.size();
+                    buffer.clear();
+                    responseObserver.onNext(responseBuilder.build());
+                } catch (Exception e) {
+                    failed = true;
+                    handleGenericError(responseObserver, e);
+                }
+            }
+        };
+    }
+
+    private void applyPostings(List<PostingRequest> postings, BatchPostingsResponse.Builder responseBuilder) {
+        PostingResult[] results = new PostingResult[postings.size()];
+        List<com.AccountService.dto.request.PostingRequest> validPostings = new ArrayList<>(postings.size());
+        List<Integer> validIndexes = new ArrayList<>(postings.size());
+
+        for (int i = 0; i < postings.size(); i++) {
+            PostingRequest posting = postings.get(i);
+            try {
+                if (posting.getPostingType() == PostingType.POSTING_TYPE_UNSPECIFIED) {
+                    throw new IllegalArgumentException("posting type is required");
+                }
+                validPostings.add(com.AccountService.dto.request.PostingRequest.builder()
+                        .postingId(posting.getPostingId())
+                        .accountNumber(posting.getAccountNumber())
+                        .postingType(AccountDescription.PostingType.valueOf(posting.getPostingType().name()))
+                        .amount(new BigDecimal(posting.getAmount()))
+                        .currencyType(AccountDescription.CurrencyType.valueOf(String.valueOf(posting.getCurrencyType())))
+                        .build());
+                validIndexes.add(i);
+            } catch (IllegalArgumentException e) {
+                results[i] = PostingResult.newBuilder()
+                        .setPostingId(posting.getPostingId())
+                        .setAccountNumber(posting.getAccountNumber())
+                        .setSuccess(false)
+                        .setErrorType("INVALID_ARGUMENT")
+                        .setErrorMessage("Invalid posting: " + e.getMessage())
+                        .build();
+            }
+        }
+
+        List<com.AccountService.dto.response.PostingResult> applied = accountService.applyPostings(validPostings);
+        for (int i = 0; i < applied.size(); i++) {
+            results[validIndexes.get(i)] = convertToGrpcPostingResult(applied.get(i));
+        }
+
+        int succeeded = 0;
+        for (PostingResult result : results) {
+            responseBuilder.addResults(result);
+            if (result.getSuccess()) {
+                succeeded++;
+            }
+        }
+        responseBuilder.setSucceeded(responseBuilder.getSucceeded() + succeeded)
+                .setFailed(responseBuilder.getFailed() + results.length - succeeded);
+    }
+
     // Common error handlers
     private void handleAccountNotFoundError(StreamObserver<?> responseObserver, AccountNotFoundException e) {
         Status status = Status.NOT_FOUND
@@ -219,6 +626,65 @@ public class AccountGrpcService extends AccountServiceGrpc.AccountServiceImplBas
         responseObserver.onError(status.asRuntimeException(metadata));
     }
 
+    private void handleFxRateUnavailableError(StreamObserver<?> responseObserver, FxRateUnavailableException e) {
+        Status status = Status.FAILED_PRECONDITION
+                .withDescription(e.getMessage());
+
+        Metadata metadata = new Metadata();
+        metadata.put(ERROR_TYPE_KEY, "FX_RATE_UNAVAILABLE");
+
+        responseObserver.onError(status.asRuntimeException(metadata));
+    }
+
+    private void handleConcurrencyConflictError(StreamObserver<?> responseObserver, OptimisticLockingFailureException e) {
+        Status status = Status.ABORTED
+                .withDescription("Account was modified concurrently, retry the operation");
+
+        Metadata metadata = new Metadata();
+        metadata.put(ERROR_TYPE_KEY, "CONCURRENT_MODIFICATION");
+
+        responseObserver.onError(status.asRuntimeException(metadata));
+    }
+
+    private void handleIdempotencyKeyReusedError(StreamObserver<?> responseObserver, IdempotencyKeyReusedException e) {
+        Status status = Status.INVALID_ARGUMENT
+                .withDescription(e.getMessage());
+
+        Metadata metadata = new Metadata();
+        metadata.put(ERROR_TYPE_KEY, "IDEMPOTENCY_KEY_REUSED");
+
+        responseObserver.onError(status.asRuntimeException(metadata));
+    }
+
+    private void handleHoldNotFoundError(StreamObserver<?> responseObserver, HoldNotFoundException e) {
+        Status status = Status.NOT_FOUND
+                .withDescription(e.getMessage());
+
+        Metadata metadata = new Metadata();
+        metadata.put(ERROR_TYPE_KEY, "HOLD_NOT_FOUND");
+        metadata.put(HOLD_ID_KEY, e.getHoldId().toString());
+
+        responseObserver.onError(status.asRuntimeException(metadata));
+    }
+
+    private void handleHoldNotActiveError(StreamObserver<?> responseObserver, HoldNotActiveException e) {
+        Status status = Status.FAILED_PRECONDITION
+                .withDescription(e.getMessage());
+
+        Metadata metadata = new Metadata();
+        metadata.put(ERROR_TYPE_KEY, "HOLD_NOT_ACTIVE");
+        metadata.put(HOLD_ID_KEY, e.getHoldId().toString());
+        metadata.put(HOLD_STATUS_KEY, e.getStatus().name());
+
+        responseObserver.onError(status.asRuntimeException(metadata));
+    }
+
+    private void handleInvalidArgumentError(StreamObserver<?> responseObserver, String description) {
+        responseObserver.onError(Status.INVALID_ARGUMENT
+                .withDescription(description)
+                .asRuntimeException());
+    }
+
     private void handleGenericError(StreamObserver<?> responseObserver, Exception e) {
         responseObserver.onError(Status.INTERNAL
                 .withDescription("Internal error: " + e.getMessage())
@@ -247,6 +713,17 @@ public class AccountGrpcService extends AccountServiceGrpc.AccountServiceImplBas
                 .build();
     }
 
+    private BalanceAtResponse convertToGrpcBalanceAtResponse(com.AccountService.dto.response.BalanceAtResponse response) {
+        return BalanceAtResponse.newBuilder()
+                .setAccountNumber(response.getAccountNumber())
+                .setCurrencyType(convertCurrencyType(response.getCurrencyType()))
+                .setCurrentBalance(response.getCurrentBalance().toString())
+                .setAvailableBalance(response.getAvailableBalance().toString())
+                .setAt(response.getAt().toString())
+                .setLastChangeAt(response.getLastChangeAt() == null ? "" : response.getLastChangeAt().toString())
+                .build();
+    }
+
     private DebitResponse convertToGrpcDebitResponse(com.AccountService.dto.response.DebitResponse response) {
         return DebitResponse.newBuilder()
                 .setAccountNumber(response.getAccountNumber())
@@ -256,6 +733,36 @@ public class AccountGrpcService extends AccountServiceGrpc.AccountServiceImplBas
                 .build();
     }
 
+    private HoldResponse convertToGrpcHoldResponse(com.AccountService.dto.response.HoldResponse response) {
+        return HoldResponse.newBuilder()
+                .setHoldId(response.getHoldId().toString())
+                .setAccountNumber(response.getAccountNumber())
+                .setStatus(HoldStatus.valueOf("HOLD_" + response.getStatus().name()))
+                .setAmount(response.getAmount().toString())
+                .setCapturedAmount(response.getCapturedAmount() == null ? "" : response.getCapturedAmount().toString())
+                .setCurrencyType(convertCurrencyType(response.getCurrencyType()))
+                .setAvailableBalance(response.getAvailableBalance().toString())
+                .setExpiresAt(response.getExpiresAt().toString())
+                .build();
+    }
+
+    private PostingResult convertToGrpcPostingResult(com.AccountService.dto.response.PostingResult result) {
+        PostingResult.Builder builder = PostingResult.newBuilder()
+                .setPostingId(result.getPostingId() == null ? "" : result.getPostingId())
+                .setAccountNumber(result.getAccountNumber())
+                .setSuccess(result.isSuccess());
+
+        if (result.getNewBalance() != null) {
+            builder.setNewBalance(result.getNewBalance().toString());
+        }
+        if (result.getErrorType() != null) {
+            builder.setErrorType(result.getErrorType())
+                    .setErrorMessage(result.getErrorMessage());
+        }
+
+        return builder.build();
+    }
+
     private FreezeActionResponse convertToGrpcFreezeActionResponse(com.AccountService.dto.response.FreezeActionResponse response) {
         return FreezeActionResponse.newBuilder()
                 .setAction(response.getAction())
@@ -76,11 +76,15 @@ public class AuthInterceptor implements ServerInterceptor {
         // Implement method-specific scope checking
         if (methodName.contains("CreateAccount") || methodName.contains("DeleteAccount")) {
             return scope.contains("account:write");
-        } else if (methodName.contains("GetAccountDetails") || methodName.contains("GetAccountDetailsByUserId")) {
+        } else if (methodName.contains("GetAccountDetails") || methodName.contains("GetAccountDetailsByUserId")
+                || methodName.contains("GetBalanceAt")) {
             return scope.contains("account:read");
-        } else if (methodName.contains("CreditAccount") || methodName.contains("DebitAccount")) {
+        } else if (methodName.contains("CreditAccount") || methodName.contains("DebitAccount")
+                || methodName.contains("BatchPostings") || methodName.contains("StreamPostings")
+                || methodName.contains("PlaceHold") || methodName.contains("CaptureHold") || methodName.contains("ReleaseHold")) {
             return scope.contains("account:transaction");
-        } else if (methodName.contains("FreezeAction")) {
+        } else if (methodName.contains("FreezeAction") || methodName.contains("ListAccounts")
+                || methodName.contains("AuditBalance")) {
             return scope.contains("account:admin");
         }
         return false;
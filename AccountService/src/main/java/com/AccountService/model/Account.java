@@ -12,16 +12,21 @@ import java.time.LocalDateTime;
 import java.util.UUID;
 
 @Entity
+@EntityListeners({AccountBalanceStorageListener.class, AccountEnvelopeListener.class, AccountBlindIndexListener.class})
 @Getter
 @Setter
 @Table(name = "accounts",
         indexes = {
                 @Index(name = "idx_user_id", columnList = "userId"),
-                @Index(name = "idx_account_number", columnList = "accountNumber", unique = true),
+                @Index(name = "idx_account_number_hmac", columnList = "account_number_hmac", unique = true),
                 @Index(name = "idx_currency_type", columnList = "currencyType"),
+                @Index(name = "idx_idle_since_id", columnList = "idle_since, id"),
         })
 
 public class Account {
+        // idleSince of rows the dormancy sweep has nothing left to do for
+        public static final LocalDateTime NOT_IDLE = LocalDateTime.of(9999, 12, 31, 0, 0);
+
         @Id
         @GeneratedValue(strategy = GenerationType.IDENTITY)
         private Long id;
@@ -30,30 +35,34 @@ public class Account {
         @Convert(converter = UUIDEncryptor.class)
         private UUID userId;
 
-        @Column(name = "account_number", nullable = false, unique = true)
+        @Column(name = "account_number", nullable = false)
         @Convert(converter = SearchableStringEncryptor.class)
         private String accountNumber;
 
-        @Column(name="current_balance", nullable = false)
+        // Blind index of accountNumber, set by AccountBlindIndexListener; lookups go through this column
+        @Column(name = "account_number_hmac", length = 16)
+        private byte[] accountNumberHmac;
+
+        @Column(name="current_balance")
         @Convert(converter = BigDecimalEncryptor.class)
         private BigDecimal currentBalance;
 
-        @Column(name="available_balance", nullable = false)
+        @Column(name="available_balance")
         @Convert(converter = BigDecimalEncryptor.class)
         private BigDecimal availableBalance;
 
         @Enumerated(EnumType.STRING)
-        @Column(name = "account_type", nullable = false)
+        @Column(name = "account_type")
         @Convert(converter = AccountTypeEncryptor.class)
         private AccountDescription.AccountType accountType;
 
         @Enumerated(EnumType.STRING)
-        @Column(name = "account_status", nullable = false)
+        @Column(name = "account_status")
         @Convert(converter = AccountStatusEncryptor.class)
         private AccountDescription.AccountStatus accountStatus;
 
         @Enumerated(EnumType.STRING)
-        @Column(name = "currency_type", nullable = false)
+        @Column(name = "currency_type")
         @Convert(converter = CurrencyTypeEncryptor.class)
         private AccountDescription.CurrencyType currencyType;
 
@@ -65,7 +74,195 @@ public class Account {
         @Column(name = "updated_at")
         private LocalDateTime updatedAt;
 
+        // Last customer credit, debit or hold; dormancy is judged on this, not on updatedAt, which
+        // interest postings and maintenance jobs also move
+        @Column(name = "last_activity_at")
+        private LocalDateTime lastActivityAt;
+
+        // Plain copy of lastActivityAt while the status can still be swept (ACTIVE or INACTIVE), NOT_IDLE
+        // once it cannot, so DormancySweeper's range scan skips dormant, frozen and closed rows.
+        // Kept in step by AccountBalanceStorageListener; null only on rows the sweeper has not backfilled
+        @Column(name = "idle_since")
+        private LocalDateTime idleSince;
+
         @Column(name="interest_rate")
         @Convert(converter = BigDecimalEncryptor.class)
         private BigDecimal interestRate;
+
+        // Number of credit slots when the balance is sharded, 0 for a regular single-row balance
+        @Column(name = "balance_slots", nullable = false, columnDefinition = "integer default 0")
+        private int balanceSlots;
+
+        @Version
+        @Column(name = "version", nullable = false, columnDefinition = "bigint default 0")
+        private Long version;
+
+        // Encrypted AccountSealedState when the row is stored in envelope mode; the six columns above are then null
+        @Column(name = "sealed_state", columnDefinition = "text")
+        private String sealedState;
+
+        // Decrypted sealed_state. Sealed setters clear sealedState so Hibernate sees the row as dirty
+        @Transient
+        private AccountSealedState sealed;
+
+        // Plain numeric balances when the row uses numeric balance storage; the encrypted balances are then null.
+        // Kept in step by single conditional UPDATEs in NumericBalanceStore as well as by Hibernate.
+        @Column(name = "current_balance_amount", precision = 19, scale = 4)
+        private BigDecimal currentBalanceAmount;
+
+        @Column(name = "available_balance_amount", precision = 19, scale = 4)
+        private BigDecimal availableBalanceAmount;
+
+        // True only while the account is ACTIVE, kept in step with the status by AccountBalanceStorageListener.
+        // NumericBalanceStore only posts to rows where it is set; anything else goes through the entity path.
+        @Column(name = "postings_open")
+        private Boolean postingsOpen;
+
+        public BigDecimal getCurrentBalance() {
+                if (currentBalanceAmount != null) {
+                        return currentBalanceAmount;
+                }
+                return sealed != null ? sealed.getCurrentBalance() : currentBalance;
+        }
+
+        public void setCurrentBalance(BigDecimal currentBalance) {
+                if (currentBalanceAmount != null) {
+                        this.currentBalanceAmount = currentBalance;
+                } else if (sealed != null) {
+                        sealed.setCurrentBalance(currentBalance);
+                        sealedState = null;
+                } else {
+                        this.currentBalance = currentBalance;
+                }
+        }
+
+        public BigDecimal getAvailableBalance() {
+                if (currentBalanceAmount != null) {
+                        return availableBalanceAmount;
+                }
+                return sealed != null ? sealed.getAvailableBalance() : availableBalance;
+        }
+
+        public void setAvailableBalance(BigDecimal availableBalance) {
+                if (currentBalanceAmount != null) {
+                        this.availableBalanceAmount = availableBalance;
+                } else if (sealed != null) {
+                        sealed.setAvailableBalance(availableBalance);
+                        sealedState = null;
+                } else {
+                        this.availableBalance = availableBalance;
+                }
+        }
+
+        public AccountDescription.AccountType getAccountType() {
+                return sealed != null ? sealed.getAccountType() : accountType;
+        }
+
+        public void setAccountType(AccountDescription.AccountType accountType) {
+                if (sealed != null) {
+                        sealed.setAccountType(accountType);
+                        sealedState = null;
+                } else {
+                        this.accountType = accountType;
+                }
+        }
+
+        public AccountDescription.AccountStatus getAccountStatus() {
+                return sealed != null ? sealed.getAccountStatus() : accountStatus;
+        }
+
+        public void setAccountStatus(AccountDescription.AccountStatus accountStatus) {
+                if (sealed != null) {
+                        sealed.setAccountStatus(accountStatus);
+                        sealedState = null;
+                } else {
+                        this.accountStatus = accountStatus;
+                }
+        }
+
+        public AccountDescription.CurrencyType getCurrencyType() {
+                return sealed != null ? sealed.getCurrencyType() : currencyType;
+        }
+
+        public void setCurrencyType(AccountDescription.CurrencyType currencyType) {
+                if (sealed != null) {
+                        sealed.setCurrencyType(currencyType);
+                        sealedState = null;
+                } else {
+                        this.currencyType = currencyType;
+                }
+        }
+
+        public BigDecimal getInterestRate() {
+                return sealed != null ? sealed.getInterestRate() : interestRate;
+        }
+
+        public void setInterestRate(BigDecimal interestRate) {
+                if (sealed != null) {
+                        sealed.setInterestRate(interestRate);
+                        sealedState = null;
+                } else {
+                        this.interestRate = interestRate;
+                }
+        }
+
+        public boolean isStoredSealed() {
+                return sealed != null;
+        }
+
+        public void moveColumnsToSealedState() {
+                if (sealed != null) {
+                        return;
+                }
+                sealed = new AccountSealedState(currentBalance, availableBalance, accountType,
+                        accountStatus, currencyType, interestRate);
+                currentBalance = null;
+                availableBalance = null;
+                accountType = null;
+                accountStatus = null;
+                currencyType = null;
+                interestRate = null;
+        }
+
+        public void moveSealedStateToColumns() {
+                if (sealed == null) {
+                        return;
+                }
+                currentBalance = sealed.getCurrentBalance();
+                availableBalance = sealed.getAvailableBalance();
+                accountType = sealed.getAccountType();
+                accountStatus = sealed.getAccountStatus();
+                currencyType = sealed.getCurrencyType();
+                interestRate = sealed.getInterestRate();
+                sealed = null;
+                sealedState = null;
+        }
+
+        public boolean hasNumericBalances() {
+                return currentBalanceAmount != null;
+        }
+
+        public void moveBalancesToNumeric() {
+                if (hasNumericBalances()) {
+                        return;
+                }
+                BigDecimal current = getCurrentBalance();
+                BigDecimal available = getAvailableBalance();
+                setCurrentBalance(null);
+                setAvailableBalance(null);
+                currentBalanceAmount = current;
+                availableBalanceAmount = available;
+        }
+
+        public void moveBalancesFromNumeric() {
+                if (!hasNumericBalances()) {
+                        return;
+                }
+                BigDecimal current = currentBalanceAmount;
+                BigDecimal available = availableBalanceAmount;
+                currentBalanceAmount = null;
+                availableBalanceAmount = null;
+                setCurrentBalance(current);
+                setAvailableBalance(available);
+        }
 }
@@ -0,0 +1,54 @@
+package com.AccountService.model;
+
+import com.AccountService.encryptors.BigDecimalEncryptor;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * One change to an account's balances. The log is append-only: a balance is the sum of its
+ * account's deltas, or a snapshot plus the deltas after it. Rows are inserted through
+ * BalanceEventLog in the same transaction as the balance change they describe.
+ */
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "account_balance_events",
+        indexes = {
+                @Index(name = "idx_balance_event_account", columnList = "account_id, id"),
+        })
+public class AccountBalanceEvent {
+        @Id
+        @GeneratedValue(strategy = GenerationType.IDENTITY)
+        private Long id;
+
+        @Column(name = "account_id", nullable = false)
+        private Long accountId;
+
+        @Enumerated(EnumType.STRING)
+        @Column(name = "event_type", nullable = false, length = 16)
+        private AccountDescription.BalanceEventType eventType;
+
+        @Column(name = "current_delta", nullable = false)
+        @Convert(converter = BigDecimalEncryptor.class)
+        private BigDecimal currentDelta;
+
+        @Column(name = "available_delta", nullable = false)
+        @Convert(converter = BigDecimalEncryptor.class)
+        private BigDecimal availableDelta;
+
+        @Column(name = "occurred_at", nullable = false)
+        private LocalDateTime occurredAt;
+
+        public AccountBalanceEvent(Long accountId, AccountDescription.BalanceEventType eventType,
+                                   BigDecimal currentDelta, BigDecimal availableDelta) {
+                this(null, accountId, eventType, currentDelta, availableDelta, LocalDateTime.now());
+        }
+}
@@ -0,0 +1,46 @@
+package com.AccountService.model;
+
+import com.AccountService.encryptors.BigDecimalEncryptor;
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * One credit slot of a sharded-balance account. Credits land on a single slot row so that
+ * concurrent credits to a hot account do not contend on the account row; the slot balances
+ * are periodically folded back into the account balance.
+ */
+@Entity
+@Getter
+@Setter
+@Table(name = "account_balance_slots",
+        uniqueConstraints = @UniqueConstraint(name = "uk_balance_slot", columnNames = {"account_id", "slot_index"}),
+        indexes = {
+                @Index(name = "idx_balance_slot_account", columnList = "account_id"),
+        })
+public class AccountBalanceSlot {
+        @Id
+        @GeneratedValue(strategy = GenerationType.IDENTITY)
+        private Long id;
+
+        @Column(name = "account_id", nullable = false)
+        private Long accountId;
+
+        @Column(name = "slot_index", nullable = false)
+        private int slotIndex;
+
+        @Column(name = "balance", nullable = false)
+        @Convert(converter = BigDecimalEncryptor.class)
+        private BigDecimal balance;
+
+        @UpdateTimestamp
+        @Column(name = "updated_at")
+        private LocalDateTime updatedAt;
+
+        @Version
+        private Long version;
+}
@@ -0,0 +1,46 @@
+package com.AccountService.model;
+
+import com.AccountService.encryptors.BigDecimalEncryptor;
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Balances folded from every event of an account up to and including lastEventId.
+ * asOf is the latest occurredAt among those events, so the snapshot can seed point-in-time queries.
+ */
+@Entity
+@Getter
+@Setter
+@Table(name = "account_balance_snapshots",
+        indexes = {
+                @Index(name = "idx_balance_snapshot_account", columnList = "account_id, last_event_id"),
+        })
+public class AccountBalanceSnapshot {
+        @Id
+        @GeneratedValue(strategy = GenerationType.IDENTITY)
+        private Long id;
+
+        @Column(name = "account_id", nullable = false)
+        private Long accountId;
+
+        @Column(name = "last_event_id", nullable = false)
+        private Long lastEventId;
+
+        @Column(name = "current_balance", nullable = false)
+        @Convert(converter = BigDecimalEncryptor.class)
+        private BigDecimal currentBalance;
+
+        @Column(name = "available_balance", nullable = false)
+        @Convert(converter = BigDecimalEncryptor.class)
+        private BigDecimal availableBalance;
+
+        @Column(name = "as_of", nullable = false)
+        private LocalDateTime asOf;
+
+        @Column(name = "created_at", nullable = false)
+        private LocalDateTime createdAt;
+}
@@ -23,4 +23,26 @@ public class AccountDescription {
         EUR,
         GBP
     }
+
+    public enum PostingType{
+        CREDIT,
+        DEBIT
+    }
+
+    public enum BalanceEventType{
+        OPENING,
+        CREDIT,
+        DEBIT,
+        INTEREST,
+        HOLD,
+        RELEASE,
+        CAPTURE
+    }
+
+    public enum HoldStatus{
+        ACTIVE,
+        CAPTURED,
+        RELEASED,
+        EXPIRED
+    }
 }
@@ -0,0 +1,22 @@
+package com.AccountService.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * High-water mark of the account number serials leased per account type code.
+ * Nodes lease blocks by bumping next_value atomically, see AccountNumberAllocator.
+ */
+@Entity
+@Getter
+@Setter
+@Table(name = "account_number_sequences")
+public class AccountNumberSequence {
+        @Id
+        @Column(name = "type_code", length = 2)
+        private String typeCode;
+
+        @Column(name = "next_value", nullable = false)
+        private long nextValue;
+}
@@ -0,0 +1,25 @@
+package com.AccountService.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+
+/**
+ * The non-searchable account columns, held in memory for rows stored in envelope mode.
+ * Persisted as a single encrypted blob in accounts.sealed_state.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class AccountSealedState {
+    private BigDecimal currentBalance;
+    private BigDecimal availableBalance;
+    private AccountDescription.AccountType accountType;
+    private AccountDescription.AccountStatus accountStatus;
+    private AccountDescription.CurrencyType currencyType;
+    private BigDecimal interestRate;
+}
@@ -0,0 +1,24 @@
+package com.AccountService.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * How far BalanceSnapshotCompactor has counted the balance event log: every event with an id up
+ * to lastEventId is included in account_balance_event_backlog.
+ */
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@Table(name = "balance_compaction_checkpoints")
+public class BalanceCompactionCheckpoint {
+        @Id
+        @Column(name = "name", length = 64)
+        private String name;
+
+        @Column(name = "last_event_id", nullable = false)
+        private long lastEventId;
+}
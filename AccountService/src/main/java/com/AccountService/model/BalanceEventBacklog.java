@@ -0,0 +1,27 @@
+package com.AccountService.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Balance events of one account counted since its last snapshot, maintained by
+ * BalanceSnapshotCompactor so it can find accounts due for a snapshot without reading the event log.
+ */
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@Table(name = "account_balance_event_backlog",
+        indexes = {
+                @Index(name = "idx_balance_event_backlog_pending", columnList = "pending_events"),
+        })
+public class BalanceEventBacklog {
+        @Id
+        @Column(name = "account_id")
+        private Long accountId;
+
+        @Column(name = "pending_events", nullable = false)
+        private long pendingEvents;
+}
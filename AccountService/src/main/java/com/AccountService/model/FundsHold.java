@@ -0,0 +1,64 @@
+package com.AccountService.model;
+
+import com.AccountService.encryptors.BigDecimalEncryptor;
+import com.AccountService.encryptors.StringEncryptor;
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Funds reserved on an account (an authorization hold). While ACTIVE the amount is missing from
+ * the account's available balance but still part of its current balance; capturing takes it from
+ * the current balance, releasing or expiring gives it back to the available balance.
+ * Amounts are in the account's currency.
+ */
+@Entity
+@Getter
+@Setter
+@Table(name = "funds_holds",
+        indexes = {
+                @Index(name = "idx_funds_hold_status_expires", columnList = "status, expires_at"),
+                @Index(name = "idx_funds_hold_account", columnList = "account_id, status"),
+        })
+public class FundsHold {
+        @Id
+        @Column(name = "hold_id")
+        private UUID holdId;
+
+        @Column(name = "account_id", nullable = false)
+        private Long accountId;
+
+        // Kept so the hold can take the account lock without reading the account first
+        @Column(name = "account_number", nullable = false)
+        @Convert(converter = StringEncryptor.class)
+        private String accountNumber;
+
+        @Column(name = "amount", nullable = false)
+        @Convert(converter = BigDecimalEncryptor.class)
+        private BigDecimal amount;
+
+        @Column(name = "captured_amount")
+        @Convert(converter = BigDecimalEncryptor.class)
+        private BigDecimal capturedAmount;
+
+        @Enumerated(EnumType.STRING)
+        @Column(name = "status", nullable = false, length = 16)
+        private AccountDescription.HoldStatus status;
+
+        @Column(name = "created_at", nullable = false)
+        private LocalDateTime createdAt;
+
+        @Column(name = "expires_at", nullable = false)
+        private LocalDateTime expiresAt;
+
+        @Column(name = "closed_at")
+        private LocalDateTime closedAt;
+
+        @Version
+        @Column(name = "version", nullable = false, columnDefinition = "bigint default 0")
+        private Long version;
+}
@@ -0,0 +1,38 @@
+package com.AccountService.model;
+
+import com.AccountService.encryptors.BigDecimalEncryptor;
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Outcome of a credit or debit made under a caller's idempotency key. The key and the request it
+ * was first used with are stored as 16-byte blind index hashes; the only stored result is the
+ * balance the operation returned, since the rest of the response echoes the request.
+ */
+@Entity
+@Getter
+@Setter
+@Table(name = "idempotency_keys",
+        indexes = {
+                @Index(name = "idx_idempotency_created_at", columnList = "created_at"),
+        })
+public class IdempotencyRecord {
+        @Id
+        @Column(name = "key_id")
+        private UUID keyId;
+
+        @Column(name = "request_hash", nullable = false, length = 16)
+        private byte[] requestHash;
+
+        @Column(name = "new_balance", nullable = false)
+        @Convert(converter = BigDecimalEncryptor.class)
+        private BigDecimal newBalance;
+
+        @Column(name = "created_at", nullable = false)
+        private LocalDateTime createdAt;
+}
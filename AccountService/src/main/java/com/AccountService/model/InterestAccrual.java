@@ -0,0 +1,43 @@
+package com.AccountService.model;
+
+import com.AccountService.encryptors.BigDecimalEncryptor;
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Interest credited to one account for one accrual date. The unique key is what makes a
+ * resumed or repeated accrual run post each account at most once per day.
+ */
+@Entity
+@Getter
+@Setter
+@Table(name = "interest_accruals",
+        uniqueConstraints = {
+                @UniqueConstraint(name = "uk_interest_accrual_account_date", columnNames = {"account_id", "accrual_date"}),
+        },
+        indexes = {
+                @Index(name = "idx_interest_accrual_date", columnList = "accrual_date, account_id"),
+        })
+public class InterestAccrual {
+        @Id
+        @GeneratedValue(strategy = GenerationType.IDENTITY)
+        private Long id;
+
+        @Column(name = "account_id", nullable = false)
+        private Long accountId;
+
+        @Column(name = "accrual_date", nullable = false)
+        private LocalDate accrualDate;
+
+        @Column(name = "amount", nullable = false)
+        @Convert(converter = BigDecimalEncryptor.class)
+        private BigDecimal amount;
+
+        @Column(name = "posted_at", nullable = false)
+        private LocalDateTime postedAt;
+}
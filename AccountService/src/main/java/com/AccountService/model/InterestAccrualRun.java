@@ -0,0 +1,53 @@
+package com.AccountService.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Checkpoint of the accrual run for one date. Every account with an id up to lastAccountId has
+ * been handled, so a run interrupted by a crash resumes from there. The node working on the run
+ * holds a lease on the row, renewed with every checkpoint, see InterestAccrualEngine.
+ */
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@Table(name = "interest_accrual_runs")
+public class InterestAccrualRun {
+        @Id
+        @Column(name = "accrual_date")
+        private LocalDate accrualDate;
+
+        @Column(name = "last_account_id", nullable = false)
+        private long lastAccountId;
+
+        @Column(name = "accounts_scanned", nullable = false)
+        private long accountsScanned;
+
+        @Column(name = "accounts_accrued", nullable = false)
+        private long accountsAccrued;
+
+        @Column(name = "started_at", nullable = false)
+        private LocalDateTime startedAt;
+
+        // Null while the run is incomplete
+        @Column(name = "completed_at")
+        private LocalDateTime completedAt;
+
+        @Column(name = "lease_owner", length = 36)
+        private String leaseOwner;
+
+        // Null or past when no node is working on the run
+        @Column(name = "leased_until")
+        private LocalDateTime leasedUntil;
+
+        public InterestAccrualRun(LocalDate accrualDate) {
+                this.accrualDate = accrualDate;
+                this.startedAt = LocalDateTime.now();
+        }
+}
@@ -0,0 +1,15 @@
+package com.AccountService.repository;
+
+import com.AccountService.model.AccountBalanceEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface AccountBalanceEventRepository extends JpaRepository<AccountBalanceEvent, Long> {
+    List<AccountBalanceEvent> findByAccountIdAndIdGreaterThanOrderByIdAsc(Long accountId, Long afterId);
+    List<AccountBalanceEvent> findByAccountIdAndIdGreaterThanAndOccurredAtLessThanEqualOrderByIdAsc(Long accountId, Long afterId, LocalDateTime at);
+    List<AccountBalanceEvent> findByAccountIdAndIdGreaterThanAndOccurredAtLessThanOrderByIdAsc(Long accountId, Long afterId, LocalDateTime before);
+}
@@ -0,0 +1,14 @@
+package com.AccountService.repository;
+
+import com.AccountService.model.AccountBalanceSlot;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface AccountBalanceSlotRepository extends JpaRepository<AccountBalanceSlot, Long> {
+    List<AccountBalanceSlot> findByAccountId(Long accountId);
+    Optional<AccountBalanceSlot> findByAccountIdAndSlotIndex(Long accountId, int slotIndex);
+}
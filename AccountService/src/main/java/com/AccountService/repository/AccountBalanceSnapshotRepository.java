@@ -0,0 +1,14 @@
+package com.AccountService.repository;
+
+import com.AccountService.model.AccountBalanceSnapshot;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Repository
+public interface AccountBalanceSnapshotRepository extends JpaRepository<AccountBalanceSnapshot, Long> {
+    Optional<AccountBalanceSnapshot> findTopByAccountIdOrderByLastEventIdDesc(Long accountId);
+    Optional<AccountBalanceSnapshot> findTopByAccountIdAndAsOfLessThanEqualOrderByLastEventIdDesc(Long accountId, LocalDateTime at);
+}
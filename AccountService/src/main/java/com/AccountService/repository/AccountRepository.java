@@ -1,15 +1,61 @@
 package com.AccountService.repository;
 
 import com.AccountService.model.Account;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import org.springframework.data.jpa.repository.JpaRepository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 @Repository
 public interface AccountRepository extends JpaRepository<Account, Long> {
-    Optional<Account> findByAccountNumber(String accountNumber);
+    // Account numbers are looked up through their blind index, see BlindIndexService
+    Optional<Account> findByAccountNumberHmac(byte[] accountNumberHmac);
     List<Account> findByUserId(UUID UserId);
+    Slice<Account> findByUserId(UUID userId, Pageable pageable);
+    List<Account> findByAccountNumberHmacIn(Collection<byte[]> accountNumberHmacs);
+    List<Account> findByBalanceSlotsGreaterThan(int balanceSlots);
+
+    // Keyset paging for background jobs that walk the whole table
+    List<Account> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+    long countByIdGreaterThan(Long id);
+    List<Account> findByUserIdAndIdGreaterThanOrderByIdAsc(UUID userId, Long id, Pageable pageable);
+
+    // Keyset page over (idleSince, id) of one id partition, for sweepable rows without customer activity
+    // since the cutoff; rows that can no longer be swept carry Account.NOT_IDLE and fall outside the range
+    @Query("SELECT a FROM Account a WHERE a.idleSince < :cutoff AND MOD(a.id, :partitions) = :partition " +
+            "AND (a.idleSince > :afterIdleSince OR (a.idleSince = :afterIdleSince AND a.id > :afterId)) " +
+            "ORDER BY a.idleSince ASC, a.id ASC")
+    List<Account> findIdleSince(@Param("cutoff") LocalDateTime cutoff,
+                                @Param("partition") long partition,
+                                @Param("partitions") long partitions,
+                                @Param("afterIdleSince") LocalDateTime afterIdleSince,
+                                @Param("afterId") Long afterId,
+                                Pageable pageable);
+    List<Account> findByAccountNumberHmacIsNullOrderByIdAsc(Pageable pageable);
+
+    @Query("SELECT a FROM Account a WHERE NOT EXISTS " +
+            "(SELECT 1 FROM AccountBalanceEvent e WHERE e.accountId = a.id) ORDER BY a.id")
+    List<Account> findWithoutBalanceEvents(Pageable pageable);
+
+    @Query("SELECT a.balanceSlots FROM Account a WHERE a.accountNumberHmac = :accountNumberHmac")
+    Optional<Integer> findBalanceSlotsByAccountNumberHmac(@Param("accountNumberHmac") byte[] accountNumberHmac);
+
+    // SELECT ... FOR UPDATE, only meaningful inside a transaction
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT a FROM Account a WHERE a.accountNumberHmac = :accountNumberHmac")
+    Optional<Account> findByAccountNumberHmacForUpdate(@Param("accountNumberHmac") byte[] accountNumberHmac);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT a FROM Account a WHERE a.accountNumberHmac IN :accountNumberHmacs")
+    List<Account> findByAccountNumberHmacInForUpdate(@Param("accountNumberHmacs") Collection<byte[]> accountNumberHmacs);
 }
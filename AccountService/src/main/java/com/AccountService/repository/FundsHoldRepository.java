@@ -0,0 +1,33 @@
+package com.AccountService.repository;
+
+import com.AccountService.model.AccountDescription;
+import com.AccountService.model.FundsHold;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface FundsHoldRepository extends JpaRepository<FundsHold, UUID> {
+    List<FundsHold> findByAccountIdAndStatus(Long accountId, AccountDescription.HoldStatus status);
+
+    // Keyset page over (expiresAt, holdId) of active holds expiring before the cutoff; only ids and deadlines are read
+    @Query("SELECT h.holdId AS holdId, h.expiresAt AS expiresAt FROM FundsHold h " +
+            "WHERE h.status = com.AccountService.model.AccountDescription.HoldStatus.ACTIVE AND h.expiresAt < :before " +
+            "AND (h.expiresAt > :afterExpiresAt OR (h.expiresAt = :afterExpiresAt AND h.holdId > :afterHoldId)) " +
+            "ORDER BY h.expiresAt ASC, h.holdId ASC")
+    List<HoldDeadline> findActiveDeadlines(@Param("before") LocalDateTime before,
+                                           @Param("afterExpiresAt") LocalDateTime afterExpiresAt,
+                                           @Param("afterHoldId") UUID afterHoldId,
+                                           Pageable pageable);
+
+    interface HoldDeadline {
+        UUID getHoldId();
+        LocalDateTime getExpiresAt();
+    }
+}
@@ -0,0 +1,17 @@
+package com.AccountService.repository;
+
+import com.AccountService.model.InterestAccrual;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface InterestAccrualRepository extends JpaRepository<InterestAccrual, Long> {
+    @Query("SELECT a.accountId FROM InterestAccrual a WHERE a.accrualDate = :date AND a.accountId IN :accountIds")
+    List<Long> findAccruedAccountIds(@Param("date") LocalDate date, @Param("accountIds") Collection<Long> accountIds);
+}
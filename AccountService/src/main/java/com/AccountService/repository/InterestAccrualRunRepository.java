@@ -0,0 +1,13 @@
+package com.AccountService.repository;
+
+import com.AccountService.model.InterestAccrualRun;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface InterestAccrualRunRepository extends JpaRepository<InterestAccrualRun, LocalDate> {
+    List<InterestAccrualRun> findByCompletedAtIsNullOrderByAccrualDateAsc();
+}
@@ -0,0 +1,107 @@
+package com.AccountService.service;
+
+import com.AccountService.exceptions.AccountNotFoundException;
+import com.AccountService.exceptions.IneligibleAccountException;
+import com.AccountService.exceptions.InsufficientFundsException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Striped in-process locks keyed by account number.
+ * Operations on different accounts only contend when they hash to the same stripe,
+ * while operations on the same account are serialized without touching the database.
+ */
+@Component
+public class AccountLockManager {
+    private final ReentrantLock[] stripes;
+    private final int mask;
+
+    public AccountLockManager(@Value("${account.locking.stripes:1024}") int stripeCount) {
+        // Round up to a power of two so the stripe can be picked with a mask
+        int size = Integer.highestOneBit(Math.max(1, stripeCount - 1)) << 1;
+        this.stripes = new ReentrantLock[size];
+        this.mask = size - 1;
+        for (int i = 0; i < size; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+    }
+
+    public <T> T withLock(String accountNumber, AccountOperation<T> operation)
+            throws AccountNotFoundException, IneligibleAccountException, InsufficientFundsException {
+        ReentrantLock lock = stripes[stripeFor(accountNumber)];
+        lock.lock();
+        try {
+            return operation.execute();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Locks every stripe covering the given accounts in ascending stripe order,
+     * so multi-account operations cannot deadlock against each other.
+     */
+    public <T> T withLocks(Collection<String> accountNumbers, AccountOperation<T> operation)
+            throws AccountNotFoundException, IneligibleAccountException, InsufficientFundsException {
+        int[] indexes = sortedStripes(accountNumbers);
+        lockAll(indexes);
+        try {
+            return operation.execute();
+        } finally {
+            unlockAll(indexes);
+        }
+    }
+
+    /**
+     * Same ordering guarantees as withLocks, for maintenance work that raises no account exceptions.
+     */
+    public void runWithLocks(Collection<String> accountNumbers, Runnable task) {
+        int[] indexes = sortedStripes(accountNumbers);
+        lockAll(indexes);
+        try {
+            task.run();
+        } finally {
+            unlockAll(indexes);
+        }
+    }
+
+    private int[] sortedStripes(Collection<String> accountNumbers) {
+        int[] indexes = accountNumbers.stream()
+                .mapToInt(this::stripeFor)
+                .distinct()
+                .toArray();
+        Arrays.sort(indexes);
+        return indexes;
+    }
+
+    private void lockAll(int[] indexes) {
+        int acquired = 0;
+        try {
+            for (int index : indexes) {
+                stripes[index].lock();
+                acquired++;
+            }
+        } catch (RuntimeException | Error e) {
+            for (int i = acquired - 1; i >= 0; i--) {
+                stripes[indexes[i]].unlock();
+            }
+            throw e;
+        }
+    }
+
+    private void unlockAll(int[] indexes) {
+        for (int i = indexes.length - 1; i >= 0; i--) {
+            stripes[indexes[i]].unlock();
+        }
+    }
+
+    private int stripeFor(String accountNumber) {
+        int h = accountNumber.hashCode();
+        // Spread the high bits so short numeric keys do not cluster on a few stripes
+        return (h ^ (h >>> 16)) & mask;
+    }
+}
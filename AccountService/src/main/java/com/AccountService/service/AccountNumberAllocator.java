@@ -0,0 +1,124 @@
+package com.AccountService.service;
+
+import com.AccountService.model.AccountDescription;
+import com.AccountService.utils.AccountNumberGenerator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.nio.ByteBuffer;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Hands out unique account numbers without a database round trip per account.
+ *
+ * Each node leases blocks of serials per account type from account_number_sequences with one
+ * atomic upsert, then allocates from the block in memory. Sequential serials are passed through
+ * a keyed Feistel permutation of the serial space before formatting, so consecutive accounts get
+ * unrelated numbers while uniqueness still follows from the permutation being a bijection.
+ * Serials left in a block when a node stops are simply never used.
+ */
+@Slf4j
+@Service
+public class AccountNumberAllocator {
+    private static final String LEASE_SQL =
+            "INSERT INTO account_number_sequences (type_code, next_value) VALUES (?, ?) " +
+            "ON CONFLICT (type_code) DO UPDATE SET next_value = account_number_sequences.next_value + EXCLUDED.next_value " +
+            "RETURNING next_value";
+
+    // 24-bit Feistel network (two 12-bit halves) covering the 10^7 serial space, cycle-walked into range
+    private static final int HALF_BITS = 12;
+    private static final int HALF_MASK = (1 << HALF_BITS) - 1;
+    private static final int ROUNDS = 4;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final long blockSize;
+    private final int[] roundKeys = new int[ROUNDS];
+    private final Map<AccountDescription.AccountType, AtomicReference<Block>> blocks = new EnumMap<>(AccountDescription.AccountType.class);
+
+    public AccountNumberAllocator(JdbcTemplate jdbcTemplate,
+                                  BlindIndexService blindIndexService,
+                                  @Value("${account.number.block-size:100}") long blockSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.blockSize = blockSize;
+
+        // Round keys derive from the blind index key, so every node permutes identically without a new secret
+        ByteBuffer keyMaterial = ByteBuffer.wrap(blindIndexService.hash("account-number-permutation"));
+        for (int i = 0; i < ROUNDS; i++) {
+            roundKeys[i] = keyMaterial.getInt();
+        }
+        for (AccountDescription.AccountType type : AccountDescription.AccountType.values()) {
+            blocks.put(type, new AtomicReference<>(new Block(0, 0)));
+        }
+    }
+
+    public String next(AccountDescription.AccountType type) {
+        return AccountNumberGenerator.format(type, permute(nextSerial(type)));
+    }
+
+    private long nextSerial(AccountDescription.AccountType type) {
+        AtomicReference<Block> current = blocks.get(type);
+        while (true) {
+            Block block = current.get();
+            long serial = block.next.getAndIncrement();
+            if (serial < block.end) {
+                return serial;
+            }
+            synchronized (current) {
+                // Only the first thread to find the block exhausted leases a new one
+                if (current.get() == block) {
+                    current.set(lease(type));
+                }
+            }
+        }
+    }
+
+    private Block lease(AccountDescription.AccountType type) {
+        Long end = jdbcTemplate.queryForObject(LEASE_SQL, Long.class, AccountNumberGenerator.typeCode(type), blockSize);
+        if (end == null || end > AccountNumberGenerator.SERIAL_SPACE) {
+            throw new IllegalStateException("Account number space exhausted for account type " + type);
+        }
+        log.debug("Leased account serials [{}, {}) for {}", end - blockSize, end, type);
+        return new Block(end - blockSize, end);
+    }
+
+    private long permute(long serial) {
+        int value = (int) serial;
+        do {
+            value = feistel(value);
+        } while (value >= AccountNumberGenerator.SERIAL_SPACE);
+        return value;
+    }
+
+    private int feistel(int value) {
+        int left = (value >>> HALF_BITS) & HALF_MASK;
+        int right = value & HALF_MASK;
+        for (int round = 0; round < ROUNDS; round++) {
+            int mixed = left ^ (roundFunction(right, roundKeys[round]) & HALF_MASK);
+            left = right;
+            right = mixed;
+        }
+        return (left << HALF_BITS) | right;
+    }
+
+    private static int roundFunction(int half, int key) {
+        int h = (half ^ key) * 0x9E3779B1;
+        h ^= h >>> 15;
+        h *= 0x85EBCA77;
+        return h ^ (h >>> 13);
+    }
+
+    private static final class Block {
+        private final AtomicLong next;
+        private final long end;
+
+        private Block(long start, long end) {
+            this.next = new AtomicLong(start);
+            this.end = end;
+        }
+    }
+}
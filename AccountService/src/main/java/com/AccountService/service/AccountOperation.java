@@ -0,0 +1,15 @@
+package com.AccountService.service;
+
+import com.AccountService.exceptions.AccountNotFoundException;
+import com.AccountService.exceptions.IneligibleAccountException;
+import com.AccountService.exceptions.InsufficientFundsException;
+
+/**
+ * A unit of account work that may fail with one of the account domain exceptions.
+ * Used to run balance mutations under locks, retries and transactions without
+ * losing the checked exception types callers already handle.
+ */
+@FunctionalInterface
+public interface AccountOperation<T> {
+    T execute() throws AccountNotFoundException, IneligibleAccountException, InsufficientFundsException;
+}
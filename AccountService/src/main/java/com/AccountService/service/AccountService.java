@@ -6,6 +6,9 @@ import com.AccountService.exceptions.IneligibleAccountException;
 import com.AccountService.exceptions.AccountNotFoundException;
 import com.AccountService.exceptions.InsufficientFundsException;
 
+import org.springframework.data.domain.Slice;
+
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
 
@@ -13,8 +16,16 @@ public interface AccountService {
     AccountResponse createAccount(AccountCreateRequest request);
     AccountResponse getAccountDetails(String accountNumber) throws AccountNotFoundException;
     List<AccountResponse> getAccountDetailsByUserId(UUID userId) throws AccountNotFoundException;
+    Slice<AccountResponse> getAccountDetailsByUserId(UUID userId, int page, int size) throws AccountNotFoundException;
     CreditResponse creditAccount(CreditRequest request) throws IneligibleAccountException, AccountNotFoundException;
     DebitResponse debitAccount(DebitRequest request) throws IneligibleAccountException, InsufficientFundsException, AccountNotFoundException;
     DeleteResponse deleteAccount(DeleteRequest request) throws AccountNotFoundException, IneligibleAccountException, InsufficientFundsException;
     FreezeActionResponse freezeAction(FreezeActionRequest request) throws AccountNotFoundException;
+    BalanceAtResponse getBalanceAt(String accountNumber, LocalDateTime at) throws AccountNotFoundException;
+    BalanceAuditResponse auditBalance(String accountNumber, boolean repair) throws AccountNotFoundException;
+    List<PostingResult> applyPostings(List<PostingRequest> postings);
+    AccountListPage listAccounts(AccountListFilter filter, long afterId, int pageSize);
+    HoldResponse placeHold(HoldRequest request) throws IneligibleAccountException, InsufficientFundsException, AccountNotFoundException;
+    HoldResponse captureHold(CaptureHoldRequest request) throws IneligibleAccountException, AccountNotFoundException;
+    HoldResponse releaseHold(UUID holdId) throws AccountNotFoundException;
 }
@@ -0,0 +1,32 @@
+package com.AccountService.service;
+
+import com.AccountService.dto.response.AccountResponse;
+import com.AccountService.model.AccountDescription;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * Immutable, already decrypted view of an account as served to readers.
+ * Balances include credits still sitting in balance slots.
+ */
+@Getter
+@AllArgsConstructor
+public class AccountSnapshot {
+    private final UUID userId;
+    private final String accountNumber;
+    private final AccountDescription.AccountType accountType;
+    private final AccountDescription.AccountStatus accountStatus;
+    private final BigDecimal currentBalance;
+    private final BigDecimal availableBalance;
+    private final AccountDescription.CurrencyType currencyType;
+    private final BigDecimal interestRate;
+
+    // A fresh response per call, so callers can never modify the cached snapshot
+    public AccountResponse toResponse() {
+        return new AccountResponse(accountType, accountStatus, currentBalance, availableBalance,
+                currencyType, accountNumber, interestRate);
+    }
+}
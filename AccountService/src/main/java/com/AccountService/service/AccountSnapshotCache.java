@@ -0,0 +1,127 @@
+package com.AccountService.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Read-through cache of decrypted account snapshots, by account number and by owning user.
+ *
+ * Writers invalidate after their transaction commits. Caffeine blocks an invalidation until any
+ * load in flight for the same key has finished, so a load that read the row before the commit
+ * cannot leave a stale entry behind. The TTL only bounds how long a missed invalidation could last.
+ *
+ * A third cache keeps the last loaded snapshot per account for status and currency checks only.
+ * Balance-only writes (numeric storage) leave it in place, so hot accounts can be checked without
+ * a read; anything that may change status invalidates it along with the rest.
+ *
+ * Hit, miss, load and eviction metrics are published as cache.* meters tagged
+ * cache=account.snapshots.by-number, cache=account.snapshots.by-user and cache=account.snapshots.profiles.
+ */
+@Component
+public class AccountSnapshotCache {
+    private final Cache<String, AccountSnapshot> byAccountNumber;
+    private final Cache<UUID, List<AccountSnapshot>> byUserId;
+    private final Cache<String, AccountSnapshot> profiles;
+
+    // Owner of each account seen by either cache, so an account write can drop its user's list.
+    // Kept for twice the TTL so it always outlives any list that contains the account; an entry
+    // evicted for size drops its user's list with it, as that list could no longer be invalidated.
+    private final Cache<String, UUID> owners;
+
+    public AccountSnapshotCache(MeterRegistry meterRegistry,
+                                @Value("${account.cache.max-accounts:100000}") long maxAccounts,
+                                @Value("${account.cache.max-users:20000}") long maxUsers,
+                                @Value("${account.cache.ttl-seconds:60}") long ttlSeconds) {
+        Duration ttl = Duration.ofSeconds(ttlSeconds);
+        this.byAccountNumber = Caffeine.newBuilder()
+                .maximumSize(maxAccounts)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        this.byUserId = Caffeine.newBuilder()
+                .maximumSize(maxUsers)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        this.profiles = Caffeine.newBuilder()
+                .maximumSize(maxAccounts)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        this.owners = Caffeine.newBuilder()
+                .maximumSize(maxAccounts)
+                .expireAfterWrite(ttl.multipliedBy(2))
+                .<String, UUID>removalListener((accountNumber, owner, cause) -> {
+                    if (cause == RemovalCause.SIZE && owner != null) {
+                        byUserId.invalidate(owner);
+                    }
+                })
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, byAccountNumber, "account.snapshots.by-number");
+        CaffeineCacheMetrics.monitor(meterRegistry, byUserId, "account.snapshots.by-user");
+        CaffeineCacheMetrics.monitor(meterRegistry, profiles, "account.snapshots.profiles");
+    }
+
+    /**
+     * Returns the cached snapshot or loads it. A null from the loader is not cached.
+     */
+    public AccountSnapshot getByAccountNumber(String accountNumber, Function<String, AccountSnapshot> loader) {
+        return byAccountNumber.get(accountNumber, number -> remember(loader.apply(number)));
+    }
+
+    public List<AccountSnapshot> getByUserId(UUID userId, Function<UUID, List<AccountSnapshot>> loader) {
+        return byUserId.get(userId, id -> {
+            List<AccountSnapshot> snapshots = List.copyOf(loader.apply(id));
+            snapshots.forEach(this::remember);
+            return snapshots;
+        });
+    }
+
+    /**
+     * Snapshot for status and currency checks only; its balances may be out of date.
+     */
+    public AccountSnapshot getProfile(String accountNumber, Function<String, AccountSnapshot> loader) {
+        return profiles.get(accountNumber, number -> remember(loader.apply(number)));
+    }
+
+    public void invalidate(String accountNumber) {
+        profiles.invalidate(accountNumber);
+        invalidateBalances(accountNumber);
+    }
+
+    // For writes that change balances but cannot change status
+    public void invalidateBalances(String accountNumber) {
+        byAccountNumber.invalidate(accountNumber);
+        UUID owner = owners.getIfPresent(accountNumber);
+        if (owner != null) {
+            byUserId.invalidate(owner);
+        }
+    }
+
+    public void invalidate(Collection<String> accountNumbers) {
+        accountNumbers.forEach(this::invalidate);
+    }
+
+    public void invalidateUser(UUID userId) {
+        byUserId.invalidate(userId);
+    }
+
+    private AccountSnapshot remember(AccountSnapshot snapshot) {
+        if (snapshot != null) {
+            owners.put(snapshot.getAccountNumber(), snapshot.getUserId());
+        }
+        return snapshot;
+    }
+}
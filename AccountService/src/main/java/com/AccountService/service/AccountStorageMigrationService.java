@@ -0,0 +1,173 @@
+package com.AccountService.service;
+
+import com.AccountService.encryptors.AccountEnvelopeCodec;
+import com.AccountService.model.Account;
+import com.AccountService.model.AccountBalanceEvent;
+import com.AccountService.model.AccountDescription;
+import com.AccountService.repository.AccountRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Rewrites existing account rows into the configured storage modes (per-column or envelope,
+ * encrypted or numeric balances).
+ *
+ * Rows already migrate lazily on their next update; this walks the table in id order so
+ * untouched rows follow too. Each batch runs in its own transaction under the account locks,
+ * so it can run alongside live traffic and be restarted at any point.
+ *
+ * Missing account number blind indexes are backfilled before the gRPC server starts, since
+ * every lookup goes through them. Accounts opened before the balance event log existed get an
+ * OPENING event with their balance at that point, so the log can rebuild them.
+ */
+@Slf4j
+@Service
+public class AccountStorageMigrationService implements SmartInitializingSingleton {
+    private final AccountRepository accountRepository;
+    private final AccountEnvelopeCodec envelopeCodec;
+    private final AccountLockManager accountLockManager;
+    private final TransactionTemplate transactionTemplate;
+    private final BlindIndexService blindIndexService;
+    private final NumericBalanceStore numericBalanceStore;
+    private final BalanceEventLog balanceEventLog;
+    private final ShardedBalanceService shardedBalanceService;
+
+    @Value("${account.storage.migration-batch-size:500}")
+    private int batchSize;
+
+    @Value("${account.storage.migrate-on-startup:false}")
+    private boolean migrateOnStartup;
+
+    public AccountStorageMigrationService(AccountRepository accountRepository,
+                                          AccountEnvelopeCodec envelopeCodec,
+                                          AccountLockManager accountLockManager,
+                                          TransactionTemplate transactionTemplate,
+                                          BlindIndexService blindIndexService,
+                                          NumericBalanceStore numericBalanceStore,
+                                          BalanceEventLog balanceEventLog,
+                                          ShardedBalanceService shardedBalanceService) {
+        this.accountRepository = accountRepository;
+        this.envelopeCodec = envelopeCodec;
+        this.accountLockManager = accountLockManager;
+        this.transactionTemplate = transactionTemplate;
+        this.blindIndexService = blindIndexService;
+        this.numericBalanceStore = numericBalanceStore;
+        this.balanceEventLog = balanceEventLog;
+        this.shardedBalanceService = shardedBalanceService;
+    }
+
+    // Runs after all singletons exist but before lifecycle beans such as the gRPC server start
+    @Override
+    public void afterSingletonsInstantiated() {
+        backfillBlindIndexes();
+        backfillOpeningEvents();
+    }
+
+    public long backfillBlindIndexes() {
+        long filled = 0;
+        while (true) {
+            // Each batch fills its rows, so the next query starts from the first page again
+            Integer batch = transactionTemplate.execute(status -> {
+                List<Account> page = accountRepository.findByAccountNumberHmacIsNullOrderByIdAsc(PageRequest.of(0, batchSize));
+                for (Account account : page) {
+                    account.setAccountNumberHmac(blindIndexService.hash(account.getAccountNumber()));
+                }
+                return page.size();
+            });
+            if (batch == null || batch == 0) {
+                break;
+            }
+            filled += batch;
+        }
+        if (filled > 0) {
+            log.info("Backfilled {} account number blind indexes", filled);
+        }
+        return filled;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        if (migrateOnStartup) {
+            Thread.ofVirtual().name("account-storage-migration").start(this::migrateAll);
+        }
+    }
+
+    public long backfillOpeningEvents() {
+        long opened = 0;
+        while (true) {
+            // Each batch gives its accounts an event, so the next query starts from the first page again
+            Integer batch = transactionTemplate.execute(status -> {
+                List<Account> page = accountRepository.findWithoutBalanceEvents(PageRequest.of(0, batchSize));
+                List<AccountBalanceEvent> events = page.stream()
+                        .map(account -> {
+                            BigDecimal pending = shardedBalanceService.pendingTotal(account);
+                            return new AccountBalanceEvent(account.getId(), AccountDescription.BalanceEventType.OPENING,
+                                    account.getCurrentBalance().add(pending), account.getAvailableBalance().add(pending));
+                        })
+                        .toList();
+                balanceEventLog.appendAll(events);
+                return page.size();
+            });
+            if (batch == null || batch == 0) {
+                break;
+            }
+            opened += batch;
+        }
+        if (opened > 0) {
+            log.info("Recorded opening balance events for {} accounts", opened);
+        }
+        return opened;
+    }
+
+    public long migrateAll() {
+        boolean toEnvelope = envelopeCodec.isEnvelopeMode();
+        boolean toNumeric = numericBalanceStore.isEnabled();
+        long lastId = 0;
+        long migrated = 0;
+
+        log.info("Migrating account rows to {} storage with {} balances",
+                toEnvelope ? "envelope" : "column", toNumeric ? "numeric" : "encrypted");
+        while (true) {
+            List<Account> page = accountRepository.findByIdGreaterThanOrderByIdAsc(lastId, PageRequest.of(0, batchSize));
+            if (page.isEmpty()) {
+                break;
+            }
+            lastId = page.get(page.size() - 1).getId();
+
+            List<Account> pending = page.stream()
+                    .filter(account -> account.isStoredSealed() != toEnvelope || account.hasNumericBalances() != toNumeric)
+                    .toList();
+            if (!pending.isEmpty()) {
+                List<Long> ids = pending.stream().map(Account::getId).toList();
+                List<String> lockKeys = pending.stream().map(Account::getAccountNumber).toList();
+                accountLockManager.runWithLocks(lockKeys, () -> transactionTemplate.executeWithoutResult(status -> {
+                    // Re-read inside the transaction so a concurrent update is not overwritten
+                    for (Account account : accountRepository.findAllById(ids)) {
+                        if (toNumeric) {
+                            account.moveBalancesToNumeric();
+                        } else {
+                            account.moveBalancesFromNumeric();
+                        }
+                        if (toEnvelope) {
+                            account.moveColumnsToSealedState();
+                        } else {
+                            account.moveSealedStateToColumns();
+                        }
+                    }
+                }));
+                migrated += pending.size();
+            }
+        }
+        log.info("Account storage migration finished, {} rows rewritten", migrated);
+        return migrated;
+    }
+}
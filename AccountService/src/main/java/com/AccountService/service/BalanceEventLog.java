@@ -0,0 +1,126 @@
+package com.AccountService.service;
+
+import com.AccountService.model.AccountBalanceEvent;
+import com.AccountService.model.AccountBalanceSnapshot;
+import com.AccountService.repository.AccountBalanceEventRepository;
+import com.AccountService.repository.AccountBalanceSnapshotRepository;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Append-only log of balance changes. Writers append in the transaction that changes the balance,
+ * through plain JDBC so a batch of postings becomes one batched INSERT. Readers rebuild a balance
+ * from the latest snapshot plus the events after it (see BalanceSnapshotCompactor).
+ *
+ * Balances here are the logical balance: the account row plus any credits held in balance slots.
+ */
+@Service
+public class BalanceEventLog {
+    static final String INSERT_SQL =
+            "INSERT INTO account_balance_events (account_id, event_type, current_delta, available_delta, occurred_at) " +
+            "VALUES (?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final EncryptionService encryptionService;
+    private final AccountBalanceEventRepository eventRepository;
+    private final AccountBalanceSnapshotRepository snapshotRepository;
+    private final int batchSize;
+
+    public BalanceEventLog(JdbcTemplate jdbcTemplate,
+                           EncryptionService encryptionService,
+                           AccountBalanceEventRepository eventRepository,
+                           AccountBalanceSnapshotRepository snapshotRepository,
+                           @Value("${account.batch.jdbc-batch-size:100}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.encryptionService = encryptionService;
+        this.eventRepository = eventRepository;
+        this.snapshotRepository = snapshotRepository;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Appends one event. Caller holds an open transaction.
+     */
+    public void append(AccountBalanceEvent event) {
+        jdbcTemplate.update(INSERT_SQL, ps -> bind(ps, event));
+    }
+
+    public void appendAll(List<AccountBalanceEvent> events) {
+        if (!events.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_SQL, events, batchSize, this::bind);
+        }
+    }
+
+    /**
+     * Current balance rebuilt from the log alone, for audits and repairs of the account row.
+     */
+    public Balance rebuild(Long accountId) {
+        Optional<AccountBalanceSnapshot> snapshot = snapshotRepository.findTopByAccountIdOrderByLastEventIdDesc(accountId);
+        long afterId = snapshot.map(AccountBalanceSnapshot::getLastEventId).orElse(0L);
+        return fold(snapshot, eventRepository.findByAccountIdAndIdGreaterThanOrderByIdAsc(accountId, afterId));
+    }
+
+    /**
+     * Balance as it stood at the given time.
+     */
+    public Balance balanceAt(Long accountId, LocalDateTime at) {
+        Optional<AccountBalanceSnapshot> snapshot = snapshotRepository.findTopByAccountIdAndAsOfLessThanEqualOrderByLastEventIdDesc(accountId, at);
+        long afterId = snapshot.map(AccountBalanceSnapshot::getLastEventId).orElse(0L);
+        return fold(snapshot, eventRepository.findByAccountIdAndIdGreaterThanAndOccurredAtLessThanEqualOrderByIdAsc(accountId, afterId, at));
+    }
+
+    // Ciphertext in the format BigDecimalEncryptor reads back
+    public String encrypt(BigDecimal amount) {
+        try {
+            return encryptionService.encrypt(amount.toPlainString());
+        } catch (Exception e) {
+            throw new RuntimeException("Encryption failed", e);
+        }
+    }
+
+    private Balance fold(Optional<AccountBalanceSnapshot> snapshot, List<AccountBalanceEvent> events) {
+        BigDecimal current = snapshot.map(AccountBalanceSnapshot::getCurrentBalance).orElse(BigDecimal.ZERO);
+        BigDecimal available = snapshot.map(AccountBalanceSnapshot::getAvailableBalance).orElse(BigDecimal.ZERO);
+        LocalDateTime asOf = snapshot.map(AccountBalanceSnapshot::getAsOf).orElse(null);
+        long lastEventId = snapshot.map(AccountBalanceSnapshot::getLastEventId).orElse(0L);
+
+        for (AccountBalanceEvent event : events) {
+            current = current.add(event.getCurrentDelta());
+            available = available.add(event.getAvailableDelta());
+            lastEventId = event.getId();
+            if (asOf == null || event.getOccurredAt().isAfter(asOf)) {
+                asOf = event.getOccurredAt();
+            }
+        }
+        return new Balance(current, available, asOf, lastEventId);
+    }
+
+    private void bind(PreparedStatement ps, AccountBalanceEvent event) throws SQLException {
+        ps.setLong(1, event.getAccountId());
+        ps.setString(2, event.getEventType().name());
+        ps.setString(3, encrypt(event.getCurrentDelta()));
+        ps.setString(4, encrypt(event.getAvailableDelta()));
+        ps.setTimestamp(5, Timestamp.valueOf(event.getOccurredAt()));
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class Balance {
+        private final BigDecimal currentBalance;
+        private final BigDecimal availableBalance;
+        // Time of the latest event included, null when the account has no events yet
+        private final LocalDateTime asOf;
+        private final long lastEventId;
+    }
+}
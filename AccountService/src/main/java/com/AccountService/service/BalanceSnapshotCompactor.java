@@ -0,0 +1,147 @@
+package com.AccountService.service;
+
+import com.AccountService.model.AccountBalanceEvent;
+import com.AccountService.model.AccountBalanceSnapshot;
+import com.AccountService.repository.AccountBalanceEventRepository;
+import com.AccountService.repository.AccountBalanceSnapshotRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Periodically folds the balance event tail of busy accounts into a new snapshot, so a rebuild
+ * reads one snapshot and a short tail instead of the whole history. Events are never deleted;
+ * older snapshots are kept to seed point-in-time queries.
+ *
+ * Only events older than the configured lag are folded. Event ids are assigned at insert time, so
+ * a transaction still in flight could commit an id below one already folded; the lag has to exceed
+ * the longest balance-changing transaction.
+ *
+ * Accounts due for a snapshot are found without reading the whole log: each run counts only the
+ * events after a persisted high-water mark into per-account backlog counters, and picks the
+ * accounts whose backlog reached the threshold. Counting is serialized across instances by a row
+ * lock on the checkpoint. The counters only decide when to snapshot; the snapshot itself reads the
+ * account's events after its previous snapshot, so a miscount never changes a balance.
+ */
+@Slf4j
+@Service
+public class BalanceSnapshotCompactor {
+    private static final String CHECKPOINT = "balance-events";
+    private static final String ENSURE_CHECKPOINT_SQL = "INSERT INTO balance_compaction_checkpoints (name, last_event_id) " +
+            "VALUES (?, 0) ON CONFLICT (name) DO NOTHING";
+    private static final String LOCK_CHECKPOINT_SQL = "SELECT last_event_id FROM balance_compaction_checkpoints WHERE name = ? FOR UPDATE";
+    // Last event older than the cutoff among the next batch of events after the mark, read in id order
+    private static final String BATCH_END_SQL = "SELECT MAX(id) FROM (SELECT id, occurred_at FROM account_balance_events " +
+            "WHERE id > ? ORDER BY id LIMIT ?) batch WHERE occurred_at < ?";
+    private static final String COUNT_SQL = "INSERT INTO account_balance_event_backlog (account_id, pending_events) " +
+            "SELECT account_id, COUNT(*) FROM account_balance_events WHERE id > ? AND id <= ? GROUP BY account_id " +
+            "ON CONFLICT (account_id) DO UPDATE SET pending_events = account_balance_event_backlog.pending_events + EXCLUDED.pending_events";
+    private static final String ADVANCE_SQL = "UPDATE balance_compaction_checkpoints SET last_event_id = ? WHERE name = ?";
+    private static final String DUE_SQL = "SELECT account_id FROM account_balance_event_backlog WHERE pending_events >= ? " +
+            "ORDER BY pending_events DESC LIMIT ?";
+    private static final String FOLDED_SQL = "UPDATE account_balance_event_backlog SET pending_events = GREATEST(pending_events - ?, 0) " +
+            "WHERE account_id = ?";
+
+    private final AccountBalanceEventRepository eventRepository;
+    private final AccountBalanceSnapshotRepository snapshotRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${account.events.snapshot-threshold:100}")
+    private long snapshotThreshold;
+
+    @Value("${account.events.snapshot-lag-seconds:60}")
+    private long snapshotLagSeconds;
+
+    @Value("${account.events.snapshot-accounts-per-run:1000}")
+    private int accountsPerRun;
+
+    @Value("${account.events.count-batch-size:50000}")
+    private int countBatchSize;
+
+    public BalanceSnapshotCompactor(AccountBalanceEventRepository eventRepository,
+                                    AccountBalanceSnapshotRepository snapshotRepository,
+                                    TransactionTemplate transactionTemplate,
+                                    JdbcTemplate jdbcTemplate) {
+        this.eventRepository = eventRepository;
+        this.snapshotRepository = snapshotRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Scheduled(fixedDelayString = "${account.events.snapshot-interval-ms:300000}")
+    public void compact() {
+        LocalDateTime cutoff = LocalDateTime.now().minusSeconds(snapshotLagSeconds);
+        countNewEvents(cutoff);
+        List<Long> accountIds = jdbcTemplate.queryForList(DUE_SQL, Long.class, snapshotThreshold, accountsPerRun);
+
+        for (Long accountId : accountIds) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> snapshot(accountId, cutoff));
+            } catch (RuntimeException e) {
+                log.warn("Failed to snapshot balance events for account {}: {}", accountId, e.getMessage());
+            }
+        }
+        if (!accountIds.isEmpty()) {
+            log.info("Snapshotted balance events for {} accounts", accountIds.size());
+        }
+    }
+
+    // Adds the events since the mark to the backlog counters, one batch per transaction, until the
+    // next batch holds nothing older than the cutoff
+    private void countNewEvents(LocalDateTime cutoff) {
+        jdbcTemplate.update(ENSURE_CHECKPOINT_SQL, CHECKPOINT);
+        boolean more = true;
+        while (more) {
+            more = Boolean.TRUE.equals(transactionTemplate.execute(status -> {
+                Long from = jdbcTemplate.queryForObject(LOCK_CHECKPOINT_SQL, Long.class, CHECKPOINT);
+                Long to = jdbcTemplate.queryForObject(BATCH_END_SQL, Long.class, from, countBatchSize, cutoff);
+                if (to == null) {
+                    return false;
+                }
+                jdbcTemplate.update(COUNT_SQL, from, to);
+                jdbcTemplate.update(ADVANCE_SQL, to, CHECKPOINT);
+                return true;
+            }));
+        }
+    }
+
+    private void snapshot(Long accountId, LocalDateTime cutoff) {
+        AccountBalanceSnapshot previous = snapshotRepository.findTopByAccountIdOrderByLastEventIdDesc(accountId).orElse(null);
+        long afterId = previous != null ? previous.getLastEventId() : 0L;
+        List<AccountBalanceEvent> events = eventRepository.findByAccountIdAndIdGreaterThanAndOccurredAtLessThanOrderByIdAsc(accountId, afterId, cutoff);
+        // Folded events leave the backlog; with nothing to fold the count is stale (events already in an
+        // earlier snapshot, counted when the mark started from zero) and is cleared
+        jdbcTemplate.update(FOLDED_SQL, events.isEmpty() ? Long.MAX_VALUE : events.size(), accountId);
+        if (events.isEmpty()) {
+            return;
+        }
+
+        BigDecimal current = previous != null ? previous.getCurrentBalance() : BigDecimal.ZERO;
+        BigDecimal available = previous != null ? previous.getAvailableBalance() : BigDecimal.ZERO;
+        LocalDateTime asOf = previous != null ? previous.getAsOf() : null;
+        for (AccountBalanceEvent event : events) {
+            current = current.add(event.getCurrentDelta());
+            available = available.add(event.getAvailableDelta());
+            if (asOf == null || event.getOccurredAt().isAfter(asOf)) {
+                asOf = event.getOccurredAt();
+            }
+        }
+
+        AccountBalanceSnapshot snapshot = new AccountBalanceSnapshot();
+        snapshot.setAccountId(accountId);
+        snapshot.setLastEventId(events.get(events.size() - 1).getId());
+        snapshot.setCurrentBalance(current);
+        snapshot.setAvailableBalance(available);
+        snapshot.setAsOf(asOf);
+        snapshot.setCreatedAt(LocalDateTime.now());
+        snapshotRepository.save(snapshot);
+    }
+}
@@ -0,0 +1,322 @@
+package com.AccountService.service;
+
+import com.AccountService.exceptions.AccountNotFoundException;
+import com.AccountService.exceptions.IneligibleAccountException;
+import com.AccountService.exceptions.InsufficientFundsException;
+import com.AccountService.model.Account;
+import com.AccountService.model.AccountDescription;
+import com.AccountService.repository.AccountRepository;
+import io.github.resilience4j.ratelimiter.RateLimiter;
+import io.github.resilience4j.ratelimiter.RateLimiterConfig;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Moves idle accounts to INACTIVE or DORMANT. Idle means lastActivityAt, set only by customer
+ * credits, debits and holds, is older than the rule's threshold; interest postings and maintenance
+ * writes do not count as activity. Rows written before the column existed take their updatedAt
+ * as last activity at the start of the next sweep.
+ *
+ * The scan keys on idleSince rather than lastActivityAt: AccountBalanceStorageListener sets it to
+ * Account.NOT_IDLE once the status is past ACTIVE or INACTIVE, and the sweep itself settles rows no
+ * rule can ever move (exempt types, INACTIVE with the dormant rule off), so dormant, frozen, closed
+ * and exempt accounts are not decrypted and re-evaluated every night. Any later entity write puts
+ * idleSince back in step with the row.
+ *
+ * DORMANT accounts reject credits and debits. They return to ACTIVE only through the admin
+ * FreezeAction unfreezeAccount; INACTIVE accounts return on a funded credit. The sweep is therefore
+ * off unless account.dormancy.enabled is set.
+ *
+ * Rules, in the order they are checked (a threshold of 0 turns a rule off):
+ * - ACTIVE with a zero balance, idle for inactive-after-days: INACTIVE
+ * - ACTIVE or INACTIVE, idle for dormant-after-days: DORMANT
+ * Exempt account types are never swept.
+ *
+ * The table is split into id partitions, each walked on its own thread along the
+ * (idleSince, id) index, so decryption and rule checks run in parallel. Status changes are
+ * written per batch in a short transaction without account locks or SELECT ... FOR UPDATE: each
+ * row is re-evaluated as it is now, so activity since the scan leaves it alone, and a write racing
+ * the batch fails its version check and the batch is retried. A shared rate limiter caps rows scanned per second
+ * across all partitions so the sweep can run alongside live traffic.
+ *
+ * Metrics: account.dormancy.scanned, account.dormancy.transitions (tagged by status) and
+ * account.dormancy.throughput (rows per second of the running sweep, zero when idle).
+ */
+@Slf4j
+@Service
+public class DormancySweeper {
+    private static final String ACTIVITY_BACKFILL_SQL = "UPDATE accounts " +
+            "SET last_activity_at = COALESCE(last_activity_at, updated_at, created_at), " +
+            "idle_since = COALESCE(last_activity_at, updated_at, created_at) " +
+            "WHERE id IN (SELECT id FROM accounts WHERE idle_since IS NULL LIMIT ?)";
+    // Version-guarded and without a version bump, so a write racing it wins and keeps the row in range
+    private static final String SETTLE_SQL = "UPDATE accounts SET idle_since = ? WHERE id = ? AND version = ?";
+
+    private final AccountRepository accountRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final OptimisticRetryExecutor retryExecutor;
+    private final AccountSnapshotCache snapshotCache;
+    private final MeterRegistry meterRegistry;
+    private final RateLimiter rateLimiter;
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    // Progress of the running sweep, read by the throughput gauge
+    private final AtomicLong sweepScanned = new AtomicLong();
+    private volatile long sweepStartNanos;
+
+    private final boolean enabled;
+    private final int partitions;
+    private final int batchSize;
+    private final long inactiveAfterDays;
+    private final long dormantAfterDays;
+    private final Set<AccountDescription.AccountType> exemptTypes;
+
+    public DormancySweeper(AccountRepository accountRepository,
+                           JdbcTemplate jdbcTemplate,
+                           TransactionTemplate transactionTemplate,
+                           OptimisticRetryExecutor retryExecutor,
+                           AccountSnapshotCache snapshotCache,
+                           MeterRegistry meterRegistry,
+                           @Value("${account.dormancy.enabled:false}") boolean enabled,
+                           @Value("${account.dormancy.partitions:4}") int partitions,
+                           @Value("${account.dormancy.batch-size:500}") int batchSize,
+                           @Value("${account.dormancy.max-rows-per-second:2000}") int maxRowsPerSecond,
+                           @Value("${account.dormancy.inactive-after-days:180}") long inactiveAfterDays,
+                           @Value("${account.dormancy.dormant-after-days:365}") long dormantAfterDays,
+                           @Value("${account.dormancy.exempt-types:INTERNAL,LOAN}") Set<AccountDescription.AccountType> exemptTypes) {
+        this.accountRepository = accountRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.retryExecutor = retryExecutor;
+        this.snapshotCache = snapshotCache;
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.partitions = Math.max(1, partitions);
+        // A batch never asks for more permits than one refresh period hands out
+        this.batchSize = Math.max(1, Math.min(batchSize, maxRowsPerSecond));
+        this.inactiveAfterDays = inactiveAfterDays;
+        this.dormantAfterDays = dormantAfterDays;
+        this.exemptTypes = exemptTypes.isEmpty() ? EnumSet.noneOf(AccountDescription.AccountType.class) : EnumSet.copyOf(exemptTypes);
+        this.rateLimiter = RateLimiter.of("account-dormancy", RateLimiterConfig.custom()
+                .limitRefreshPeriod(Duration.ofSeconds(1))
+                .limitForPeriod(maxRowsPerSecond)
+                .timeoutDuration(Duration.ofMinutes(1))
+                .build());
+
+        Gauge.builder("account.dormancy.throughput", this, DormancySweeper::throughput)
+                .baseUnit("rows/s")
+                .register(meterRegistry);
+    }
+
+    // The sweep gets its own thread so it never holds up the shared scheduler
+    @Scheduled(cron = "${account.dormancy.cron:0 0 2 * * *}")
+    public void scheduledSweep() {
+        if (enabled) {
+            Thread.ofVirtual().name("account-dormancy").start(this::sweep);
+        }
+    }
+
+    /**
+     * Sweeps every partition once. Returns the number of status changes, or -1 when a sweep is
+     * already running on this node.
+     */
+    public long sweep() {
+        long minIdleDays = minIdleDays();
+        if (minIdleDays == 0) {
+            return 0;
+        }
+        if (!running.compareAndSet(false, true)) {
+            log.warn("Dormancy sweep skipped, the previous sweep is still running");
+            return -1;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime cutoff = now.minusDays(minIdleDays);
+        AtomicLong transitioned = new AtomicLong();
+        sweepScanned.set(0);
+        sweepStartNanos = System.nanoTime();
+        try {
+            backfillActivity();
+            try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+                for (int partition = 0; partition < partitions; partition++) {
+                    int current = partition;
+                    executor.submit(() -> {
+                        try {
+                            transitioned.addAndGet(sweepPartition(current, now, cutoff));
+                        } catch (RuntimeException e) {
+                            // The other partitions carry on; this one is picked up by the next sweep
+                            log.error("Dormancy sweep of partition {} failed", current, e);
+                        }
+                    });
+                }
+            }
+            log.info("Dormancy sweep finished, {} rows scanned at {} rows/s, {} status changes",
+                    sweepScanned.get(), Math.round(throughput()), transitioned.get());
+            return transitioned.get();
+        } finally {
+            sweepScanned.set(0);
+            running.set(false);
+        }
+    }
+
+    private long sweepPartition(int partition, LocalDateTime now, LocalDateTime cutoff) {
+        LocalDateTime afterIdleSince = LocalDateTime.of(1970, 1, 1, 0, 0);
+        long afterId = 0;
+        long transitioned = 0;
+
+        while (true) {
+            rateLimiter.acquirePermission(batchSize);
+            List<Account> page = accountRepository.findIdleSince(cutoff, partition, partitions,
+                    afterIdleSince, afterId, PageRequest.of(0, batchSize));
+            if (page.isEmpty()) {
+                return transitioned;
+            }
+            Account last = page.get(page.size() - 1);
+            afterIdleSince = last.getIdleSince();
+            afterId = last.getId();
+
+            List<Transition> transitions = new ArrayList<>();
+            List<Object[]> settled = new ArrayList<>();
+            for (Account account : page) {
+                AccountDescription.AccountStatus target = evaluate(account, now);
+                if (target != null) {
+                    transitions.add(new Transition(account.getId(), account.getAccountNumber(), target));
+                } else if (isSettled(account)) {
+                    settled.add(new Object[]{Timestamp.valueOf(Account.NOT_IDLE), account.getId(), account.getVersion()});
+                }
+            }
+            meterRegistry.counter("account.dormancy.scanned").increment(page.size());
+            sweepScanned.addAndGet(page.size());
+
+            if (!settled.isEmpty()) {
+                jdbcTemplate.batchUpdate(SETTLE_SQL, settled);
+            }
+            if (!transitions.isEmpty()) {
+                transitioned += apply(transitions, now);
+            }
+        }
+    }
+
+    // Target status for an idle account, or null when no rule applies
+    private AccountDescription.AccountStatus evaluate(Account account, LocalDateTime now) {
+        if (exemptTypes.contains(account.getAccountType()) || account.getLastActivityAt() == null) {
+            return null;
+        }
+        AccountDescription.AccountStatus status = account.getAccountStatus();
+        LocalDateTime lastActivityAt = account.getLastActivityAt();
+
+        if (inactiveAfterDays > 0 && status == AccountDescription.AccountStatus.ACTIVE
+                && account.getCurrentBalance().signum() == 0 && account.getBalanceSlots() == 0
+                && !lastActivityAt.isAfter(now.minusDays(inactiveAfterDays))) {
+            return AccountDescription.AccountStatus.INACTIVE;
+        }
+        if (dormantAfterDays > 0
+                && (status == AccountDescription.AccountStatus.ACTIVE || status == AccountDescription.AccountStatus.INACTIVE)
+                && !lastActivityAt.isAfter(now.minusDays(dormantAfterDays))) {
+            return AccountDescription.AccountStatus.DORMANT;
+        }
+        return null;
+    }
+
+    // True when no rule can move the account until something else writes to it
+    private boolean isSettled(Account account) {
+        AccountDescription.AccountStatus status = account.getAccountStatus();
+        return exemptTypes.contains(account.getAccountType())
+                || (status != AccountDescription.AccountStatus.ACTIVE && status != AccountDescription.AccountStatus.INACTIVE)
+                || (dormantAfterDays == 0 && status == AccountDescription.AccountStatus.INACTIVE);
+    }
+
+    private int apply(List<Transition> transitions, LocalDateTime now) {
+        List<String> accountNumbers = transitions.stream().map(Transition::getAccountNumber).toList();
+        try {
+            List<Transition> applied = retryExecutor.execute("dormancy",
+                    () -> transactionTemplate.execute(status -> applyBatch(transitions, now)));
+            for (Transition transition : applied) {
+                meterRegistry.counter("account.dormancy.transitions", "status", transition.getTarget().name()).increment();
+            }
+            return applied.size();
+        } catch (AccountNotFoundException | IneligibleAccountException | InsufficientFundsException e) {
+            // Status changes raise none of these
+            throw new IllegalStateException(e);
+        } finally {
+            snapshotCache.invalidate(accountNumbers);
+        }
+    }
+
+    private List<Transition> applyBatch(List<Transition> transitions, LocalDateTime now) {
+        Map<Long, Account> accountsById = new HashMap<>();
+        for (Account account : accountRepository.findAllById(transitions.stream().map(Transition::getAccountId).toList())) {
+            accountsById.put(account.getId(), account);
+        }
+
+        List<Account> changed = new ArrayList<>(transitions.size());
+        List<Transition> applied = new ArrayList<>(transitions.size());
+        for (Transition transition : transitions) {
+            Account account = accountsById.get(transition.getAccountId());
+            // Re-evaluated on the current row: customer activity since the scan has moved lastActivityAt
+            if (account != null && evaluate(account, now) == transition.getTarget()) {
+                account.setAccountStatus(transition.getTarget());
+                changed.add(account);
+                applied.add(transition);
+            }
+        }
+
+        accountRepository.saveAll(changed);
+        return applied;
+    }
+
+    // Rows from before lastActivityAt or idleSince existed start from their last write. Not versioned:
+    // an entity write racing this only puts the null back, and the next sweep fills it again
+    private void backfillActivity() {
+        int filled;
+        do {
+            rateLimiter.acquirePermission(batchSize);
+            filled = jdbcTemplate.update(ACTIVITY_BACKFILL_SQL, batchSize);
+        } while (filled > 0);
+    }
+
+    private long minIdleDays() {
+        if (inactiveAfterDays > 0 && dormantAfterDays > 0) {
+            return Math.min(inactiveAfterDays, dormantAfterDays);
+        }
+        return Math.max(inactiveAfterDays, dormantAfterDays);
+    }
+
+    private double throughput() {
+        long elapsedNanos = System.nanoTime() - sweepStartNanos;
+        long scanned = sweepScanned.get();
+        return scanned == 0 || elapsedNanos <= 0 ? 0 : scanned * 1e9 / elapsedNanos;
+    }
+
+    @Getter
+    @AllArgsConstructor
+    private static class Transition {
+        private final Long accountId;
+        private final String accountNumber;
+        private final AccountDescription.AccountStatus target;
+    }
+}
@@ -0,0 +1,113 @@
+package com.AccountService.service;
+
+import com.AccountService.exceptions.FxRateUnavailableException;
+import com.AccountService.model.AccountDescription.CurrencyType;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Currency conversion for postings. Readers take the current FxRateTable without locking;
+ * a reload builds a complete new table and swaps it in atomically.
+ *
+ * Rates are read from a local feed file (account.fx.rates-file), one quote per line:
+ *   BASE,QUOTE,RATE    e.g. USD,KES,129.25 meaning 1 USD = 129.25 KES
+ * Blank lines and lines starting with # are ignored. The file is re-read when its modification
+ * time changes; a file that fails to parse leaves the previous table in place. Without a file the
+ * reference rates bundled as fx-rates.csv are used, so cross-currency postings are never refused
+ * for want of configuration.
+ */
+@Slf4j
+@Service
+public class FxRateService {
+    private static final String DEFAULT_RATES = "/fx-rates.csv";
+
+    private final AtomicReference<FxRateTable> table = new AtomicReference<>(FxRateTable.empty());
+    private final String ratesFile;
+    private final CurrencyType pivot;
+    private volatile FileTime loadedModifiedTime;
+
+    public FxRateService(@Value("${account.fx.rates-file:}") String ratesFile,
+                         @Value("${account.fx.pivot-currency:USD}") CurrencyType pivot) {
+        this.ratesFile = ratesFile;
+        this.pivot = pivot;
+        if (ratesFile.isBlank()) {
+            loadDefaults();
+        }
+        reload();
+    }
+
+    private void loadDefaults() {
+        try (InputStream in = FxRateService.class.getResourceAsStream(DEFAULT_RATES)) {
+            if (in == null) {
+                log.warn("No account.fx.rates-file set and no bundled rates found, cross-currency postings will be rejected");
+                return;
+            }
+            publish(FxRateTable.build(parse(new String(in.readAllBytes(), StandardCharsets.UTF_8).lines().toList()), pivot));
+            log.warn("No account.fx.rates-file set, using the bundled reference rates, which are never refreshed");
+        } catch (IOException | RuntimeException e) {
+            log.error("Failed to load the bundled FX rates: {}", e.getMessage());
+        }
+    }
+
+    public BigDecimal convert(BigDecimal amount, CurrencyType from, CurrencyType to) throws FxRateUnavailableException {
+        return table.get().convert(amount, from, to);
+    }
+
+    public void publish(FxRateTable rates) {
+        table.set(rates);
+    }
+
+    @Scheduled(fixedDelayString = "${account.fx.reload-interval-ms:60000}")
+    public void reload() {
+        if (ratesFile.isBlank()) {
+            return;
+        }
+        Path path = Path.of(ratesFile);
+        try {
+            FileTime modified = Files.getLastModifiedTime(path);
+            if (modified.equals(loadedModifiedTime)) {
+                return;
+            }
+            publish(FxRateTable.build(parse(Files.readAllLines(path)), pivot));
+            loadedModifiedTime = modified;
+            log.info("Loaded FX rates from {}", path);
+        } catch (IOException | RuntimeException e) {
+            log.error("Failed to load FX rates from {}, keeping the previous rates: {}", path, e.getMessage());
+        }
+    }
+
+    private static Map<CurrencyType, Map<CurrencyType, BigDecimal>> parse(List<String> lines) {
+        Map<CurrencyType, Map<CurrencyType, BigDecimal>> quotes = new EnumMap<>(CurrencyType.class);
+        for (String line : lines) {
+            String trimmed = line.trim();
+            if (trimmed.isEmpty() || trimmed.startsWith("#")) {
+                continue;
+            }
+            String[] parts = trimmed.split(",");
+            if (parts.length != 3) {
+                throw new IllegalArgumentException("Malformed FX rate line: " + line);
+            }
+            BigDecimal rate = new BigDecimal(parts[2].trim());
+            if (rate.signum() <= 0) {
+                throw new IllegalArgumentException("FX rate must be positive: " + line);
+            }
+            quotes.computeIfAbsent(CurrencyType.valueOf(parts[0].trim()), c -> new EnumMap<>(CurrencyType.class))
+                    .put(CurrencyType.valueOf(parts[1].trim()), rate);
+        }
+        return quotes;
+    }
+}
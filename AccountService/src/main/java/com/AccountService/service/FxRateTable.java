@@ -0,0 +1,98 @@
+package com.AccountService.service;
+
+import com.AccountService.exceptions.FxRateUnavailableException;
+import com.AccountService.model.AccountDescription.CurrencyType;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import java.util.Currency;
+import java.util.Map;
+
+/**
+ * Immutable snapshot of conversion rates between every pair of supported currencies.
+ *
+ * Built once from quoted rates: a direct quote wins, then the inverse of the opposite quote, then a
+ * cross rate through the pivot currency. Every pair rate is resolved up front, so a conversion is
+ * an array lookup, one multiply and one rescale to the target currency's minor units.
+ */
+public final class FxRateTable {
+    private static final MathContext RATE_CONTEXT = MathContext.DECIMAL128;
+    private static final RoundingMode ROUNDING = RoundingMode.HALF_EVEN;
+
+    private static final CurrencyType[] CURRENCIES = CurrencyType.values();
+
+    // rates[from][to]: units of `to` per unit of `from`, null when the pair cannot be resolved
+    private final BigDecimal[][] rates;
+    private final int[] minorUnits;
+
+    private FxRateTable(BigDecimal[][] rates, int[] minorUnits) {
+        this.rates = rates;
+        this.minorUnits = minorUnits;
+    }
+
+    public static FxRateTable empty() {
+        return build(Map.of(), CurrencyType.USD);
+    }
+
+    /**
+     * @param quotes units of the inner key currency per one unit of the outer key currency
+     */
+    public static FxRateTable build(Map<CurrencyType, Map<CurrencyType, BigDecimal>> quotes, CurrencyType pivot) {
+        int n = CURRENCIES.length;
+        BigDecimal[][] rates = new BigDecimal[n][n];
+        for (CurrencyType from : CURRENCIES) {
+            for (CurrencyType to : CURRENCIES) {
+                rates[from.ordinal()][to.ordinal()] = from == to ? BigDecimal.ONE : quoted(quotes, from, to);
+            }
+        }
+
+        // Fill the remaining pairs with cross rates through the pivot
+        for (CurrencyType from : CURRENCIES) {
+            for (CurrencyType to : CURRENCIES) {
+                if (rates[from.ordinal()][to.ordinal()] != null) {
+                    continue;
+                }
+                BigDecimal toPivot = quoted(quotes, from, pivot);
+                BigDecimal fromPivot = quoted(quotes, pivot, to);
+                if (from != pivot && to != pivot && toPivot != null && fromPivot != null) {
+                    rates[from.ordinal()][to.ordinal()] = toPivot.multiply(fromPivot, RATE_CONTEXT);
+                }
+            }
+        }
+
+        int[] minorUnits = new int[n];
+        for (CurrencyType currency : CURRENCIES) {
+            minorUnits[currency.ordinal()] = Currency.getInstance(currency.name()).getDefaultFractionDigits();
+        }
+        return new FxRateTable(rates, minorUnits);
+    }
+
+    private static BigDecimal quoted(Map<CurrencyType, Map<CurrencyType, BigDecimal>> quotes, CurrencyType from, CurrencyType to) {
+        BigDecimal direct = quotes.getOrDefault(from, Map.of()).get(to);
+        if (direct != null) {
+            return direct;
+        }
+        BigDecimal opposite = quotes.getOrDefault(to, Map.of()).get(from);
+        return opposite != null ? BigDecimal.ONE.divide(opposite, RATE_CONTEXT) : null;
+    }
+
+    /**
+     * Converts an amount, rounding half-even to the target currency's minor units.
+     * Same-currency amounts are returned unchanged.
+     */
+    public BigDecimal convert(BigDecimal amount, CurrencyType from, CurrencyType to) throws FxRateUnavailableException {
+        if (from == to) {
+            return amount;
+        }
+        BigDecimal rate = rates[from.ordinal()][to.ordinal()];
+        if (rate == null) {
+            throw new FxRateUnavailableException(from, to);
+        }
+        return amount.multiply(rate).setScale(minorUnits[to.ordinal()], ROUNDING);
+    }
+
+    public BigDecimal rate(CurrencyType from, CurrencyType to) {
+        return rates[from.ordinal()][to.ordinal()];
+    }
+}
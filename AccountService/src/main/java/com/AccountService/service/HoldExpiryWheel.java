@@ -0,0 +1,249 @@
+package com.AccountService.service;
+
+import com.AccountService.repository.FundsHoldRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Consumer;
+
+/**
+ * Fires expiries for active funds holds from a hashed timing wheel, so stale holds are released
+ * without scanning the holds table.
+ *
+ * The wheel is an array of buckets, one per tick. A hold lands in the bucket of its deadline tick
+ * and carries the number of full turns left before it is due; each tick visits one bucket, so
+ * scheduling, cancelling and firing are O(1) whatever the number of holds. Request threads only
+ * touch a concurrent queue and map; buckets belong to the wheel thread. Due hold ids are handed
+ * to the expiry handler on a virtual thread so slow releases never delay the next tick.
+ *
+ * The table stays the source of truth: on startup every active hold is loaded into the wheel,
+ * and the handler only releases holds that are still active, so a duplicate or stale firing is
+ * harmless. Holds placed on a node that then dies are picked up by a slow backstop query for
+ * holds already past their deadline by more than the grace period.
+ *
+ * Metrics: account.holds.scheduled (holds in the wheel) and account.holds.fired.
+ */
+@Slf4j
+@Component
+public class HoldExpiryWheel {
+    private static final LocalDateTime NO_DEADLINE = LocalDateTime.of(9999, 1, 1, 0, 0);
+    private static final LocalDateTime EPOCH = LocalDateTime.of(1970, 1, 1, 0, 0);
+    // Lowest uuid in the database's unsigned byte order
+    private static final UUID MIN_UUID = new UUID(0, 0);
+
+    private final FundsHoldRepository fundsHoldRepository;
+    private final long tickMillis;
+    private final List<Entry>[] buckets;
+    private final int mask;
+    private final int loadPageSize;
+    private final Duration backstopGrace;
+    private final Counter fired;
+
+    private final Queue<Entry> additions = new ConcurrentLinkedQueue<>();
+    private final Map<UUID, Entry> scheduled = new ConcurrentHashMap<>();
+    private final long startNanos = System.nanoTime();
+    private volatile Consumer<List<UUID>> expiryHandler = holdIds -> { };
+    private volatile boolean running;
+    private Thread worker;
+
+    // Only touched by the wheel thread
+    private long tick;
+
+    @SuppressWarnings("unchecked")
+    public HoldExpiryWheel(FundsHoldRepository fundsHoldRepository,
+                           MeterRegistry meterRegistry,
+                           @Value("${account.holds.wheel.tick-ms:1000}") long tickMillis,
+                           @Value("${account.holds.wheel.size:512}") int wheelSize,
+                           @Value("${account.holds.load-page-size:5000}") int loadPageSize,
+                           @Value("${account.holds.backstop-grace-minutes:15}") long backstopGraceMinutes) {
+        this.fundsHoldRepository = fundsHoldRepository;
+        this.tickMillis = Math.max(1, tickMillis);
+        // Round up to a power of two so the bucket can be picked with a mask
+        int size = Integer.highestOneBit(Math.max(1, wheelSize - 1)) << 1;
+        this.buckets = new List[size];
+        for (int i = 0; i < size; i++) {
+            buckets[i] = new ArrayList<>();
+        }
+        this.mask = size - 1;
+        this.loadPageSize = loadPageSize;
+        this.backstopGrace = Duration.ofMinutes(backstopGraceMinutes);
+        this.fired = meterRegistry.counter("account.holds.fired");
+
+        Gauge.builder("account.holds.scheduled", scheduled, Map::size)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Sets what runs for due holds. Called with batches of hold ids, off the wheel thread.
+     */
+    public void onExpiry(Consumer<List<UUID>> handler) {
+        this.expiryHandler = handler;
+    }
+
+    /**
+     * Schedules a hold, replacing any earlier deadline for it. Deadlines in the past fire on the next tick.
+     */
+    public void schedule(UUID holdId, LocalDateTime expiresAt) {
+        long delayMillis = Math.max(0, Duration.between(LocalDateTime.now(), expiresAt).toMillis());
+        Entry entry = new Entry(holdId, elapsedMillis() + delayMillis);
+        Entry previous = scheduled.put(holdId, entry);
+        if (previous != null) {
+            previous.cancelled = true;
+        }
+        additions.add(entry);
+    }
+
+    // Cancelled entries stay in their bucket until the wheel next passes it
+    public void cancel(UUID holdId) {
+        Entry entry = scheduled.remove(holdId);
+        if (entry != null) {
+            entry.cancelled = true;
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        running = true;
+        worker = Thread.ofPlatform().daemon().name("account-hold-expiry").start(this::run);
+        int loaded = loadActiveHolds(NO_DEADLINE);
+        log.info("Loaded {} active funds holds into the expiry wheel", loaded);
+    }
+
+    // Backstop for holds whose wheel entry was lost with the node that placed them
+    @Scheduled(fixedDelayString = "${account.holds.backstop-interval-ms:600000}",
+            initialDelayString = "${account.holds.backstop-interval-ms:600000}")
+    public void scheduleOverdue() {
+        int overdue = loadActiveHolds(LocalDateTime.now().minus(backstopGrace));
+        if (overdue > 0) {
+            log.warn("Found {} funds holds overdue by more than {}, releasing them", overdue, backstopGrace);
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        if (worker != null) {
+            worker.interrupt();
+        }
+    }
+
+    // Schedules active holds expiring before the cutoff, reading ids and deadlines only
+    private int loadActiveHolds(LocalDateTime before) {
+        LocalDateTime afterExpiresAt = EPOCH;
+        UUID afterHoldId = MIN_UUID;
+        int loaded = 0;
+        while (true) {
+            List<FundsHoldRepository.HoldDeadline> page = fundsHoldRepository.findActiveDeadlines(before,
+                    afterExpiresAt, afterHoldId, PageRequest.of(0, loadPageSize));
+            for (FundsHoldRepository.HoldDeadline deadline : page) {
+                schedule(deadline.getHoldId(), deadline.getExpiresAt());
+            }
+            loaded += page.size();
+            if (page.size() < loadPageSize) {
+                return loaded;
+            }
+            FundsHoldRepository.HoldDeadline last = page.get(page.size() - 1);
+            afterExpiresAt = last.getExpiresAt();
+            afterHoldId = last.getHoldId();
+        }
+    }
+
+    private void run() {
+        while (running) {
+            long sleepMillis = (tick + 1) * tickMillis - elapsedMillis();
+            if (sleepMillis > 0) {
+                try {
+                    Thread.sleep(sleepMillis);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                continue;
+            }
+            // Behind schedule (GC pause, busy host): ticks are processed back to back until caught up
+            transferAdditions();
+            List<UUID> due = expireBucket(buckets[(int) (tick & mask)]);
+            tick++;
+            if (!due.isEmpty()) {
+                fired.increment(due.size());
+                Thread.ofVirtual().name("account-hold-release").start(() -> handle(due));
+            }
+        }
+    }
+
+    private void transferAdditions() {
+        Entry entry;
+        while ((entry = additions.poll()) != null) {
+            if (entry.cancelled) {
+                continue;
+            }
+            // Anything due at or before the current tick goes into the bucket visited next
+            long deadlineTick = Math.max(tick, entry.deadlineMillis / tickMillis);
+            entry.remainingRounds = (deadlineTick - tick) / buckets.length;
+            buckets[(int) (deadlineTick & mask)].add(entry);
+        }
+    }
+
+    private List<UUID> expireBucket(List<Entry> bucket) {
+        List<UUID> due = new ArrayList<>();
+        Iterator<Entry> iterator = bucket.iterator();
+        while (iterator.hasNext()) {
+            Entry entry = iterator.next();
+            if (entry.cancelled) {
+                iterator.remove();
+            } else if (entry.remainingRounds <= 0) {
+                iterator.remove();
+                if (scheduled.remove(entry.holdId, entry)) {
+                    due.add(entry.holdId);
+                }
+            } else {
+                entry.remainingRounds--;
+            }
+        }
+        return due;
+    }
+
+    private void handle(List<UUID> holdIds) {
+        try {
+            expiryHandler.accept(holdIds);
+        } catch (RuntimeException e) {
+            // Still-active holds come back through the backstop
+            log.error("Releasing {} expired funds holds failed", holdIds.size(), e);
+        }
+    }
+
+    private long elapsedMillis() {
+        return (System.nanoTime() - startNanos) / 1_000_000;
+    }
+
+    private static final class Entry {
+        private final UUID holdId;
+        private final long deadlineMillis;
+        private volatile boolean cancelled;
+        private long remainingRounds;
+
+        private Entry(UUID holdId, long deadlineMillis) {
+            this.holdId = holdId;
+            this.deadlineMillis = deadlineMillis;
+        }
+    }
+}
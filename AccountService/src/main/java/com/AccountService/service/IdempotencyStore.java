@@ -0,0 +1,157 @@
+package com.AccountService.service;
+
+import com.AccountService.exceptions.IdempotencyKeyReusedException;
+import com.AccountService.model.AccountDescription;
+import com.AccountService.model.IdempotencyRecord;
+import com.AccountService.repository.IdempotencyRecordRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Results of keyed credits and debits, so a retried or hedged request returns the first outcome
+ * instead of applying again.
+ *
+ * The record is inserted in the same transaction as the balance change. Key ids are the primary
+ * key, so when two attempts with the same key race (hedged requests, another node) the loser's
+ * insert fails, its whole transaction rolls back and it replays the winner's stored result.
+ * Recent keys are kept in a bounded in-memory cache in front of the table; rows older than the
+ * retention are deleted in the background.
+ */
+@Slf4j
+@Service
+public class IdempotencyStore {
+    static final String INSERT_SQL =
+            "INSERT INTO idempotency_keys (key_id, request_hash, new_balance, created_at) VALUES (?, ?, ?, ?)";
+    private static final String DELETE_EXPIRED_SQL =
+            "DELETE FROM idempotency_keys WHERE key_id IN " +
+            "(SELECT key_id FROM idempotency_keys WHERE created_at < ? LIMIT ?)";
+
+    private final IdempotencyRecordRepository recordRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final BlindIndexService blindIndexService;
+    private final BalanceEventLog balanceEventLog;
+    private final Cache<UUID, StoredResult> recent;
+
+    @Value("${account.idempotency.retention-hours:48}")
+    private long retentionHours;
+
+    @Value("${account.idempotency.cleanup-batch-size:5000}")
+    private int cleanupBatchSize;
+
+    public IdempotencyStore(IdempotencyRecordRepository recordRepository,
+                            JdbcTemplate jdbcTemplate,
+                            BlindIndexService blindIndexService,
+                            BalanceEventLog balanceEventLog,
+                            MeterRegistry meterRegistry,
+                            @Value("${account.idempotency.cache-size:100000}") long cacheSize,
+                            @Value("${account.idempotency.cache-ttl-minutes:10}") long cacheTtlMinutes) {
+        this.recordRepository = recordRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.blindIndexService = blindIndexService;
+        this.balanceEventLog = balanceEventLog;
+        this.recent = Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .expireAfterWrite(Duration.ofMinutes(cacheTtlMinutes))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, recent, "account.idempotency.recent");
+    }
+
+    /**
+     * Key for one operation, or null when the caller sent no idempotency key.
+     */
+    public Key key(String idempotencyKey, AccountDescription.PostingType operation, String accountNumber,
+                   BigDecimal amount, AccountDescription.CurrencyType currencyType) {
+        if (idempotencyKey == null || idempotencyKey.isEmpty()) {
+            return null;
+        }
+        byte[] keyHash = blindIndexService.hash("idempotency-key:" + idempotencyKey);
+        ByteBuffer buffer = ByteBuffer.wrap(keyHash);
+        UUID keyId = new UUID(buffer.getLong(), buffer.getLong());
+        // Scale is ignored so 10 and 10.00 count as the same request
+        byte[] requestHash = blindIndexService.hash(operation + "|" + accountNumber + "|"
+                + amount.stripTrailingZeros().toPlainString() + "|" + currencyType);
+        return new Key(idempotencyKey, keyId, requestHash);
+    }
+
+    /**
+     * New balance returned by the first request made with this key, if it completed.
+     */
+    public Optional<BigDecimal> lookup(Key key) {
+        StoredResult stored = recent.getIfPresent(key.getKeyId());
+        if (stored == null) {
+            Optional<IdempotencyRecord> record = recordRepository.findById(key.getKeyId());
+            if (record.isEmpty()) {
+                return Optional.empty();
+            }
+            stored = new StoredResult(record.get().getRequestHash(), record.get().getNewBalance());
+            recent.put(key.getKeyId(), stored);
+        }
+        if (!Arrays.equals(stored.getRequestHash(), key.getRequestHash())) {
+            throw new IdempotencyKeyReusedException(key.getIdempotencyKey());
+        }
+        return Optional.of(stored.getNewBalance());
+    }
+
+    /**
+     * Records the result. Caller holds the transaction that applied the operation; a concurrent
+     * attempt that already recorded the key surfaces here as a DuplicateKeyException.
+     */
+    public void record(Key key, BigDecimal newBalance) {
+        jdbcTemplate.update(INSERT_SQL, key.getKeyId(), key.getRequestHash(),
+                balanceEventLog.encrypt(newBalance), Timestamp.valueOf(LocalDateTime.now()));
+    }
+
+    // Called once the recording transaction has committed
+    public void remember(Key key, BigDecimal newBalance) {
+        recent.put(key.getKeyId(), new StoredResult(key.getRequestHash(), newBalance));
+    }
+
+    @Scheduled(fixedDelayString = "${account.idempotency.cleanup-interval-ms:3600000}")
+    public void deleteExpired() {
+        Timestamp cutoff = Timestamp.valueOf(LocalDateTime.now().minusHours(retentionHours));
+        long deleted = 0;
+        int batch;
+        // Small batches keep each DELETE short next to live inserts
+        do {
+            batch = jdbcTemplate.update(DELETE_EXPIRED_SQL, cutoff, cleanupBatchSize);
+            deleted += batch;
+        } while (batch == cleanupBatchSize);
+        if (deleted > 0) {
+            log.info("Deleted {} expired idempotency keys", deleted);
+        }
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class Key {
+        private final String idempotencyKey;
+        private final UUID keyId;
+        private final byte[] requestHash;
+    }
+
+    @Getter
+    @AllArgsConstructor
+    private static class StoredResult {
+        private final byte[] requestHash;
+        private final BigDecimal newBalance;
+    }
+}
@@ -0,0 +1,425 @@
+package com.AccountService.service;
+
+import com.AccountService.exceptions.AccountNotFoundException;
+import com.AccountService.exceptions.IneligibleAccountException;
+import com.AccountService.exceptions.InsufficientFundsException;
+import com.AccountService.model.Account;
+import com.AccountService.model.AccountBalanceEvent;
+import com.AccountService.model.AccountDescription;
+import com.AccountService.model.InterestAccrualRun;
+import com.AccountService.repository.AccountRepository;
+import com.AccountService.repository.InterestAccrualRepository;
+import com.AccountService.repository.InterestAccrualRunRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Currency;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Daily interest accrual. Walks the accounts table in id order in chunks; while one chunk is
+ * computed and posted the next is already being read. Accruals are computed on a dedicated
+ * fork-join pool, then posted under the account locks in transactions of
+ * account.batch.accounts-per-transaction accounts: one batched INSERT of accrual rows, one
+ * batched UPDATE of balances and one batched INSERT of INTEREST balance events.
+ *
+ * The basis is the account row balance read by the scan; credits still held in balance slots of
+ * a sharded account are not included. Only ACTIVE deposit accounts with a positive rate and
+ * balance accrue, at interestRate / days-per-year rounded half-even to the currency's minor units.
+ *
+ * After each chunk the run's checkpoint moves to the chunk's last account id, so a crashed run
+ * resumes from there. Accounts that already have an accrual row for the date are skipped, and the
+ * interest_accruals unique key backs that up, so a repeated chunk never posts twice.
+ *
+ * A node only works on a run while it holds the lease on the run's row: claimed with a conditional
+ * UPDATE and renewed by every checkpoint, so only one node accrues a date at a time, and a run whose
+ * node died is taken over once its lease expires. The daily job, startup and a periodic resume all
+ * work through every incomplete run, so a date skipped while another run was busy is not lost.
+ *
+ * Metrics (gauges describe the running accrual, zero when idle):
+ * - account.interest.throughput: accounts scanned per second
+ * - account.interest.remaining: accounts not yet scanned
+ * - account.interest.eta: estimated seconds until the run completes
+ * - account.interest.accounts.scanned / account.interest.accounts.accrued: counters
+ * - account.interest.chunk: time to compute and post one chunk
+ */
+@Slf4j
+@Service
+public class InterestAccrualEngine {
+    static final String INSERT_SQL =
+            "INSERT INTO interest_accruals (account_id, accrual_date, amount, posted_at) VALUES (?, ?, ?, ?)";
+
+    private static final String ENSURE_RUN_SQL =
+            "INSERT INTO interest_accrual_runs (accrual_date, last_account_id, accounts_scanned, accounts_accrued, started_at) " +
+            "VALUES (?, 0, 0, 0, ?) ON CONFLICT (accrual_date) DO NOTHING";
+
+    private static final String CLAIM_SQL =
+            "UPDATE interest_accrual_runs SET lease_owner = ?, leased_until = ? " +
+            "WHERE accrual_date = ? AND completed_at IS NULL AND (leased_until IS NULL OR leased_until < ? OR lease_owner = ?)";
+
+    private static final String CHECKPOINT_SQL =
+            "UPDATE interest_accrual_runs SET last_account_id = ?, accounts_scanned = ?, accounts_accrued = ?, leased_until = ? " +
+            "WHERE accrual_date = ? AND lease_owner = ?";
+
+    private static final String COMPLETE_SQL =
+            "UPDATE interest_accrual_runs SET completed_at = ?, leased_until = NULL WHERE accrual_date = ? AND lease_owner = ?";
+
+    private static final String RELEASE_SQL =
+            "UPDATE interest_accrual_runs SET leased_until = NULL WHERE accrual_date = ? AND lease_owner = ?";
+
+    private final AccountRepository accountRepository;
+    private final InterestAccrualRepository accrualRepository;
+    private final InterestAccrualRunRepository runRepository;
+    private final AccountLockManager accountLockManager;
+    private final OptimisticRetryExecutor retryExecutor;
+    private final TransactionTemplate transactionTemplate;
+    private final JdbcTemplate jdbcTemplate;
+    private final BalanceEventLog balanceEventLog;
+    private final AccountSnapshotCache snapshotCache;
+    private final ForkJoinPool computePool;
+    // One worker per node; the lease keeps other nodes off the run it is on
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final String nodeId = UUID.randomUUID().toString();
+
+    private final Counter scannedCounter;
+    private final Counter accruedCounter;
+    private final Timer chunkTimer;
+
+    // Progress of the running accrual, read by the gauges
+    private volatile long runStartNanos;
+    private volatile long runScanned;
+    private volatile long runRemaining;
+
+    @Value("${account.interest.enabled:true}")
+    private boolean enabled;
+
+    @Value("${account.interest.chunk-size:1000}")
+    private int chunkSize;
+
+    @Value("${account.batch.accounts-per-transaction:500}")
+    private int accountsPerTransaction;
+
+    @Value("${account.batch.jdbc-batch-size:100}")
+    private int jdbcBatchSize;
+
+    @Value("${account.interest.days-per-year:365}")
+    private BigDecimal daysPerYear;
+
+    @Value("${account.interest.lease-seconds:300}")
+    private long leaseSeconds;
+
+    public InterestAccrualEngine(AccountRepository accountRepository,
+                                 InterestAccrualRepository accrualRepository,
+                                 InterestAccrualRunRepository runRepository,
+                                 AccountLockManager accountLockManager,
+                                 OptimisticRetryExecutor retryExecutor,
+                                 TransactionTemplate transactionTemplate,
+                                 JdbcTemplate jdbcTemplate,
+                                 BalanceEventLog balanceEventLog,
+                                 AccountSnapshotCache snapshotCache,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${account.interest.parallelism:0}") int parallelism) {
+        this.accountRepository = accountRepository;
+        this.accrualRepository = accrualRepository;
+        this.runRepository = runRepository;
+        this.accountLockManager = accountLockManager;
+        this.retryExecutor = retryExecutor;
+        this.transactionTemplate = transactionTemplate;
+        this.jdbcTemplate = jdbcTemplate;
+        this.balanceEventLog = balanceEventLog;
+        this.snapshotCache = snapshotCache;
+        this.computePool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+
+        this.scannedCounter = meterRegistry.counter("account.interest.accounts.scanned");
+        this.accruedCounter = meterRegistry.counter("account.interest.accounts.accrued");
+        this.chunkTimer = meterRegistry.timer("account.interest.chunk");
+        Gauge.builder("account.interest.throughput", this, InterestAccrualEngine::throughput)
+                .baseUnit("accounts/s")
+                .register(meterRegistry);
+        Gauge.builder("account.interest.remaining", this, engine -> engine.runRemaining)
+                .register(meterRegistry);
+        Gauge.builder("account.interest.eta", this, InterestAccrualEngine::etaSeconds)
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    // Records the day that just ended as due, then works through every incomplete run. The work
+    // goes to its own thread so it never holds up the shared scheduler (slot consolidation,
+    // snapshot compaction, FX reloads).
+    @Scheduled(cron = "${account.interest.cron:0 15 0 * * *}")
+    public void accrueYesterday() {
+        if (enabled) {
+            jdbcTemplate.update(ENSURE_RUN_SQL, Date.valueOf(LocalDate.now().minusDays(1)), Timestamp.valueOf(LocalDateTime.now()));
+            startWorker();
+        }
+    }
+
+    // Picks up runs a crash or shutdown left incomplete
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        if (enabled) {
+            startWorker();
+        }
+    }
+
+    // Takes over runs whose node stopped renewing the lease, and any the daily job could not start
+    @Scheduled(fixedDelayString = "${account.interest.resume-interval-ms:600000}",
+            initialDelayString = "${account.interest.resume-interval-ms:600000}")
+    public void resumeIncomplete() {
+        if (enabled && !running.get() && !claimable().isEmpty()) {
+            startWorker();
+        }
+    }
+
+    private void startWorker() {
+        Thread.ofVirtual().name("interest-accrual").start(this::accruePending);
+    }
+
+    /**
+     * Accrues every incomplete run this node can lease, oldest first. A run that is already
+     * being worked on here is left to that worker, which looks for more runs before it stops.
+     */
+    void accruePending() {
+        while (running.compareAndSet(false, true)) {
+            try {
+                for (InterestAccrualRun run : claimable()) {
+                    if (claim(run.getAccrualDate())) {
+                        accrue(run.getAccrualDate());
+                    }
+                }
+            } finally {
+                running.set(false);
+            }
+            // A run recorded while the last pass was finishing would otherwise wait for the resume
+            if (claimable().isEmpty()) {
+                return;
+            }
+        }
+    }
+
+    // Incomplete runs no node holds a live lease on
+    private List<InterestAccrualRun> claimable() {
+        LocalDateTime now = LocalDateTime.now();
+        return runRepository.findByCompletedAtIsNullOrderByAccrualDateAsc().stream()
+                .filter(run -> run.getLeasedUntil() == null || run.getLeasedUntil().isBefore(now)
+                        || nodeId.equals(run.getLeaseOwner()))
+                .toList();
+    }
+
+    private boolean claim(LocalDate accrualDate) {
+        LocalDateTime now = LocalDateTime.now();
+        return jdbcTemplate.update(CLAIM_SQL, nodeId, Timestamp.valueOf(now.plusSeconds(leaseSeconds)),
+                Date.valueOf(accrualDate), Timestamp.valueOf(now), nodeId) == 1;
+    }
+
+    private void accrue(LocalDate accrualDate) {
+        try {
+            // Read after the claim, so the checkpoint is the one the previous holder left
+            accrue(runRepository.findById(accrualDate).orElseThrow());
+        } catch (RuntimeException e) {
+            jdbcTemplate.update(RELEASE_SQL, Date.valueOf(accrualDate), nodeId);
+            log.error("Interest accrual for {} failed, it resumes from its checkpoint on the next attempt", accrualDate, e);
+        } finally {
+            runRemaining = 0;
+            runScanned = 0;
+        }
+    }
+
+    private void accrue(InterestAccrualRun run) {
+        LocalDate accrualDate = run.getAccrualDate();
+        long lastId = run.getLastAccountId();
+        runStartNanos = System.nanoTime();
+        runRemaining = accountRepository.countByIdGreaterThan(lastId);
+        log.info("Interest accrual for {} starting after account id {}, {} accounts to scan",
+                accrualDate, lastId, runRemaining);
+
+        try (ExecutorService reader = Executors.newVirtualThreadPerTaskExecutor()) {
+            CompletableFuture<List<Account>> next = readChunk(reader, lastId);
+            while (true) {
+                List<Account> chunk = next.join();
+                if (chunk.isEmpty()) {
+                    break;
+                }
+                lastId = chunk.get(chunk.size() - 1).getId();
+                // Read ahead while this chunk is computed and posted
+                next = readChunk(reader, lastId);
+
+                long chunkStart = System.nanoTime();
+                int accrued = post(accrualDate, compute(chunk));
+                chunkTimer.record(System.nanoTime() - chunkStart, TimeUnit.NANOSECONDS);
+
+                run.setLastAccountId(lastId);
+                run.setAccountsScanned(run.getAccountsScanned() + chunk.size());
+                run.setAccountsAccrued(run.getAccountsAccrued() + accrued);
+                checkpoint(run);
+
+                scannedCounter.increment(chunk.size());
+                accruedCounter.increment(accrued);
+                runScanned += chunk.size();
+                runRemaining = Math.max(0, runRemaining - chunk.size());
+                log.debug("Interest accrual for {} at account id {}, {} accounts/s, eta {}s",
+                        accrualDate, lastId, Math.round(throughput()), Math.round(etaSeconds()));
+            }
+        }
+
+        run.setCompletedAt(LocalDateTime.now());
+        jdbcTemplate.update(COMPLETE_SQL, Timestamp.valueOf(run.getCompletedAt()), Date.valueOf(accrualDate), nodeId);
+        log.info("Interest accrual for {} finished, {} accounts scanned, {} accrued",
+                accrualDate, run.getAccountsScanned(), run.getAccountsAccrued());
+    }
+
+    // Moves the checkpoint and renews the lease; a lease taken over meanwhile stops this run
+    private void checkpoint(InterestAccrualRun run) {
+        int updated = jdbcTemplate.update(CHECKPOINT_SQL, run.getLastAccountId(), run.getAccountsScanned(),
+                run.getAccountsAccrued(), Timestamp.valueOf(LocalDateTime.now().plusSeconds(leaseSeconds)),
+                Date.valueOf(run.getAccrualDate()), nodeId);
+        if (updated == 0) {
+            throw new IllegalStateException("Lease on the interest accrual for " + run.getAccrualDate() + " was taken over");
+        }
+    }
+
+    private CompletableFuture<List<Account>> readChunk(ExecutorService reader, long afterId) {
+        return CompletableFuture.supplyAsync(
+                () -> accountRepository.findByIdGreaterThanOrderByIdAsc(afterId, PageRequest.of(0, chunkSize)), reader);
+    }
+
+    private List<Accrual> compute(List<Account> chunk) {
+        return computePool.submit(() -> chunk.parallelStream()
+                        .map(this::accrual)
+                        .filter(Objects::nonNull)
+                        .toList())
+                .join();
+    }
+
+    private Accrual accrual(Account account) {
+        AccountDescription.AccountType type = account.getAccountType();
+        if (type == AccountDescription.AccountType.INTERNAL || type == AccountDescription.AccountType.LOAN
+                || account.getAccountStatus() != AccountDescription.AccountStatus.ACTIVE) {
+            return null;
+        }
+        BigDecimal rate = account.getInterestRate();
+        BigDecimal balance = account.getCurrentBalance();
+        if (rate == null || rate.signum() <= 0 || balance.signum() <= 0) {
+            return null;
+        }
+
+        int scale = Currency.getInstance(account.getCurrencyType().name()).getDefaultFractionDigits();
+        BigDecimal amount = balance.multiply(rate).divide(daysPerYear, scale, RoundingMode.HALF_EVEN);
+        return amount.signum() > 0 ? new Accrual(account.getId(), account.getAccountNumber(), amount) : null;
+    }
+
+    private int post(LocalDate accrualDate, List<Accrual> accruals) {
+        int posted = 0;
+        for (int from = 0; from < accruals.size(); from += accountsPerTransaction) {
+            List<Accrual> batch = accruals.subList(from, Math.min(from + accountsPerTransaction, accruals.size()));
+            List<String> accountNumbers = batch.stream().map(Accrual::getAccountNumber).toList();
+            try {
+                posted += retryExecutor.execute("interest", () -> accountLockManager.withLocks(accountNumbers,
+                        () -> transactionTemplate.execute(status -> postBatch(accrualDate, batch))));
+            } catch (AccountNotFoundException | IneligibleAccountException | InsufficientFundsException e) {
+                // Ineligible accounts are skipped inside the batch, never thrown
+                throw new IllegalStateException(e);
+            } finally {
+                snapshotCache.invalidate(accountNumbers);
+            }
+        }
+        return posted;
+    }
+
+    private Integer postBatch(LocalDate accrualDate, List<Accrual> batch) {
+        List<Long> ids = batch.stream().map(Accrual::getAccountId).toList();
+        Set<Long> alreadyAccrued = new HashSet<>(accrualRepository.findAccruedAccountIds(accrualDate, ids));
+
+        // Re-read inside the transaction so the credit lands on the current row
+        Map<Long, Account> accountsById = new HashMap<>();
+        for (Account account : accountRepository.findAllById(ids)) {
+            accountsById.put(account.getId(), account);
+        }
+
+        List<Account> credited = new ArrayList<>(batch.size());
+        List<Accrual> applied = new ArrayList<>(batch.size());
+        List<AccountBalanceEvent> events = new ArrayList<>(batch.size());
+        for (Accrual accrual : batch) {
+            Account account = accountsById.get(accrual.getAccountId());
+            // Closed, frozen or deleted since the scan
+            if (account == null || alreadyAccrued.contains(accrual.getAccountId())
+                    || account.getAccountStatus() != AccountDescription.AccountStatus.ACTIVE) {
+                continue;
+            }
+            account.setCurrentBalance(account.getCurrentBalance().add(accrual.getAmount()));
+            account.setAvailableBalance(account.getAvailableBalance().add(accrual.getAmount()));
+            credited.add(account);
+            applied.add(accrual);
+            events.add(new AccountBalanceEvent(account.getId(), AccountDescription.BalanceEventType.INTEREST,
+                    accrual.getAmount(), accrual.getAmount()));
+        }
+
+        Date date = Date.valueOf(accrualDate);
+        Timestamp postedAt = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(INSERT_SQL, applied, jdbcBatchSize, (ps, accrual) -> {
+            ps.setLong(1, accrual.getAccountId());
+            ps.setDate(2, date);
+            ps.setString(3, balanceEventLog.encrypt(accrual.getAmount()));
+            ps.setTimestamp(4, postedAt);
+        });
+        accountRepository.saveAll(credited);
+        balanceEventLog.appendAll(events);
+        return applied.size();
+    }
+
+    private double throughput() {
+        long elapsedNanos = System.nanoTime() - runStartNanos;
+        return runScanned == 0 || elapsedNanos <= 0 ? 0 : runScanned * 1e9 / elapsedNanos;
+    }
+
+    private double etaSeconds() {
+        double rate = throughput();
+        return rate == 0 ? 0 : runRemaining / rate;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        computePool.shutdown();
+    }
+
+    @Getter
+    @AllArgsConstructor
+    private static class Accrual {
+        private final Long accountId;
+        private final String accountNumber;
+        private final BigDecimal amount;
+    }
+}
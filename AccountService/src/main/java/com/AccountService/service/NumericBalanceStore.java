@@ -0,0 +1,94 @@
+package com.AccountService.service;
+
+import com.AccountService.model.AccountDescription;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Balance mutations as single conditional UPDATE ... RETURNING statements, for rows whose balances
+ * are stored in the plain numeric columns (account.storage.balances=NUMERIC). Those columns are
+ * expected to be protected at the database level (row-level security, TDE) instead of by AES.
+ *
+ * The database applies the arithmetic and the funds check atomically, so there is no read-modify-write
+ * window. Every statement bumps the row version, so any concurrent Hibernate write to the same row
+ * fails its optimistic check and is retried. Eligibility is part of the statement too: only rows
+ * whose postings_open flag is set (ACTIVE accounts) are updated, so a status change made on any
+ * instance takes effect immediately. An empty result means the row was not updated (missing, not
+ * yet on numeric storage, not ACTIVE, or short of funds) and the caller falls back to the entity
+ * path, which reports the precise reason.
+ */
+@Service
+public class NumericBalanceStore {
+    // The balance event is appended by the same statement, so it commits exactly when the update does
+    private static final String LOG_EVENT =
+            "logged AS (INSERT INTO account_balance_events (account_id, event_type, current_delta, available_delta, occurred_at) " +
+            "SELECT id, ?, ?, ?, ? FROM updated) ";
+
+    private static final String CREDIT_SQL =
+            "WITH updated AS (UPDATE accounts SET current_balance_amount = current_balance_amount + ?, " +
+            "available_balance_amount = available_balance_amount + ?, version = version + 1, updated_at = ?, last_activity_at = ?, idle_since = ? " +
+            "WHERE account_number_hmac = ? AND current_balance_amount IS NOT NULL AND postings_open " +
+            "RETURNING id, available_balance_amount), " + LOG_EVENT +
+            "SELECT available_balance_amount FROM updated";
+
+    private static final String DEBIT_SQL =
+            "WITH updated AS (UPDATE accounts SET current_balance_amount = current_balance_amount - ?, " +
+            "available_balance_amount = available_balance_amount - ?, version = version + 1, updated_at = ?, last_activity_at = ?, idle_since = ? " +
+            "WHERE account_number_hmac = ? AND current_balance_amount IS NOT NULL AND postings_open AND available_balance_amount >= ? " +
+            "RETURNING id, current_balance_amount), " + LOG_EVENT +
+            "SELECT current_balance_amount FROM updated";
+
+    public enum BalanceStorage { ENCRYPTED, NUMERIC }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final BlindIndexService blindIndexService;
+    private final BalanceEventLog balanceEventLog;
+    private final BalanceStorage balanceStorage;
+
+    public NumericBalanceStore(JdbcTemplate jdbcTemplate,
+                               BlindIndexService blindIndexService,
+                               BalanceEventLog balanceEventLog,
+                               @Value("${account.storage.balances:ENCRYPTED}") BalanceStorage balanceStorage) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.blindIndexService = blindIndexService;
+        this.balanceEventLog = balanceEventLog;
+        this.balanceStorage = balanceStorage;
+    }
+
+    public boolean isEnabled() {
+        return balanceStorage == BalanceStorage.NUMERIC;
+    }
+
+    /**
+     * Adds to both balances, returning the new available balance.
+     */
+    public Optional<BigDecimal> credit(String accountNumber, BigDecimal amount) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        String delta = balanceEventLog.encrypt(amount);
+        return single(jdbcTemplate.queryForList(CREDIT_SQL, BigDecimal.class,
+                amount, amount, now, now, now, blindIndexService.hash(accountNumber),
+                AccountDescription.BalanceEventType.CREDIT.name(), delta, delta, now));
+    }
+
+    /**
+     * Subtracts from both balances if the available balance covers it, returning the new current balance.
+     */
+    public Optional<BigDecimal> debit(String accountNumber, BigDecimal amount) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        String delta = balanceEventLog.encrypt(amount.negate());
+        return single(jdbcTemplate.queryForList(DEBIT_SQL, BigDecimal.class,
+                amount, amount, now, now, now, blindIndexService.hash(accountNumber), amount,
+                AccountDescription.BalanceEventType.DEBIT.name(), delta, delta, now));
+    }
+
+    private static Optional<BigDecimal> single(List<BigDecimal> rows) {
+        return rows.isEmpty() ? Optional.empty() : Optional.of(rows.get(0));
+    }
+}
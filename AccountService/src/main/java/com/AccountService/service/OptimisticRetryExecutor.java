@@ -0,0 +1,77 @@
+package com.AccountService.service;
+
+import com.AccountService.exceptions.AccountNotFoundException;
+import com.AccountService.exceptions.IneligibleAccountException;
+import com.AccountService.exceptions.InsufficientFundsException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Re-runs an account operation when its transaction loses an optimistic version check.
+ * Backoff is exponential with full jitter so that writers colliding on a hot account
+ * spread out instead of retrying in lockstep. Callers take their account locks inside the
+ * operation, so a backoff never sleeps while holding a lock stripe.
+ *
+ * Metrics (tagged by operation):
+ * - account.optimistic.attempts: every execution of the operation
+ * - account.optimistic.conflicts: executions that hit a version conflict
+ * - account.optimistic.exhausted: operations that gave up after maxAttempts
+ * Conflict rate is conflicts / attempts.
+ */
+@Slf4j
+@Component
+public class OptimisticRetryExecutor {
+    private final MeterRegistry meterRegistry;
+    private final int maxAttempts;
+    private final long baseBackoffMs;
+    private final long maxBackoffMs;
+
+    public OptimisticRetryExecutor(MeterRegistry meterRegistry,
+                                   @Value("${account.retry.max-attempts:5}") int maxAttempts,
+                                   @Value("${account.retry.base-backoff-ms:5}") long baseBackoffMs,
+                                   @Value("${account.retry.max-backoff-ms:200}") long maxBackoffMs) {
+        this.meterRegistry = meterRegistry;
+        this.maxAttempts = maxAttempts;
+        this.baseBackoffMs = baseBackoffMs;
+        this.maxBackoffMs = maxBackoffMs;
+    }
+
+    public <T> T execute(String operationName, AccountOperation<T> operation)
+            throws AccountNotFoundException, IneligibleAccountException, InsufficientFundsException {
+        Counter attempts = meterRegistry.counter("account.optimistic.attempts", "operation", operationName);
+        Counter conflicts = meterRegistry.counter("account.optimistic.conflicts", "operation", operationName);
+
+        for (int attempt = 1; ; attempt++) {
+            attempts.increment();
+            try {
+                return operation.execute();
+            } catch (OptimisticLockingFailureException e) {
+                conflicts.increment();
+                if (attempt >= maxAttempts) {
+                    meterRegistry.counter("account.optimistic.exhausted", "operation", operationName).increment();
+                    log.warn("{} gave up after {} optimistic lock conflicts", operationName, attempt);
+                    throw e;
+                }
+                log.debug("{} hit an optimistic lock conflict on attempt {}, retrying", operationName, attempt);
+                backoff(attempt);
+            }
+        }
+    }
+
+    private void backoff(int attempt) {
+        long ceiling = Math.min(maxBackoffMs, baseBackoffMs << Math.min(attempt - 1, 20));
+        long sleepMs = ThreadLocalRandom.current().nextLong(ceiling + 1);
+        try {
+            Thread.sleep(sleepMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while backing off an optimistic retry", e);
+        }
+    }
+}
@@ -0,0 +1,188 @@
+package com.AccountService.service;
+
+import com.AccountService.model.Account;
+import com.AccountService.model.AccountBalanceSlot;
+import com.AccountService.repository.AccountBalanceSlotRepository;
+import com.AccountService.repository.AccountRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Opt-in sharded balances for hot accounts (merchant settlement, INTERNAL accounts).
+ *
+ * A sharded account keeps its balance in the account row plus N slot rows. Credits pick a
+ * random slot and only lock and update that slot, so credit throughput scales with the slot
+ * count. Debits draw from the account row; when it is short they fall back to a rebalance
+ * that folds every slot into the account row first. Slots are also consolidated periodically
+ * so the account row stays close to the true balance.
+ *
+ * Lock keys: the account row is guarded by the account number, slot i by "accountNumber#i".
+ */
+@Slf4j
+@Service
+public class ShardedBalanceService {
+    private final AccountRepository accountRepository;
+    private final AccountBalanceSlotRepository slotRepository;
+    private final AccountLockManager accountLockManager;
+    private final TransactionTemplate transactionTemplate;
+    private final BlindIndexService blindIndexService;
+
+    // Slot counts only decide which row a credit lands on; a stale value is still correct
+    private final Cache<String, Integer> slotCounts = Caffeine.newBuilder()
+            .maximumSize(100_000)
+            .expireAfterWrite(Duration.ofMinutes(5))
+            .build();
+
+    public ShardedBalanceService(AccountRepository accountRepository,
+                                 AccountBalanceSlotRepository slotRepository,
+                                 AccountLockManager accountLockManager,
+                                 TransactionTemplate transactionTemplate,
+                                 BlindIndexService blindIndexService) {
+        this.accountRepository = accountRepository;
+        this.slotRepository = slotRepository;
+        this.accountLockManager = accountLockManager;
+        this.transactionTemplate = transactionTemplate;
+        this.blindIndexService = blindIndexService;
+    }
+
+    public int slotCount(String accountNumber) {
+        return slotCounts.get(accountNumber,
+                number -> accountRepository.findBalanceSlotsByAccountNumberHmac(blindIndexService.hash(number)).orElse(0));
+    }
+
+    public int pickSlot(int slots) {
+        return ThreadLocalRandom.current().nextInt(slots);
+    }
+
+    public static String slotLockKey(String accountNumber, int slot) {
+        return accountNumber + "#" + slot;
+    }
+
+    /**
+     * The account lock key followed by every slot lock key, for operations that touch all rows.
+     */
+    public static List<String> allLockKeys(String accountNumber, int slots) {
+        List<String> keys = new ArrayList<>(slots + 1);
+        keys.add(accountNumber);
+        for (int i = 0; i < slots; i++) {
+            keys.add(slotLockKey(accountNumber, i));
+        }
+        return keys;
+    }
+
+    /**
+     * Adds to a single slot. Caller holds the slot lock and an open transaction. The slot was picked
+     * from a cached count, so it is mapped onto the account's current slots; false when the account
+     * has none left (slots removed since), in which case the caller credits the account row instead.
+     * The slot row's version guards against a writer that locked the same row under another index.
+     */
+    public boolean creditSlot(Account account, int slot, BigDecimal amount) {
+        int slots = account.getBalanceSlots();
+        slotCounts.put(account.getAccountNumber(), slots);
+        if (slots == 0) {
+            return false;
+        }
+        Optional<AccountBalanceSlot> balanceSlot = slotRepository.findByAccountIdAndSlotIndex(account.getId(), slot % slots);
+        if (balanceSlot.isEmpty()) {
+            // Being reconfigured by another node
+            slotCounts.invalidate(account.getAccountNumber());
+            return false;
+        }
+
+        balanceSlot.get().setBalance(balanceSlot.get().getBalance().add(amount));
+        slotRepository.save(balanceSlot.get());
+        return true;
+    }
+
+    /**
+     * Sum of credits not yet folded into the account row.
+     */
+    public BigDecimal pendingTotal(Account account) {
+        if (account.getBalanceSlots() == 0) {
+            return BigDecimal.ZERO;
+        }
+        return slotRepository.findByAccountId(account.getId()).stream()
+                .map(AccountBalanceSlot::getBalance)
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+    }
+
+    /**
+     * Folds every slot into the account row. Caller holds all lock keys and an open transaction.
+     */
+    public void consolidate(Account account) {
+        BigDecimal total = BigDecimal.ZERO;
+        List<AccountBalanceSlot> slots = slotRepository.findByAccountId(account.getId());
+        for (AccountBalanceSlot slot : slots) {
+            if (slot.getBalance().signum() != 0) {
+                total = total.add(slot.getBalance());
+                slot.setBalance(BigDecimal.ZERO);
+            }
+        }
+
+        if (total.signum() != 0) {
+            account.setCurrentBalance(account.getCurrentBalance().add(total));
+            account.setAvailableBalance(account.getAvailableBalance().add(total));
+            slotRepository.saveAll(slots);
+            accountRepository.save(account);
+        }
+    }
+
+    /**
+     * Switches an account between single-row (0 slots) and sharded balances.
+     */
+    public void configureSlots(String accountNumber, int slots) {
+        List<String> keys = allLockKeys(accountNumber, Math.max(slotCount(accountNumber), slots));
+
+        accountLockManager.runWithLocks(keys, () -> transactionTemplate.executeWithoutResult(status -> {
+            Account account = accountRepository.findByAccountNumberHmac(blindIndexService.hash(accountNumber))
+                    .orElseThrow(() -> new IllegalArgumentException("Account not found: " + accountNumber));
+
+            consolidate(account);
+            List<AccountBalanceSlot> existing = slotRepository.findByAccountId(account.getId());
+            for (AccountBalanceSlot slot : existing) {
+                if (slot.getSlotIndex() >= slots) {
+                    slotRepository.delete(slot);
+                }
+            }
+            for (int i = existing.size(); i < slots; i++) {
+                AccountBalanceSlot slot = new AccountBalanceSlot();
+                slot.setAccountId(account.getId());
+                slot.setSlotIndex(i);
+                slot.setBalance(BigDecimal.ZERO);
+                slotRepository.save(slot);
+            }
+
+            account.setBalanceSlots(slots);
+            accountRepository.save(account);
+        }));
+
+        slotCounts.put(accountNumber, slots);
+        log.info("Account {} now uses {} balance slots", accountNumber, slots);
+    }
+
+    @Scheduled(fixedDelayString = "${account.sharding.consolidation-interval-ms:5000}")
+    public void consolidateAll() {
+        for (Account sharded : accountRepository.findByBalanceSlotsGreaterThan(0)) {
+            String accountNumber = sharded.getAccountNumber();
+            try {
+                accountLockManager.runWithLocks(allLockKeys(accountNumber, sharded.getBalanceSlots()),
+                        () -> transactionTemplate.executeWithoutResult(status ->
+                                accountRepository.findByAccountNumberHmac(blindIndexService.hash(accountNumber)).ifPresent(this::consolidate)));
+            } catch (RuntimeException e) {
+                // Conflicts with live traffic are expected; the next run picks the account up again
+                log.warn("Failed to consolidate balance slots for {}: {}", accountNumber, e.getMessage());
+            }
+        }
+    }
+}
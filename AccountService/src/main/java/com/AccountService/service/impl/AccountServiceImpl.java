@@ -2,32 +2,123 @@ package com.AccountService.service.impl;
 
 import com.AccountService.dto.request.*;
 import com.AccountService.dto.response.*;
+import com.AccountService.exceptions.FxRateUnavailableException;
+import com.AccountService.exceptions.HoldNotActiveException;
+import com.AccountService.exceptions.HoldNotFoundException;
 import com.AccountService.exceptions.IneligibleAccountException;
 import com.AccountService.exceptions.AccountNotFoundException;
 import com.AccountService.exceptions.InsufficientFundsException;
 import com.AccountService.model.Account;
+import com.AccountService.model.AccountBalanceEvent;
 import com.AccountService.model.AccountDescription;
+import com.AccountService.model.FundsHold;
 import com.AccountService.repository.AccountRepository;
+import com.AccountService.repository.FundsHoldRepository;
+import com.AccountService.service.AccountLockManager;
+import com.AccountService.service.AccountNumberAllocator;
+import com.AccountService.service.AccountOperation;
 import com.AccountService.service.AccountService;
-import com.AccountService.utils.AccountNumberGenerator;
+import com.AccountService.service.AccountSnapshot;
+import com.AccountService.service.AccountSnapshotCache;
+import com.AccountService.service.BalanceEventLog;
+import com.AccountService.service.FxRateService;
+import com.AccountService.service.HoldExpiryWheel;
+import com.AccountService.service.IdempotencyStore;
+import com.AccountService.service.NumericBalanceStore;
+import com.AccountService.service.BlindIndexService;
+import com.AccountService.service.OptimisticRetryExecutor;
+import com.AccountService.service.ShardedBalanceService;
+import jakarta.annotation.PostConstruct;
 import lombok.SneakyThrows;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
 
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
 @Slf4j
 @Service
 public class AccountServiceImpl implements AccountService {
+    private static final int MAX_ACCOUNTS_PAGE_SIZE = 500;
+
     @Autowired
     AccountRepository accountRepository;
+    @Autowired
+    AccountLockManager accountLockManager;
+    @Autowired
+    OptimisticRetryExecutor retryExecutor;
+    @Autowired
+    PlatformTransactionManager transactionManager;
+    @Autowired
+    BlindIndexService blindIndexService;
+
+    @Value("${account.locking.pessimistic:false}")
+    private boolean pessimisticLocking;
+
+    @Autowired
+    ShardedBalanceService shardedBalanceService;
+
+    @Autowired
+    AccountSnapshotCache snapshotCache;
+
+    @Autowired
+    AccountNumberAllocator accountNumberAllocator;
+
+    @Autowired
+    NumericBalanceStore numericBalanceStore;
+
+    @Autowired
+    FxRateService fxRateService;
+
+    @Autowired
+    BalanceEventLog balanceEventLog;
+
+    @Autowired
+    IdempotencyStore idempotencyStore;
+
+    @Autowired
+    FundsHoldRepository fundsHoldRepository;
+
+    @Autowired
+    HoldExpiryWheel holdExpiryWheel;
+
+    @Value("${account.holds.default-ttl-minutes:10080}")
+    private long defaultHoldTtlMinutes;
+
+    @Value("${account.holds.max-ttl-minutes:43200}")
+    private long maxHoldTtlMinutes;
+
+    @Value("${account.batch.accounts-per-transaction:500}")
+    private int accountsPerBatchTransaction;
+
+    @Value("${account.sharding.internal-slots:0}")
+    private int internalAccountSlots;
+
+    @PostConstruct
+    void registerHoldExpiry() {
+        holdExpiryWheel.onExpiry(this::expireHolds);
+    }
+
     @Override
     public AccountResponse createAccount(AccountCreateRequest request) {
         if(request.getAccountType() == AccountDescription.AccountType.CHECKING &&
@@ -47,18 +138,27 @@ public class AccountServiceImpl implements AccountService {
         account.setAvailableBalance(request.getCurrentBalance());
         account.setCurrentBalance(request.getCurrentBalance());
         account.setInterestRate(request.getInterestRate());
+        account.setLastActivityAt(LocalDateTime.now());
 
-        while (true){
-            String accountNumber = AccountNumberGenerator.generate(request.getAccountType());
-            account.setAccountNumber(accountNumber);
-            try{
+        // Allocated numbers are unique by construction, so a single insert is enough
+        account.setAccountNumber(accountNumberAllocator.next(request.getAccountType()));
+        try {
+            inTransaction(() -> {
                 accountRepository.save(account);
-                break;
-            } catch(DuplicateKeyException e){
-                // loop again to generate new account number
-            }
+                balanceEventLog.append(new AccountBalanceEvent(account.getId(), AccountDescription.BalanceEventType.OPENING,
+                        account.getCurrentBalance(), account.getAvailableBalance()));
+                return null;
+            });
+        } catch (AccountNotFoundException | IneligibleAccountException | InsufficientFundsException e) {
+            // Opening an account checks none of these
+            throw new IllegalStateException(e);
         }
 
+        if (account.getAccountType() == AccountDescription.AccountType.INTERNAL && internalAccountSlots > 0) {
+            shardedBalanceService.configureSlots(account.getAccountNumber(), internalAccountSlots);
+        }
+        snapshotCache.invalidateUser(account.getUserId());
+
         return new AccountResponse(account.getAccountType(), account.getAccountStatus(),
                 account.getCurrentBalance(), account.getAvailableBalance(), account.getCurrencyType(),
                 account.getAccountNumber(), account.getInterestRate());
@@ -67,96 +167,759 @@ public class AccountServiceImpl implements AccountService {
     @SneakyThrows
     @Override
     public List<AccountResponse> getAccountDetailsByUserId(UUID userId) {
-        List<Account> accounts = accountRepository.findByUserId(userId);
-        if (accounts.isEmpty()){
+        // Snapshots are built straight from the one query's rows instead of re-reading each account
+        List<AccountSnapshot> snapshots = snapshotCache.getByUserId(userId, id -> accountRepository.findByUserId(id).stream()
+                .map(this::toSnapshot)
+                .toList());
+        if (snapshots.isEmpty()){
             throw new AccountNotFoundException("Account not found", userId.toString(), "userId");
         }
 
-        return accounts.stream()
-                .map(account -> {
-                    try {
-                        return getAccountDetails(account.getAccountNumber());
-                    } catch (AccountNotFoundException e) {
-                        throw new RuntimeException(e);
-                    }
-                })
+        return snapshots.stream()
+                .map(AccountSnapshot::toResponse)
                 .collect(Collectors.toList());
 
     }
 
+    /**
+     * Paged variant for users with many accounts. Pages are read straight from the database in id
+     * order and are not cached.
+     */
+    @Override
+    public Slice<AccountResponse> getAccountDetailsByUserId(UUID userId, int page, int size) throws AccountNotFoundException {
+        PageRequest pageRequest = PageRequest.of(page, Math.min(size, MAX_ACCOUNTS_PAGE_SIZE), Sort.by("id"));
+        Slice<Account> accounts = accountRepository.findByUserId(userId, pageRequest);
+        if (page == 0 && accounts.isEmpty()) {
+            throw new AccountNotFoundException("Account not found", userId.toString(), "userId");
+        }
+        return accounts.map(account -> toSnapshot(account).toResponse());
+    }
+
     @Override
     public AccountResponse getAccountDetails(String accountNumber) throws AccountNotFoundException {
-        Account account = accountRepository.findByAccountNumber(accountNumber)
+        AccountSnapshot snapshot = snapshotCache.getByAccountNumber(accountNumber, this::loadSnapshot);
+        if (snapshot == null) {
+            throw new AccountNotFoundException("Account not found", accountNumber, "account number");
+        }
+        return snapshot.toResponse();
+    }
+
+    @Override
+    public BalanceAtResponse getBalanceAt(String accountNumber, LocalDateTime at) throws AccountNotFoundException {
+        Account account = accountRepository.findByAccountNumberHmac(blindIndexService.hash(accountNumber))
                 .orElseThrow(()-> new AccountNotFoundException("Account not found", accountNumber, "account number"));
 
-        return new AccountResponse(account.getAccountType(), account.getAccountStatus(),
-                account.getCurrentBalance(), account.getAvailableBalance(), account.getCurrencyType(),
-                account.getAccountNumber(), account.getInterestRate());
+        BalanceEventLog.Balance balance = balanceEventLog.balanceAt(account.getId(), at);
+        return new BalanceAtResponse(accountNumber, account.getCurrencyType(), balance.getCurrentBalance(),
+                balance.getAvailableBalance(), at, balance.getAsOf());
     }
 
+    /**
+     * Rebuilds the balance from the event log and compares it with the account row plus its slots.
+     * With repair, a drifted row is rewritten so the logical balance matches the log; slots are
+     * folded in first so the row alone carries the balance. No event is appended, since the log
+     * already holds the changes the row is brought in line with.
+     */
+    @Override
+    public BalanceAuditResponse auditBalance(String accountNumber, boolean repair) throws AccountNotFoundException {
+        int slots = shardedBalanceService.slotCount(accountNumber);
+        try {
+            return retryExecutor.execute("audit", () -> accountLockManager.withLocks(ShardedBalanceService.allLockKeys(accountNumber, slots),
+                    () -> inTransaction(() -> applyAudit(accountNumber, repair))));
+        } catch (IneligibleAccountException | InsufficientFundsException e) {
+            // Auditing checks neither eligibility nor funds
+            throw new IllegalStateException(e);
+        } finally {
+            if (repair) {
+                snapshotCache.invalidate(accountNumber);
+            }
+        }
+    }
+
+    private BalanceAuditResponse applyAudit(String accountNumber, boolean repair) throws AccountNotFoundException {
+        Account account = loadForUpdate(accountNumber);
+        BigDecimal pending = shardedBalanceService.pendingTotal(account);
+        BigDecimal current = account.getCurrentBalance().add(pending);
+        BigDecimal available = account.getAvailableBalance().add(pending);
+        BalanceEventLog.Balance rebuilt = balanceEventLog.rebuild(account.getId());
+
+        boolean drifted = current.compareTo(rebuilt.getCurrentBalance()) != 0
+                || available.compareTo(rebuilt.getAvailableBalance()) != 0;
+        if (drifted) {
+            log.warn("Balance of account {} drifted from its event log: row {}/{}, log {}/{}", accountNumber,
+                    current, available, rebuilt.getCurrentBalance(), rebuilt.getAvailableBalance());
+        }
+        if (drifted && repair) {
+            shardedBalanceService.consolidate(account);
+            account.setCurrentBalance(rebuilt.getCurrentBalance());
+            account.setAvailableBalance(rebuilt.getAvailableBalance());
+            accountRepository.save(account);
+        }
+        return new BalanceAuditResponse(accountNumber, current, available,
+                rebuilt.getCurrentBalance(), rebuilt.getAvailableBalance(), drifted, drifted && repair);
+    }
+
+    /**
+     * Keyset page of accounts in id order. The owner filter runs in SQL against the deterministic
+     * user id ciphertext; type, status and currency are only readable after decryption, so they are
+     * checked on the loaded rows.
+     */
+    @Override
+    public AccountListPage listAccounts(AccountListFilter filter, long afterId, int pageSize) {
+        PageRequest pageRequest = PageRequest.of(0, Math.max(1, Math.min(pageSize, MAX_ACCOUNTS_PAGE_SIZE)));
+        List<Account> scanned = filter.getUserId() != null
+                ? accountRepository.findByUserIdAndIdGreaterThanOrderByIdAsc(filter.getUserId(), afterId, pageRequest)
+                : accountRepository.findByIdGreaterThanOrderByIdAsc(afterId, pageRequest);
+
+        List<AccountListPage.Entry> entries = new ArrayList<>(scanned.size());
+        for (Account account : scanned) {
+            if (matches(filter, account)) {
+                entries.add(new AccountListPage.Entry(account.getId(), toSnapshot(account).toResponse()));
+            }
+        }
+        long lastScannedId = scanned.isEmpty() ? afterId : scanned.get(scanned.size() - 1).getId();
+        return new AccountListPage(entries, lastScannedId, scanned.size() < pageRequest.getPageSize());
+    }
+
+    private boolean matches(AccountListFilter filter, Account account) {
+        return (filter.getAccountTypes().isEmpty() || filter.getAccountTypes().contains(account.getAccountType()))
+                && (filter.getAccountStatuses().isEmpty() || filter.getAccountStatuses().contains(account.getAccountStatus()))
+                && (filter.getCurrencyTypes().isEmpty() || filter.getCurrencyTypes().contains(account.getCurrencyType()));
+    }
+
+    private AccountSnapshot loadSnapshot(String accountNumber) {
+        return accountRepository.findByAccountNumberHmac(blindIndexService.hash(accountNumber))
+                .map(this::toSnapshot)
+                .orElse(null);
+    }
+
+    private AccountSnapshot toSnapshot(Account account) {
+        // Sharded accounts hold part of their balance in credit slots
+        BigDecimal pending = shardedBalanceService.pendingTotal(account);
+
+        return new AccountSnapshot(account.getUserId(), account.getAccountNumber(), account.getAccountType(),
+                account.getAccountStatus(), account.getCurrentBalance().add(pending), account.getAvailableBalance().add(pending),
+                account.getCurrencyType(), account.getInterestRate());
+    }
+
+    /**
+     * With an idempotency key the result is recorded in the transaction that applies the credit,
+     * and a repeat of the key returns it without crediting again.
+     */
     @Override
     public CreditResponse creditAccount(CreditRequest request) throws IneligibleAccountException, AccountNotFoundException {
+        IdempotencyStore.Key key = idempotencyStore.key(request.getIdempotencyKey(), AccountDescription.PostingType.CREDIT,
+                request.getAccountNumber(), request.getAmount(), request.getCurrencyType());
+        if (key == null) {
+            return executeCredit(request, null);
+        }
+
+        Optional<BigDecimal> replayed = idempotencyStore.lookup(key);
+        if (replayed.isPresent()) {
+            return new CreditResponse(request.getAccountNumber(), request.getAmount(), request.getCurrencyType(), replayed.get());
+        }
+        try {
+            CreditResponse response = executeCredit(request, key);
+            idempotencyStore.remember(key, response.getNewBalance());
+            return response;
+        } catch (DuplicateKeyException e) {
+            // A concurrent attempt with the same key committed first and this one rolled back
+            BigDecimal newBalance = idempotencyStore.lookup(key).orElseThrow(() -> e);
+            return new CreditResponse(request.getAccountNumber(), request.getAmount(), request.getCurrencyType(), newBalance);
+        }
+    }
+
+    private CreditResponse executeCredit(CreditRequest request, IdempotencyStore.Key key) throws IneligibleAccountException, AccountNotFoundException {
         String accountNumber = request.getAccountNumber();
-        BigDecimal amount = request.getAmount();
+        int slots = shardedBalanceService.slotCount(accountNumber);
+        if (slots == 0 && numericBalanceStore.isEnabled()) {
+            Optional<CreditResponse> response = tryNumericCredit(request, key);
+            if (response.isPresent()) {
+                snapshotCache.invalidateBalances(accountNumber);
+                return response.get();
+            }
+        }
+        try {
+            if (slots > 0) {
+                // Hot account: only the chosen slot row is locked and written
+                int slot = shardedBalanceService.pickSlot(slots);
+                CreditResponse response = retryExecutor.execute("credit", () -> accountLockManager.withLock(ShardedBalanceService.slotLockKey(accountNumber, slot),
+                        () -> inTransaction(() -> applySlotCredit(request, slot, key))));
+                if (response != null) {
+                    return response;
+                }
+                // Slots were removed after the count was cached; the account row takes the credit
+            }
+            return retryExecutor.execute("credit", () -> accountLockManager.withLock(accountNumber,
+                    () -> inTransaction(() -> applyCredit(request, key))));
+        } catch (InsufficientFundsException e) {
+            // Credits never check funds
+            throw new IllegalStateException(e);
+        } finally {
+            snapshotCache.invalidate(accountNumber);
+        }
+    }
 
-        Account account = accountRepository.findByAccountNumber(accountNumber)
-                .orElseThrow(()-> new AccountNotFoundException("Account not found", accountNumber, "account number"));
+    /**
+     * Keyed debits behave like keyed credits: recorded with the debit, replayed on repeat.
+     */
+    @Override
+    public DebitResponse debitAccount(DebitRequest request) throws IneligibleAccountException, InsufficientFundsException, AccountNotFoundException {
+        IdempotencyStore.Key key = idempotencyStore.key(request.getIdempotencyKey(), AccountDescription.PostingType.DEBIT,
+                request.getAccountNumber(), request.getAmount(), request.getCurrencyType());
+        if (key == null) {
+            return executeDebit(request, null);
+        }
+
+        Optional<BigDecimal> replayed = idempotencyStore.lookup(key);
+        if (replayed.isPresent()) {
+            return new DebitResponse(request.getAccountNumber(), request.getAmount(), request.getCurrencyType(), replayed.get());
+        }
+        try {
+            DebitResponse response = executeDebit(request, key);
+            idempotencyStore.remember(key, response.getNewBalance());
+            return response;
+        } catch (DuplicateKeyException e) {
+            // A concurrent attempt with the same key committed first and this one rolled back
+            BigDecimal newBalance = idempotencyStore.lookup(key).orElseThrow(() -> e);
+            return new DebitResponse(request.getAccountNumber(), request.getAmount(), request.getCurrencyType(), newBalance);
+        }
+    }
+
+    private DebitResponse executeDebit(DebitRequest request, IdempotencyStore.Key key)
+            throws IneligibleAccountException, InsufficientFundsException, AccountNotFoundException {
+        String accountNumber = request.getAccountNumber();
+        if (numericBalanceStore.isEnabled()) {
+            Optional<DebitResponse> response = tryNumericDebit(request, key);
+            if (response.isPresent()) {
+                snapshotCache.invalidateBalances(accountNumber);
+                return response.get();
+            }
+        }
+        try {
+            return retryExecutor.execute("debit", () -> accountLockManager.withLock(accountNumber,
+                    () -> inTransaction(() -> applyDebit(request, key))));
+        } catch (InsufficientFundsException e) {
+            int slots = shardedBalanceService.slotCount(accountNumber);
+            if (slots == 0) {
+                throw e;
+            }
+            // The funds may still sit in credit slots: fold them into the account row and try once more
+            return retryExecutor.execute("debit", () -> accountLockManager.withLocks(ShardedBalanceService.allLockKeys(accountNumber, slots),
+                    () -> inTransaction(() -> {
+                        shardedBalanceService.consolidate(loadForUpdate(accountNumber));
+                        return applyDebit(request, key);
+                    })));
+        } finally {
+            snapshotCache.invalidate(accountNumber);
+        }
+    }
 
-        if (account.getAccountStatus() == AccountDescription.AccountStatus.FROZEN ||
-                account.getAccountStatus() == AccountDescription.AccountStatus.CLOSED ||
-                account.getAccountStatus() == AccountDescription.AccountStatus.DORMANT ){
-            throw new IneligibleAccountException(account.getAccountStatus().toString(), accountNumber, "Credit Account");
+    @Override
+    public DeleteResponse deleteAccount(DeleteRequest request) throws AccountNotFoundException, IneligibleAccountException, InsufficientFundsException {
+        List<String> accountNumbers = new ArrayList<>(
+                ShardedBalanceService.allLockKeys(request.getAccountNumber(), shardedBalanceService.slotCount(request.getAccountNumber())));
+        if (request.getReceivingAccountNumber() != null) {
+            accountNumbers.add(request.getReceivingAccountNumber());
+        }
+
+        // Both sides of the balance transfer are locked up front and moved in one transaction
+        try {
+            return retryExecutor.execute("delete", () -> accountLockManager.withLocks(accountNumbers,
+                    () -> inTransaction(() -> applyDelete(request))));
+        } finally {
+            snapshotCache.invalidate(request.getAccountNumber());
+            if (request.getReceivingAccountNumber() != null) {
+                snapshotCache.invalidate(request.getReceivingAccountNumber());
+            }
+        }
+    }
+
+    @Override
+    public List<PostingResult> applyPostings(List<PostingRequest> postings) {
+        // Group postings by account, keeping the caller's order within each account
+        Map<String, List<Integer>> postingsByAccount = new LinkedHashMap<>();
+        for (int i = 0; i < postings.size(); i++) {
+            postingsByAccount.computeIfAbsent(postings.get(i).getAccountNumber(), k -> new ArrayList<>()).add(i);
+        }
+
+        PostingResult[] results = new PostingResult[postings.size()];
+        List<String> accountNumbers = new ArrayList<>(postingsByAccount.keySet());
+
+        for (int from = 0; from < accountNumbers.size(); from += accountsPerBatchTransaction) {
+            List<String> chunk = accountNumbers.subList(from, Math.min(from + accountsPerBatchTransaction, accountNumbers.size()));
+            try {
+                retryExecutor.execute("batch", () -> accountLockManager.withLocks(chunk,
+                        () -> inTransaction(() -> applyPostingChunk(chunk, postingsByAccount, postings, results))));
+            } catch (AccountNotFoundException | IneligibleAccountException | InsufficientFundsException e) {
+                // Per-posting failures are captured in the results, never thrown
+                throw new IllegalStateException(e);
+            } finally {
+                snapshotCache.invalidate(chunk);
+            }
         }
 
-        if (request.getCurrencyType() != account.getCurrencyType()){
-            amount = amount.multiply(BigDecimal.valueOf(1.50));
+        return Arrays.asList(results);
+    }
+
+    /**
+     * Applies every posting for a chunk of accounts with one SELECT and one batched flush.
+     * A rejected posting is recorded as a failed result and does not affect its neighbours.
+     */
+    private Void applyPostingChunk(List<String> accountNumbers, Map<String, List<Integer>> postingsByAccount,
+                                   List<PostingRequest> postings, PostingResult[] results) {
+        List<byte[]> hmacs = accountNumbers.stream().map(blindIndexService::hash).toList();
+        List<Account> accounts = pessimisticLocking
+                ? accountRepository.findByAccountNumberHmacInForUpdate(hmacs)
+                : accountRepository.findByAccountNumberHmacIn(hmacs);
+        Map<String, Account> accountsByNumber = new HashMap<>();
+        for (Account account : accounts) {
+            accountsByNumber.put(account.getAccountNumber(), account);
         }
 
+        List<AccountBalanceEvent> events = new ArrayList<>();
+        for (String accountNumber : accountNumbers) {
+            Account account = accountsByNumber.get(accountNumber);
+            for (int index : postingsByAccount.get(accountNumber)) {
+                BigDecimal currentBefore = account != null ? account.getCurrentBalance() : null;
+                BigDecimal availableBefore = account != null ? account.getAvailableBalance() : null;
+                results[index] = applyPosting(account, postings.get(index));
+                if (results[index].isSuccess()) {
+                    AccountDescription.BalanceEventType type = postings.get(index).getPostingType() == AccountDescription.PostingType.CREDIT
+                            ? AccountDescription.BalanceEventType.CREDIT
+                            : AccountDescription.BalanceEventType.DEBIT;
+                    events.add(balanceEvent(account, type, currentBefore, availableBefore));
+                }
+            }
+        }
+
+        accountRepository.saveAll(accounts);
+        balanceEventLog.appendAll(events);
+        return null;
+    }
+
+    private PostingResult applyPosting(Account account, PostingRequest posting) {
+        PostingResult.PostingResultBuilder result = PostingResult.builder()
+                .postingId(posting.getPostingId())
+                .accountNumber(posting.getAccountNumber());
+
+        if (account == null) {
+            return result.success(false).errorType("ACCOUNT_NOT_FOUND").errorMessage("Account not found").build();
+        }
+
+        try {
+            if (posting.getPostingType() == AccountDescription.PostingType.CREDIT) {
+                CreditResponse response = credit(account, CreditRequest.builder()
+                        .accountNumber(posting.getAccountNumber())
+                        .amount(posting.getAmount())
+                        .currencyType(posting.getCurrencyType())
+                        .build());
+                return result.success(true).newBalance(response.getNewBalance()).build();
+            }
+
+            DebitResponse response = debit(account, DebitRequest.builder()
+                    .accountNumber(posting.getAccountNumber())
+                    .amount(posting.getAmount())
+                    .currencyType(posting.getCurrencyType())
+                    .build());
+            return result.success(true).newBalance(response.getNewBalance()).build();
+        } catch (InsufficientFundsException e) {
+            return result.success(false).errorType("INSUFFICIENT_FUNDS").errorMessage(e.getMessage()).build();
+        } catch (FxRateUnavailableException e) {
+            return result.success(false).errorType("FX_RATE_UNAVAILABLE").errorMessage(e.getMessage()).build();
+        } catch (IneligibleAccountException e) {
+            return result.success(false).errorType("INELIGIBLE_ACCOUNT").errorMessage(e.getMessage()).build();
+        }
+    }
+
+    /**
+     * Numeric balance storage: applies the credit as one UPDATE, which only matches an ACTIVE row.
+     * The cached profile only supplies the currency; whenever it is not ACTIVE, or the row did not
+     * match, the entity path takes over and checks the current status itself (including an INACTIVE
+     * account the credit may activate).
+     */
+    private Optional<CreditResponse> tryNumericCredit(CreditRequest request, IdempotencyStore.Key key) throws IneligibleAccountException, AccountNotFoundException {
+        String accountNumber = request.getAccountNumber();
+        AccountSnapshot profile = loadProfile(accountNumber);
+        if (profile.getAccountStatus() != AccountDescription.AccountStatus.ACTIVE) {
+            return Optional.empty();
+        }
+        BigDecimal amount = creditAmount(profile.getAccountStatus(), profile.getCurrencyType(), request);
+
+        try {
+            AccountOperation<Optional<BigDecimal>> update = () -> numericBalanceStore.credit(accountNumber, amount);
+            return accountLockManager.withLock(accountNumber, () -> (key == null ? update.execute() : recordedInTransaction(update, key))
+                    .map(newBalance -> new CreditResponse(accountNumber, request.getAmount(), request.getCurrencyType(), newBalance)));
+        } catch (InsufficientFundsException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Numeric balance storage: the status and funds checks are part of the UPDATE. Empty when the row
+     * was not updated or the cached profile is not ACTIVE, in which case the entity path reports why
+     * (including insufficient funds).
+     */
+    private Optional<DebitResponse> tryNumericDebit(DebitRequest request, IdempotencyStore.Key key)
+            throws IneligibleAccountException, InsufficientFundsException, AccountNotFoundException {
+        String accountNumber = request.getAccountNumber();
+        AccountSnapshot profile = loadProfile(accountNumber);
+        if (profile.getAccountStatus() != AccountDescription.AccountStatus.ACTIVE) {
+            return Optional.empty();
+        }
+        BigDecimal amount = debitAmount(profile.getAccountStatus(), profile.getCurrencyType(), request);
+
+        AccountOperation<Optional<BigDecimal>> update = () -> numericBalanceStore.debit(accountNumber, amount);
+        return accountLockManager.withLock(accountNumber, () -> (key == null ? update.execute() : recordedInTransaction(update, key))
+                .map(newBalance -> new DebitResponse(accountNumber, request.getAmount(), request.getCurrencyType(), newBalance)));
+    }
+
+    // Runs a single-statement numeric update in a transaction with its idempotency record
+    private Optional<BigDecimal> recordedInTransaction(AccountOperation<Optional<BigDecimal>> update, IdempotencyStore.Key key)
+            throws AccountNotFoundException, IneligibleAccountException, InsufficientFundsException {
+        return inTransaction(() -> {
+            Optional<BigDecimal> newBalance = update.execute();
+            newBalance.ifPresent(balance -> idempotencyStore.record(key, balance));
+            return newBalance;
+        });
+    }
+
+    private AccountSnapshot loadProfile(String accountNumber) throws AccountNotFoundException {
+        AccountSnapshot profile = snapshotCache.getProfile(accountNumber, this::loadSnapshot);
+        if (profile == null) {
+            throw new AccountNotFoundException("Account not found", accountNumber, "account number");
+        }
+        return profile;
+    }
+
+    private CreditResponse applyCredit(CreditRequest request, IdempotencyStore.Key key) throws IneligibleAccountException, AccountNotFoundException {
+        Account account = loadForUpdate(request.getAccountNumber());
+        BigDecimal currentBefore = account.getCurrentBalance();
+        BigDecimal availableBefore = account.getAvailableBalance();
+        CreditResponse response = credit(account, request);
+        accountRepository.save(account);
+        balanceEventLog.append(balanceEvent(account, AccountDescription.BalanceEventType.CREDIT, currentBefore, availableBefore));
+        recordIdempotency(key, response.getNewBalance());
+        return response;
+    }
+
+    // Null when the account no longer has a slot for the credit
+    private CreditResponse applySlotCredit(CreditRequest request, int slot, IdempotencyStore.Key key) throws IneligibleAccountException, AccountNotFoundException {
+        // Plain read: the account row is not written unless the credit activates it
+        Account account = accountRepository.findByAccountNumberHmac(blindIndexService.hash(request.getAccountNumber()))
+                .orElseThrow(()-> new AccountNotFoundException("Account not found", request.getAccountNumber(), "account number"));
+
+        BigDecimal amount = creditAmount(account, request);
+        if (!shardedBalanceService.creditSlot(account, slot, amount)) {
+            return null;
+        }
+        // The hot account row only takes the activity time about once a day
+        boolean activityStale = account.getLastActivityAt() == null
+                || account.getLastActivityAt().isBefore(LocalDateTime.now().minusDays(1));
+        if (activityStale) {
+            account.setLastActivityAt(LocalDateTime.now());
+        }
+        if (activateIfFunded(account, amount) || activityStale) {
+            accountRepository.save(account);
+        }
+        balanceEventLog.append(new AccountBalanceEvent(account.getId(), AccountDescription.BalanceEventType.CREDIT, amount, amount));
+
+        BigDecimal newBalance = account.getAvailableBalance().add(shardedBalanceService.pendingTotal(account));
+        recordIdempotency(key, newBalance);
+        return new CreditResponse(request.getAccountNumber(), request.getAmount(), request.getCurrencyType(), newBalance);
+    }
+
+    private DebitResponse applyDebit(DebitRequest request, IdempotencyStore.Key key) throws IneligibleAccountException, InsufficientFundsException, AccountNotFoundException {
+        Account account = loadForUpdate(request.getAccountNumber());
+        BigDecimal currentBefore = account.getCurrentBalance();
+        BigDecimal availableBefore = account.getAvailableBalance();
+        DebitResponse response = debit(account, request);
+        accountRepository.save(account);
+        balanceEventLog.append(balanceEvent(account, AccountDescription.BalanceEventType.DEBIT, currentBefore, availableBefore));
+        recordIdempotency(key, response.getNewBalance());
+        return response;
+    }
+
+    private void recordIdempotency(IdempotencyStore.Key key, BigDecimal newBalance) {
+        if (key != null) {
+            idempotencyStore.record(key, newBalance);
+        }
+    }
+
+    private AccountBalanceEvent balanceEvent(Account account, AccountDescription.BalanceEventType type,
+                                             BigDecimal currentBefore, BigDecimal availableBefore) {
+        return new AccountBalanceEvent(account.getId(), type,
+                account.getCurrentBalance().subtract(currentBefore), account.getAvailableBalance().subtract(availableBefore));
+    }
+
+    // Validates before mutating, so a rejected credit leaves the account untouched
+    private CreditResponse credit(Account account, CreditRequest request) throws IneligibleAccountException {
+        BigDecimal amount = creditAmount(account, request);
+
         account.setCurrentBalance(account.getCurrentBalance().add(amount));
         account.setAvailableBalance(account.getAvailableBalance().add(amount));
+        account.setLastActivityAt(LocalDateTime.now());
+        activateIfFunded(account, amount);
 
+        return new CreditResponse(request.getAccountNumber(), request.getAmount(), request.getCurrencyType(), account.getAvailableBalance());
+    }
+
+    // Checks the account can be credited and returns the amount in the account's currency
+    private BigDecimal creditAmount(Account account, CreditRequest request) throws IneligibleAccountException {
+        return creditAmount(account.getAccountStatus(), account.getCurrencyType(), request);
+    }
+
+    private BigDecimal creditAmount(AccountDescription.AccountStatus status, AccountDescription.CurrencyType currency,
+                                    CreditRequest request) throws IneligibleAccountException {
+        BigDecimal amount = request.getAmount();
+
+        if (status == AccountDescription.AccountStatus.FROZEN ||
+                status == AccountDescription.AccountStatus.CLOSED ||
+                status == AccountDescription.AccountStatus.DORMANT ){
+            throw new IneligibleAccountException(status.toString(), request.getAccountNumber(), "Credit Account");
+        }
+
+        return fxRateService.convert(amount, request.getCurrencyType(), currency);
+    }
+
+    // Checks the account can be debited and returns the amount in the account's currency
+    private BigDecimal debitAmount(AccountDescription.AccountStatus status, AccountDescription.CurrencyType currency,
+                                   DebitRequest request) throws IneligibleAccountException {
+        return debitAmount(status, currency, request.getAccountNumber(), request.getAmount(), request.getCurrencyType(), "Debit Account");
+    }
+
+    // Holds take funds out of reach the same way debits do, so they share the eligibility rules
+    private BigDecimal debitAmount(AccountDescription.AccountStatus status, AccountDescription.CurrencyType currency,
+                                   String accountNumber, BigDecimal amount, AccountDescription.CurrencyType requestCurrency,
+                                   String operation) throws IneligibleAccountException {
+        if (status == AccountDescription.AccountStatus.FROZEN ||
+                status == AccountDescription.AccountStatus.CLOSED ||
+                status == AccountDescription.AccountStatus.DORMANT ||
+                status == AccountDescription.AccountStatus.INACTIVE){
+            throw new IneligibleAccountException(status.toString(), accountNumber, operation);
+        }
+
+        return fxRateService.convert(amount, requestCurrency, currency);
+    }
+
+    private boolean activateIfFunded(Account account, BigDecimal amount) {
         if (account.getAccountStatus() == AccountDescription.AccountStatus.INACTIVE && amount.compareTo(BigDecimal.valueOf(200.00)) > 0){
             account.setAccountStatus(AccountDescription.AccountStatus.ACTIVE);
+            return true;
         }
+        return false;
+    }
 
-        accountRepository.save(account);
-        return new CreditResponse(request.getAccountNumber(), request.getAmount(), request.getCurrencyType(), account.getAvailableBalance());
+    // Validates before mutating, so a rejected debit leaves the account untouched
+    private DebitResponse debit(Account account, DebitRequest request) throws IneligibleAccountException, InsufficientFundsException {
+        String accountNumber = request.getAccountNumber();
+        BigDecimal amount = debitAmount(account.getAccountStatus(), account.getCurrencyType(), request);
+
+        // Funds are checked in the account's currency, after conversion
+        if (account.getAvailableBalance().compareTo(amount) < 0) {
+            throw new InsufficientFundsException("INSUFFICIENT FUNDS", accountNumber, amount, account.getCurrentBalance(), account.getCurrencyType().toString());
+        }
+
+        account.setAvailableBalance(account.getAvailableBalance().subtract(amount));
+        account.setCurrentBalance(account.getCurrentBalance().subtract(amount));
+        account.setLastActivityAt(LocalDateTime.now());
+
+        return new DebitResponse(request.getAccountNumber(), request.getAmount(), request.getCurrencyType(), account.getCurrentBalance());
     }
 
+    /**
+     * Reserves funds for a later capture. The amount leaves the available balance only; the
+     * current balance changes once the hold is captured. Funds checks and eligibility are the
+     * same as for a debit.
+     */
     @Override
-    public DebitResponse debitAccount(DebitRequest request) throws IneligibleAccountException, InsufficientFundsException, AccountNotFoundException {
+    public HoldResponse placeHold(HoldRequest request) throws IneligibleAccountException, InsufficientFundsException, AccountNotFoundException {
         String accountNumber = request.getAccountNumber();
-        BigDecimal amount = request.getAmount();
+        HoldResponse response;
+        try {
+            response = retryExecutor.execute("hold", () -> accountLockManager.withLock(accountNumber,
+                    () -> inTransaction(() -> applyHold(request))));
+        } catch (InsufficientFundsException e) {
+            int slots = shardedBalanceService.slotCount(accountNumber);
+            if (slots == 0) {
+                throw e;
+            }
+            // As for debits, the funds may still sit in credit slots
+            response = retryExecutor.execute("hold", () -> accountLockManager.withLocks(ShardedBalanceService.allLockKeys(accountNumber, slots),
+                    () -> inTransaction(() -> {
+                        shardedBalanceService.consolidate(loadForUpdate(accountNumber));
+                        return applyHold(request);
+                    })));
+        } finally {
+            snapshotCache.invalidate(accountNumber);
+        }
 
-        Account account = accountRepository.findByAccountNumber(accountNumber)
-                .orElseThrow(()-> new AccountNotFoundException("Account not found", accountNumber, "account number"));
+        holdExpiryWheel.schedule(response.getHoldId(), response.getExpiresAt());
+        return response;
+    }
 
-        if (account.getAccountStatus() == AccountDescription.AccountStatus.FROZEN ||
-                account.getAccountStatus() == AccountDescription.AccountStatus.CLOSED ||
-                account.getAccountStatus() == AccountDescription.AccountStatus.DORMANT ||
-                account.getAccountStatus() == AccountDescription.AccountStatus.INACTIVE){
-            throw new IneligibleAccountException(account.getAccountStatus().toString(), accountNumber, "Debit Account");
+    /**
+     * Takes all or part of a hold from the current balance; any remainder goes back to the
+     * available balance and the hold is closed.
+     */
+    @Override
+    public HoldResponse captureHold(CaptureHoldRequest request) throws IneligibleAccountException, AccountNotFoundException {
+        FundsHold hold = fundsHoldRepository.findById(request.getHoldId())
+                .orElseThrow(() -> new HoldNotFoundException(request.getHoldId()));
+        // The held amount never changes, so the capture can be checked before taking the lock
+        BigDecimal captured = request.getAmount() == null ? hold.getAmount() : request.getAmount();
+        if (captured.signum() < 0 || captured.compareTo(hold.getAmount()) > 0) {
+            throw new IllegalArgumentException("Capture amount must be between 0 and the held " + hold.getAmount());
         }
 
-        if (account.getAvailableBalance().compareTo(amount) < 0) {
-            throw new InsufficientFundsException("INSUFFICIENT FUNDS", accountNumber, amount, account.getCurrentBalance(), account.getCurrencyType().toString());
+        String accountNumber = hold.getAccountNumber();
+        try {
+            HoldResponse response = retryExecutor.execute("capture", () -> accountLockManager.withLock(accountNumber,
+                    () -> inTransaction(() -> applyCapture(hold.getHoldId(), captured))));
+            holdExpiryWheel.cancel(hold.getHoldId());
+            return response;
+        } catch (InsufficientFundsException e) {
+            // A capture only spends funds the hold already reserved
+            throw new IllegalStateException(e);
+        } finally {
+            snapshotCache.invalidate(accountNumber);
         }
+    }
+
+    @Override
+    public HoldResponse releaseHold(UUID holdId) throws AccountNotFoundException {
+        FundsHold hold = fundsHoldRepository.findById(holdId)
+                .orElseThrow(() -> new HoldNotFoundException(holdId));
+        String accountNumber = hold.getAccountNumber();
+        try {
+            HoldResponse response = retryExecutor.execute("release", () -> accountLockManager.withLock(accountNumber,
+                    () -> inTransaction(() -> applyRelease(holdId, AccountDescription.HoldStatus.RELEASED))));
+            holdExpiryWheel.cancel(holdId);
+            return response;
+        } catch (IneligibleAccountException | InsufficientFundsException e) {
+            // Releasing only gives funds back
+            throw new IllegalStateException(e);
+        } finally {
+            snapshotCache.invalidate(accountNumber);
+        }
+    }
 
-        if (request.getCurrencyType() != account.getCurrencyType()){
-            amount = amount.multiply(BigDecimal.valueOf(1.50)); // Use real forex rates in production
+    // Expiry handler for the hold wheel. Holds captured or released meanwhile are skipped.
+    private void expireHolds(List<UUID> holdIds) {
+        for (UUID holdId : holdIds) {
+            Optional<FundsHold> hold = fundsHoldRepository.findById(holdId);
+            if (hold.isEmpty() || hold.get().getStatus() != AccountDescription.HoldStatus.ACTIVE) {
+                continue;
+            }
+            String accountNumber = hold.get().getAccountNumber();
+            try {
+                retryExecutor.execute("expire", () -> accountLockManager.withLock(accountNumber,
+                        () -> inTransaction(() -> applyRelease(holdId, AccountDescription.HoldStatus.EXPIRED))));
+            } catch (HoldNotActiveException e) {
+                // Captured or released between the check and the lock
+            } catch (AccountNotFoundException | IneligibleAccountException | InsufficientFundsException | RuntimeException e) {
+                log.error("Expiring funds hold {} failed", holdId, e);
+            } finally {
+                snapshotCache.invalidate(accountNumber);
+            }
         }
+    }
 
+    private HoldResponse applyHold(HoldRequest request) throws IneligibleAccountException, InsufficientFundsException, AccountNotFoundException {
+        String accountNumber = request.getAccountNumber();
+        Account account = loadForUpdate(accountNumber);
+        BigDecimal amount = debitAmount(account.getAccountStatus(), account.getCurrencyType(), accountNumber,
+                request.getAmount(), request.getCurrencyType(), "Hold Funds");
+
+        if (account.getAvailableBalance().compareTo(amount) < 0) {
+            throw new InsufficientFundsException("INSUFFICIENT FUNDS", accountNumber, account.getAvailableBalance(), amount, account.getCurrencyType().toString());
+        }
+        LocalDateTime now = LocalDateTime.now();
         account.setAvailableBalance(account.getAvailableBalance().subtract(amount));
-        account.setCurrentBalance(account.getCurrentBalance().subtract(amount));
+        account.setLastActivityAt(now);
+        accountRepository.save(account);
+
+        FundsHold hold = new FundsHold();
+        hold.setHoldId(UUID.randomUUID());
+        hold.setAccountId(account.getId());
+        hold.setAccountNumber(accountNumber);
+        hold.setAmount(amount);
+        hold.setStatus(AccountDescription.HoldStatus.ACTIVE);
+        hold.setCreatedAt(now);
+        hold.setExpiresAt(now.plus(holdTtl(request)));
+        fundsHoldRepository.save(hold);
+
+        balanceEventLog.append(new AccountBalanceEvent(account.getId(), AccountDescription.BalanceEventType.HOLD, BigDecimal.ZERO, amount.negate()));
+        return toHoldResponse(hold, account);
+    }
 
+    private HoldResponse applyCapture(UUID holdId, BigDecimal captured) throws IneligibleAccountException, AccountNotFoundException {
+        FundsHold hold = loadActiveHold(holdId);
+        Account account = loadForUpdate(hold.getAccountNumber());
+        AccountDescription.AccountStatus status = account.getAccountStatus();
+        if (status == AccountDescription.AccountStatus.FROZEN || status == AccountDescription.AccountStatus.CLOSED) {
+            throw new IneligibleAccountException(status.toString(), hold.getAccountNumber(), "Capture Hold");
+        }
+
+        BigDecimal remainder = hold.getAmount().subtract(captured);
+        account.setCurrentBalance(account.getCurrentBalance().subtract(captured));
+        account.setAvailableBalance(account.getAvailableBalance().add(remainder));
+        account.setLastActivityAt(LocalDateTime.now());
         accountRepository.save(account);
-        return new DebitResponse(request.getAccountNumber(), request.getAmount(), request.getCurrencyType(), account.getCurrentBalance());
+
+        hold.setCapturedAmount(captured);
+        closeHold(hold, AccountDescription.HoldStatus.CAPTURED);
+        balanceEventLog.append(new AccountBalanceEvent(account.getId(), AccountDescription.BalanceEventType.CAPTURE, captured.negate(), remainder));
+        return toHoldResponse(hold, account);
     }
 
-    @Override
-    public DeleteResponse deleteAccount(DeleteRequest request) throws AccountNotFoundException, IneligibleAccountException, InsufficientFundsException {
-        Account account = accountRepository.findByAccountNumber(request.getAccountNumber())
-                .orElseThrow(()-> new AccountNotFoundException("Account not found", request.getAccountNumber(), "account number"));
+    private HoldResponse applyRelease(UUID holdId, AccountDescription.HoldStatus status) throws AccountNotFoundException {
+        FundsHold hold = loadActiveHold(holdId);
+        Account account = loadForUpdate(hold.getAccountNumber());
+        release(account, hold, status);
+        account.setLastActivityAt(LocalDateTime.now());
+        accountRepository.save(account);
+        return toHoldResponse(hold, account);
+    }
+
+    private void release(Account account, FundsHold hold, AccountDescription.HoldStatus status) {
+        account.setAvailableBalance(account.getAvailableBalance().add(hold.getAmount()));
+        closeHold(hold, status);
+        balanceEventLog.append(new AccountBalanceEvent(account.getId(), AccountDescription.BalanceEventType.RELEASE, BigDecimal.ZERO, hold.getAmount()));
+    }
+
+    // Read inside the transaction, so a hold closed concurrently is seen here or fails its version check on commit
+    private FundsHold loadActiveHold(UUID holdId) {
+        FundsHold hold = fundsHoldRepository.findById(holdId)
+                .orElseThrow(() -> new HoldNotFoundException(holdId));
+        if (hold.getStatus() != AccountDescription.HoldStatus.ACTIVE) {
+            throw new HoldNotActiveException(holdId, hold.getStatus());
+        }
+        return hold;
+    }
+
+    private void closeHold(FundsHold hold, AccountDescription.HoldStatus status) {
+        hold.setStatus(status);
+        hold.setClosedAt(LocalDateTime.now());
+        fundsHoldRepository.save(hold);
+    }
+
+    private Duration holdTtl(HoldRequest request) {
+        Duration requested = request.getTtlSeconds() > 0
+                ? Duration.ofSeconds(request.getTtlSeconds())
+                : Duration.ofMinutes(defaultHoldTtlMinutes);
+        Duration max = Duration.ofMinutes(maxHoldTtlMinutes);
+        return requested.compareTo(max) > 0 ? max : requested;
+    }
+
+    private HoldResponse toHoldResponse(FundsHold hold, Account account) {
+        return new HoldResponse(hold.getHoldId(), hold.getAccountNumber(), hold.getStatus(), hold.getAmount(),
+                hold.getCapturedAmount(), account.getCurrencyType(), account.getAvailableBalance(), hold.getExpiresAt());
+    }
+
+    private DeleteResponse applyDelete(DeleteRequest request) throws AccountNotFoundException, IneligibleAccountException, InsufficientFundsException {
+        Account account = loadForUpdate(request.getAccountNumber());
+        shardedBalanceService.consolidate(account);
 
         String accountNumber = account.getAccountNumber();
 
@@ -164,29 +927,76 @@ public class AccountServiceImpl implements AccountService {
             throw new IneligibleAccountException(account.getAccountStatus().toString(), accountNumber, "Delete Account");
         }
 
+        // Holds cannot outlive the account: their funds go back to the available balance before it moves.
+        // Their wheel entries fire later and find nothing active.
+        for (FundsHold hold : fundsHoldRepository.findByAccountIdAndStatus(account.getId(), AccountDescription.HoldStatus.ACTIVE)) {
+            release(account, hold, AccountDescription.HoldStatus.RELEASED);
+        }
+
         if (account.getCurrentBalance().compareTo(BigDecimal.valueOf(0)) > 0){
-            Account receivingAccount = accountRepository.findByAccountNumber(request.getReceivingAccountNumber())
+            Account receivingAccount = accountRepository.findByAccountNumberHmac(blindIndexService.hash(request.getReceivingAccountNumber()))
                             .orElseThrow(()-> new AccountNotFoundException("Receiving account not found", "account number", request.getReceivingAccountNumber()));
 
-            DebitResponse debitResponse = debitAccount(DebitRequest.builder().accountNumber(accountNumber).amount(account.getAvailableBalance()).currencyType(account.getCurrencyType()).build());
-            CreditResponse creditResponse = creditAccount(CreditRequest.builder().accountNumber(receivingAccount.getAccountNumber()).amount(account.getAvailableBalance()).currencyType(account.getCurrencyType()).build());
+            DebitResponse debitResponse = applyDebit(DebitRequest.builder().accountNumber(accountNumber).amount(account.getAvailableBalance()).currencyType(account.getCurrencyType()).build(), null);
+            CreditResponse creditResponse = applyCredit(CreditRequest.builder().accountNumber(receivingAccount.getAccountNumber()).amount(account.getAvailableBalance()).currencyType(account.getCurrencyType()).build(), null);
 
             account.setAccountStatus(AccountDescription.AccountStatus.CLOSED);
+            accountRepository.save(account);
             return new DeleteResponse(accountNumber, LocalDateTime.now(), creditResponse, debitResponse);
         }
 
         account.setAccountStatus(AccountDescription.AccountStatus.CLOSED);
+        accountRepository.save(account);
         return new DeleteResponse(accountNumber, LocalDateTime.now());
     }
 
+    private Account loadForUpdate(String accountNumber) throws AccountNotFoundException {
+        Optional<Account> account = pessimisticLocking
+                ? accountRepository.findByAccountNumberHmacForUpdate(blindIndexService.hash(accountNumber))
+                : accountRepository.findByAccountNumberHmac(blindIndexService.hash(accountNumber));
+
+        return account.orElseThrow(()-> new AccountNotFoundException("Account not found", accountNumber, "account number"));
+    }
+
+    /**
+     * Runs the operation in its own transaction, committing before the caller releases its account locks.
+     * Version conflicts surface from commit as OptimisticLockingFailureException for the retry executor.
+     */
+    private <T> T inTransaction(AccountOperation<T> operation)
+            throws AccountNotFoundException, IneligibleAccountException, InsufficientFundsException {
+        TransactionStatus status = transactionManager.getTransaction(TransactionDefinition.withDefaults());
+        T result;
+        try {
+            result = operation.execute();
+        } catch (Throwable e) {
+            transactionManager.rollback(status);
+            throw e;
+        }
+        transactionManager.commit(status);
+        return result;
+    }
+
     @Override
     public FreezeActionResponse freezeAction(FreezeActionRequest request) throws AccountNotFoundException {
         String action = request.getAction();
         String accountNumber = request.getAccountNumber();
         String reason = request.getReason();
 
-        Account account = accountRepository.findByAccountNumber(accountNumber)
-                .orElseThrow(()-> new AccountNotFoundException("Account not found", accountNumber, "account number"));
+        try {
+            retryExecutor.execute("freeze", () -> accountLockManager.withLock(accountNumber,
+                    () -> inTransaction(() -> applyFreezeAction(accountNumber, action))));
+        } catch (IneligibleAccountException | InsufficientFundsException e) {
+            // Freezing checks neither eligibility nor funds
+            throw new IllegalStateException(e);
+        } finally {
+            snapshotCache.invalidate(accountNumber);
+        }
+
+        return new FreezeActionResponse(action, accountNumber, reason, LocalDateTime.now());
+    }
+
+    private Void applyFreezeAction(String accountNumber, String action) throws AccountNotFoundException {
+        Account account = loadForUpdate(accountNumber);
 
         if(Objects.equals(action, "freezeAccount")){
             account.setAccountStatus(AccountDescription.AccountStatus.FROZEN);
@@ -194,6 +1004,7 @@ public class AccountServiceImpl implements AccountService {
             account.setAccountStatus(AccountDescription.AccountStatus.ACTIVE);
         }
 
-        return new FreezeActionResponse(action, accountNumber, reason, LocalDateTime.now());
+        accountRepository.save(account);
+        return null;
     }
 }
@@ -2,26 +2,35 @@ package com.AccountService.utils;
 
 import com.AccountService.model.AccountDescription;
 
-import java.security.SecureRandom;
-
+/**
+ * Formats account numbers as branch code + type code + fixed-width serial + Luhn check digit.
+ * Serials are handed out by AccountNumberAllocator; this class only formats them and holds no state.
+ */
 public class AccountNumberGenerator {
     // Bank configuration
-    private static String ACCOUNT_CODE = null;
-    private static final SecureRandom random = new SecureRandom();
+    private static final String BRANCH_CODE = "00"; // Branch code (simplified)
+    public static final int SERIAL_DIGITS = 7;
+    public static final long SERIAL_SPACE = 10_000_000L;
+
+    public static String typeCode(AccountDescription.AccountType type) {
+        return switch (type) {
+            case LOAN -> "01";
+            case SAVINGS -> "02";
+            case FOREIGN -> "03";
+            case CHECKING -> "04";
+            case INTERNAL -> "05";
+        };
+    }
 
-    public static String generate(AccountDescription.AccountType type) {
-        switch (type) {
-            case LOAN -> ACCOUNT_CODE = "01";
-            case SAVINGS -> ACCOUNT_CODE = "02";
-            case FOREIGN -> ACCOUNT_CODE = "03";
-            case CHECKING -> ACCOUNT_CODE = "04";
-            case INTERNAL -> ACCOUNT_CODE = "05";
+    public static String format(AccountDescription.AccountType type, long serial) {
+        if (serial < 0 || serial >= SERIAL_SPACE) {
+            throw new IllegalArgumentException("Account serial out of range: " + serial);
         }
 
         // 1. Build base number (without checksum)
-        String baseNumber = "00" // Branch code (simplified)
-                + ACCOUNT_CODE
-                + String.format("%04d", random.nextInt(100000));
+        String baseNumber = BRANCH_CODE
+                + typeCode(type)
+                + String.format("%0" + SERIAL_DIGITS + "d", serial);
 
         // 2. Add Luhn checksum
         return baseNumber + calculateLuhnChecksum(baseNumber);
@@ -30,7 +39,7 @@ public class AccountNumberGenerator {
     // Luhn algorithm for checksum
     private static int calculateLuhnChecksum(String base) {
         int sum = 0;
-        boolean alternate = false;
+        boolean alternate = true;
         for (int i = base.length() - 1; i >= 0; i--) {
             int digit = Character.getNumericValue(base.charAt(i));
             if (alternate) {
@@ -42,4 +51,4 @@ public class AccountNumberGenerator {
         }
         return (10 - (sum % 10)) % 10;
     }
-}
\ No newline at end of file
+}
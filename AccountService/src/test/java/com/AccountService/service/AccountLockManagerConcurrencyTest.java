@@ -0,0 +1,133 @@
+package com.AccountService.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.OptimisticLockingFailureException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs concurrent credits and transfers through the striped locks and the optimistic retry
+ * executor the way AccountServiceImpl does, against an in-memory versioned balance store. A write
+ * whose version moved underneath it fails as the database would, and some attempts are made to
+ * conflict on purpose so the retry path runs too.
+ */
+class AccountLockManagerConcurrencyTest {
+    private static final int THREADS = 16;
+    private static final int OPERATIONS_PER_THREAD = 2_000;
+    private static final List<String> ACCOUNTS = List.of("1000000001", "1000000002", "1000000003",
+            "1000000004", "1000000005", "1000000006", "1000000007", "1000000008");
+
+    private record Balance(long amount, long version) {
+    }
+
+    private final Map<String, Balance> store = new ConcurrentHashMap<>();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    // Few stripes, so unrelated accounts share them as they do under load
+    private final AccountLockManager lockManager = new AccountLockManager(4);
+    private final OptimisticRetryExecutor retryExecutor = new OptimisticRetryExecutor(meterRegistry, 50, 0, 1);
+
+    @Test
+    void concurrentCreditsLoseNoUpdates() throws Exception {
+        ACCOUNTS.forEach(account -> store.put(account, new Balance(0, 0)));
+
+        run(() -> {
+            String account = randomAccount();
+            return retryExecutor.execute("credit", () -> lockManager.withLock(account, () -> {
+                Balance balance = read(account);
+                maybeConflict(account);
+                write(account, balance, 1);
+                return null;
+            }));
+        });
+
+        long total = ACCOUNTS.stream().mapToLong(account -> store.get(account).amount()).sum();
+        assertThat(total).isEqualTo((long) THREADS * OPERATIONS_PER_THREAD);
+        assertThat(meterRegistry.counter("account.optimistic.conflicts", "operation", "credit").count()).isPositive();
+        assertThat(meterRegistry.counter("account.optimistic.exhausted", "operation", "credit").count()).isZero();
+    }
+
+    @Test
+    void concurrentTransfersConserveTheTotalBalance() throws Exception {
+        ACCOUNTS.forEach(account -> store.put(account, new Balance(1_000_000, 0)));
+        long before = ACCOUNTS.stream().mapToLong(account -> store.get(account).amount()).sum();
+
+        run(() -> {
+            String from = randomAccount();
+            String to = randomAccount();
+            if (from.equals(to)) {
+                return null;
+            }
+            long amount = ThreadLocalRandom.current().nextLong(1, 100);
+            return retryExecutor.execute("transfer", () -> lockManager.withLocks(List.of(from, to), () -> {
+                Balance debited = read(from);
+                Balance credited = read(to);
+                maybeConflict(from);
+                write(from, debited, -amount);
+                write(to, credited, amount);
+                return null;
+            }));
+        });
+
+        long after = ACCOUNTS.stream().mapToLong(account -> store.get(account).amount()).sum();
+        assertThat(after).isEqualTo(before);
+        assertThat(meterRegistry.counter("account.optimistic.exhausted", "operation", "transfer").count()).isZero();
+    }
+
+    private Balance read(String account) {
+        Balance balance = store.get(account);
+        // Widen the window between read and write so a missing lock would show up
+        Thread.yield();
+        return balance;
+    }
+
+    // Injected before any write of the attempt, as a rolled-back transaction leaves nothing behind
+    private static void maybeConflict(String account) {
+        if (ThreadLocalRandom.current().nextInt(20) == 0) {
+            throw new OptimisticLockingFailureException("Injected conflict on " + account);
+        }
+    }
+
+    private void write(String account, Balance read, long delta) {
+        if (!store.replace(account, read, new Balance(read.amount() + delta, read.version() + 1))) {
+            throw new IllegalStateException("Lost update on " + account + ": the row changed under the lock");
+        }
+    }
+
+    private static String randomAccount() {
+        return ACCOUNTS.get(ThreadLocalRandom.current().nextInt(ACCOUNTS.size()));
+    }
+
+    private void run(AccountOperation<Void> operation) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<?>> workers = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                workers.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < OPERATIONS_PER_THREAD; i++) {
+                        operation.execute();
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> worker : workers) {
+                worker.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.AccountService.service;
+
+import com.AccountService.model.AccountBalanceEvent;
+import com.AccountService.model.AccountBalanceSnapshot;
+import com.AccountService.model.AccountDescription;
+import com.AccountService.repository.AccountBalanceEventRepository;
+import com.AccountService.repository.AccountBalanceSnapshotRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Replays a random event history and checks that a rebuild from any snapshot plus the events after
+ * it lands on the same balance as folding the whole history.
+ */
+class BalanceEventLogReplayTest {
+    private static final long ACCOUNT_ID = 42L;
+    private static final int EVENTS = 10_000;
+    private static final LocalDateTime START = LocalDateTime.of(2025, 1, 1, 0, 0);
+
+    private final AccountBalanceEventRepository eventRepository = mock(AccountBalanceEventRepository.class);
+    private final AccountBalanceSnapshotRepository snapshotRepository = mock(AccountBalanceSnapshotRepository.class);
+    private final BalanceEventLog eventLog = new BalanceEventLog(mock(JdbcTemplate.class), mock(EncryptionService.class),
+            eventRepository, snapshotRepository, 100);
+    private final List<AccountBalanceEvent> events = new ArrayList<>();
+
+    @BeforeEach
+    void history() {
+        Random random = new Random(7);
+        for (long id = 1; id <= EVENTS; id++) {
+            BigDecimal delta = BigDecimal.valueOf(random.nextInt(2_000_000) - 1_000_000, 2);
+            // Holds and releases only move the available balance
+            boolean hold = random.nextInt(10) == 0;
+            events.add(new AccountBalanceEvent(id, ACCOUNT_ID,
+                    hold ? AccountDescription.BalanceEventType.HOLD : AccountDescription.BalanceEventType.CREDIT,
+                    hold ? BigDecimal.ZERO : delta, delta, START.plusSeconds(id * 30)));
+        }
+        when(eventRepository.findByAccountIdAndIdGreaterThanOrderByIdAsc(eq(ACCOUNT_ID), anyLong()))
+                .thenAnswer(call -> after(call.<Long>getArgument(1)));
+        when(eventRepository.findByAccountIdAndIdGreaterThanAndOccurredAtLessThanEqualOrderByIdAsc(eq(ACCOUNT_ID), anyLong(), any()))
+                .thenAnswer(call -> after(call.<Long>getArgument(1)).stream()
+                        .filter(event -> !event.getOccurredAt().isAfter(call.<LocalDateTime>getArgument(2)))
+                        .toList());
+    }
+
+    @Test
+    void snapshotPlusTailMatchesTheFullFold() {
+        when(snapshotRepository.findTopByAccountIdOrderByLastEventIdDesc(ACCOUNT_ID)).thenReturn(Optional.empty());
+        BalanceEventLog.Balance full = eventLog.rebuild(ACCOUNT_ID);
+
+        assertThat(full.getCurrentBalance()).isEqualByComparingTo(sum(events, true));
+        assertThat(full.getAvailableBalance()).isEqualByComparingTo(sum(events, false));
+        assertThat(full.getLastEventId()).isEqualTo(EVENTS);
+
+        for (int folded : new int[]{1, 999, 5_000, EVENTS - 1, EVENTS}) {
+            when(snapshotRepository.findTopByAccountIdOrderByLastEventIdDesc(ACCOUNT_ID))
+                    .thenReturn(Optional.of(snapshot(folded)));
+            BalanceEventLog.Balance replayed = eventLog.rebuild(ACCOUNT_ID);
+
+            assertThat(replayed.getCurrentBalance()).isEqualByComparingTo(full.getCurrentBalance());
+            assertThat(replayed.getAvailableBalance()).isEqualByComparingTo(full.getAvailableBalance());
+            assertThat(replayed.getAsOf()).isEqualTo(full.getAsOf());
+            assertThat(replayed.getLastEventId()).isEqualTo(full.getLastEventId());
+        }
+    }
+
+    @Test
+    void balanceAtMatchesThePrefixOfTheHistory() {
+        int upTo = 6_543;
+        LocalDateTime at = events.get(upTo - 1).getOccurredAt();
+        when(snapshotRepository.findTopByAccountIdAndAsOfLessThanEqualOrderByLastEventIdDesc(ACCOUNT_ID, at))
+                .thenReturn(Optional.of(snapshot(2_000)));
+
+        BalanceEventLog.Balance balance = eventLog.balanceAt(ACCOUNT_ID, at);
+
+        List<AccountBalanceEvent> prefix = events.subList(0, upTo);
+        assertThat(balance.getCurrentBalance()).isEqualByComparingTo(sum(prefix, true));
+        assertThat(balance.getAvailableBalance()).isEqualByComparingTo(sum(prefix, false));
+        assertThat(balance.getAsOf()).isEqualTo(at);
+    }
+
+    private List<AccountBalanceEvent> after(long afterId) {
+        return events.subList((int) Math.min(afterId, events.size()), events.size());
+    }
+
+    // The snapshot the compactor would write after folding the first `folded` events
+    private AccountBalanceSnapshot snapshot(int folded) {
+        List<AccountBalanceEvent> prefix = events.subList(0, folded);
+        AccountBalanceSnapshot snapshot = new AccountBalanceSnapshot();
+        snapshot.setAccountId(ACCOUNT_ID);
+        snapshot.setLastEventId((long) folded);
+        snapshot.setCurrentBalance(sum(prefix, true));
+        snapshot.setAvailableBalance(sum(prefix, false));
+        snapshot.setAsOf(prefix.get(prefix.size() - 1).getOccurredAt());
+        snapshot.setCreatedAt(LocalDateTime.now());
+        return snapshot;
+    }
+
+    private static BigDecimal sum(List<AccountBalanceEvent> events, boolean current) {
+        return events.stream()
+                .map(current ? AccountBalanceEvent::getCurrentDelta : AccountBalanceEvent::getAvailableDelta)
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+    }
+}
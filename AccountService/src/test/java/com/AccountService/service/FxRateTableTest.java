@@ -0,0 +1,67 @@
+package com.AccountService.service;
+
+import com.AccountService.exceptions.FxRateUnavailableException;
+import com.AccountService.model.AccountDescription.CurrencyType;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class FxRateTableTest {
+    private static final FxRateTable TABLE = FxRateTable.build(Map.of(
+            CurrencyType.USD, Map.of(CurrencyType.KES, new BigDecimal("129.25")),
+            CurrencyType.EUR, Map.of(CurrencyType.USD, new BigDecimal("1.08"))), CurrencyType.USD);
+
+    @Test
+    void roundsHalfEvenToTheTargetMinorUnits() throws Exception {
+        // 0.02 * 129.25 = 2.585 and 0.06 * 129.25 = 7.755: ties go to the even cent
+        assertThat(TABLE.convert(new BigDecimal("0.02"), CurrencyType.USD, CurrencyType.KES)).isEqualTo("2.58");
+        assertThat(TABLE.convert(new BigDecimal("0.06"), CurrencyType.USD, CurrencyType.KES)).isEqualTo("7.76");
+        // 0.01 * 129.25 = 1.2925 is below the tie
+        assertThat(TABLE.convert(new BigDecimal("0.01"), CurrencyType.USD, CurrencyType.KES)).isEqualTo("1.29");
+        assertThat(TABLE.convert(new BigDecimal("100"), CurrencyType.USD, CurrencyType.KES)).isEqualTo("12925.00");
+    }
+
+    @Test
+    void usesTheInverseOfTheOppositeQuote() throws Exception {
+        assertThat(TABLE.convert(new BigDecimal("129.25"), CurrencyType.KES, CurrencyType.USD)).isEqualTo("1.00");
+        assertThat(TABLE.convert(new BigDecimal("1000"), CurrencyType.KES, CurrencyType.USD)).isEqualTo("7.74");
+        assertThat(TABLE.convert(new BigDecimal("108"), CurrencyType.USD, CurrencyType.EUR)).isEqualTo("100.00");
+    }
+
+    @Test
+    void crossesThroughThePivot() throws Exception {
+        // 1.08 * 129.25 = 139.59 KES per EUR
+        assertThat(TABLE.rate(CurrencyType.EUR, CurrencyType.KES)).isEqualByComparingTo("139.59");
+        assertThat(TABLE.convert(new BigDecimal("10"), CurrencyType.EUR, CurrencyType.KES)).isEqualTo("1395.90");
+        assertThat(TABLE.convert(new BigDecimal("1395.90"), CurrencyType.KES, CurrencyType.EUR)).isEqualTo("10.00");
+    }
+
+    @Test
+    void prefersADirectQuoteOverTheInverse() throws Exception {
+        FxRateTable table = FxRateTable.build(Map.of(
+                CurrencyType.USD, Map.of(CurrencyType.EUR, new BigDecimal("0.92")),
+                CurrencyType.EUR, Map.of(CurrencyType.USD, new BigDecimal("1.08"))), CurrencyType.USD);
+
+        assertThat(table.convert(new BigDecimal("100"), CurrencyType.USD, CurrencyType.EUR)).isEqualTo("92.00");
+        assertThat(table.convert(new BigDecimal("100"), CurrencyType.EUR, CurrencyType.USD)).isEqualTo("108.00");
+    }
+
+    @Test
+    void leavesSameCurrencyAmountsUntouched() throws Exception {
+        BigDecimal amount = new BigDecimal("12.345");
+        assertThat(TABLE.convert(amount, CurrencyType.KES, CurrencyType.KES)).isSameAs(amount);
+    }
+
+    @Test
+    void rejectsPairsWithoutARate() {
+        assertThatThrownBy(() -> TABLE.convert(BigDecimal.ONE, CurrencyType.GBP, CurrencyType.KES))
+                .isInstanceOf(FxRateUnavailableException.class)
+                .hasMessage("No FX rate available for GBP to KES");
+        assertThatThrownBy(() -> FxRateTable.empty().convert(BigDecimal.ONE, CurrencyType.USD, CurrencyType.KES))
+                .isInstanceOf(FxRateUnavailableException.class);
+    }
+}
@@ -57,6 +57,12 @@ public class SecurityConfig {
     @Value("${transactionService.client.secret}")
     private String transactionServiceClientSecret;
 
+    @Value("${backOffice.client.id}")
+    private String backOfficeClientId;
+
+    @Value("${backOffice.client.secret}")
+    private String backOfficeClientSecret;
+
     @Bean
     public SecurityFilterChain authorizationServerSecurityFilterChain(HttpSecurity http) throws Exception {
         http
@@ -135,7 +141,16 @@ public class SecurityConfig {
                 .scope("account:write")
                 .build();
 
-        return new InMemoryRegisteredClientRepository(registeredClient, userService, transactionService);
+        // Listings, audits and freeze actions; the only client that can be issued account:admin
+        RegisteredClient backOffice = RegisteredClient.withId(UUID.randomUUID().toString())
+                .clientId(backOfficeClientId)
+                .clientSecret(backOfficeClientSecret)
+                .clientAuthenticationMethod(ClientAuthenticationMethod.CLIENT_SECRET_BASIC)
+                .authorizationGrantType(AuthorizationGrantType.CLIENT_CREDENTIALS)
+                .scope("account:admin")
+                .build();
+
+        return new InMemoryRegisteredClientRepository(registeredClient, userService, transactionService, backOffice);
     }
 
     @Bean
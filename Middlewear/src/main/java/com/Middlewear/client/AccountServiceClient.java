@@ -15,7 +15,11 @@ import org.springframework.stereotype.Component;
 import javax.annotation.PostConstruct;
 import javax.annotation.PreDestroy;
 import java.io.File;
+import java.util.Iterator;
 import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
 import java.util.function.Supplier;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -27,6 +31,9 @@ public class AccountServiceClient {
     private AccountServiceGrpc.AccountServiceBlockingStub blockingStub;
     ManagedChannel channel;
     private String jwtToken;
+    // Token for back-office calls only, fetched on first use
+    private String adminToken;
+    private long adminTokenExpirationTime;
     private static final Logger logger = Logger.getLogger(AccountServiceClient.class.getName());
     private volatile long tokenExpirationTime;
     private final Object tokenLock = new Object();
@@ -124,6 +131,7 @@ public class AccountServiceClient {
 
                             synchronized (tokenLock) {
                                 tokenExpirationTime = 0;
+                                adminTokenExpirationTime = 0;
                                 try {
                                     refreshToken();
                                     logger.info("Token refreshed, retrying...");
@@ -189,6 +197,32 @@ public class AccountServiceClient {
         return executeWithRetry(() -> blockingStub.getAccountDetails(accountNumber));
     }
 
+    /**
+     * Streams a back-office listing to the consumer one entry at a time, authenticated with the
+     * admin-scoped token. The blocking iterator only asks the server for the next message once the
+     * current one has been consumed, so memory stays bounded however many accounts match. A retry
+     * after re-authentication resumes after the last entry already delivered.
+     */
+    public void listAccounts(ListAccountsRequest request, Consumer<AccountListEntry> consumer) {
+        AtomicReference<String> cursor = new AtomicReference<>(request.getAfterCursor());
+        AtomicLong delivered = new AtomicLong();
+        executeWithRetry(() -> {
+            ListAccountsRequest.Builder resumed = request.toBuilder().setAfterCursor(cursor.get());
+            if (request.getLimit() > 0) {
+                resumed.setLimit((int) (request.getLimit() - delivered.get()));
+            }
+            Iterator<AccountListEntry> entries = blockingStub.withCallCredentials(new JwtCredential(adminToken()))
+                    .listAccounts(resumed.build());
+            while (entries.hasNext()) {
+                AccountListEntry entry = entries.next();
+                consumer.accept(entry);
+                cursor.set(entry.getCursor());
+                delivered.incrementAndGet();
+            }
+            return null;
+        });
+    }
+
     private void refreshToken() {
         jwtToken = tokenObtainService.obtainTokenFromAuthServer();
         // Extract expiration from token or get it from the service
@@ -196,6 +230,16 @@ public class AccountServiceClient {
         logger.info("JWT token refreshed, expires in " + (tokenExpirationTime - System.currentTimeMillis()) + "ms");
     }
 
+    private String adminToken() {
+        synchronized (tokenLock) {
+            if (adminToken == null || adminTokenExpirationTime - System.currentTimeMillis() < TOKEN_EXPIRY_BUFFER_MS) {
+                adminToken = tokenObtainService.obtainAdminTokenFromAuthServer();
+                adminTokenExpirationTime = System.currentTimeMillis() + TOKEN_EXPIRY_BUFFER_MS * 5;
+            }
+            return adminToken;
+        }
+    }
+
     private void updateStubWithToken() {
         if (blockingStub != null && jwtToken != null) {
             blockingStub = blockingStub.withCallCredentials(new JwtCredential(jwtToken));
@@ -21,7 +21,25 @@ public class TokenObtainService {
     @Value("${client.secret}")
     private String clientSecret;
 
+    @Value("${backOffice.client.id}")
+    private String backOfficeClientId;
+
+    @Value("${backOffice.client.secret}")
+    private String backOfficeClientSecret;
+
+    static final String SERVICE_SCOPES = "account:write account:read account:transaction";
+    static final String ADMIN_SCOPE = "account:admin";
+
     protected String obtainTokenFromAuthServer() {
+        return obtainTokenFromAuthServer(clientId, clientSecret, SERVICE_SCOPES);
+    }
+
+    // account:admin is only issued to the back-office client, never to the customer-facing one
+    protected String obtainAdminTokenFromAuthServer() {
+        return obtainTokenFromAuthServer(backOfficeClientId, backOfficeClientSecret, ADMIN_SCOPE);
+    }
+
+    private String obtainTokenFromAuthServer(String clientId, String clientSecret, String scope) {
 
         String tokenUrl = "http://localhost:9000/oauth2/token";
         RestTemplate restTemplate = new RestTemplate();
@@ -34,7 +52,7 @@ public class TokenObtainService {
         // Set up the request body
         MultiValueMap<String, String> body = new LinkedMultiValueMap<>();
         body.add("grant_type", "client_credentials");
-        body.add("scope", "account:write account:read account:transaction");
+        body.add("scope", scope);
 
         // Create the HTTP entity with headers and body
         HttpEntity<MultiValueMap<String, String>> requestEntity = new HttpEntity<>(body, headers);
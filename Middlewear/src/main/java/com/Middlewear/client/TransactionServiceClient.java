@@ -16,7 +16,10 @@ import org.springframework.stereotype.Component;
 import javax.annotation.PostConstruct;
 import javax.annotation.PreDestroy;
 import java.io.File;
+import java.util.Iterator;
 import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
 import java.util.function.Supplier;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -28,6 +31,9 @@ public class TransactionServiceClient {
     private TransactionServiceGrpc.TransactionServiceBlockingStub blockingStub;
     ManagedChannel channel;
     private String jwtToken;
+    // Token for back-office calls only, fetched on first use
+    private String adminToken;
+    private long adminTokenExpirationTime;
     private static final Logger logger = Logger.getLogger(TransactionServiceClient.class.getName());
     private volatile long tokenExpirationTime;
     private final Object tokenLock = new Object();
@@ -125,6 +131,7 @@ public class TransactionServiceClient {
 
                             synchronized (tokenLock) {
                                 tokenExpirationTime = 0;
+                                adminTokenExpirationTime = 0;
                                 try {
                                     refreshToken();
                                     logger.info("Token refreshed, retrying...");
@@ -231,12 +238,15 @@ public class TransactionServiceClient {
         });
     }
 
-    public TransactionsListResponse getTransactionsByAccountId(String accountId, int page, int size) throws Exception {
+    public TransactionsListResponse getTransactionsByAccountId(String accountId, int page, int size,
+                                                                boolean ascending, String pageToken) throws Exception {
         return executeWithRetry(() -> {
             AccountTransactionsRequest request = AccountTransactionsRequest.newBuilder()
                     .setAccountId(accountId)
                     .setPage(page)
                     .setSize(size)
+                    .setAscending(ascending)
+                    .setPageToken(pageToken)
                     .build();
             return blockingStub.getTransactionsByAccountId(request);
         });
@@ -269,6 +279,31 @@ public class TransactionServiceClient {
         });
     }
 
+    public TransactionsListResponse getTransactionsInRange(TransactionRangeRequest request) throws Exception {
+        return executeWithRetry(() -> blockingStub.withCallCredentials(new JwtCredential(adminToken()))
+                .getTransactionsInRange(request));
+    }
+
+    /**
+     * Streams a statement to the consumer one transaction at a time. The blocking iterator only asks
+     * the server for the next message once the current one has been consumed, so memory stays
+     * bounded however long the statement is. A retry after re-authentication resumes after the last
+     * transaction already delivered.
+     */
+    public void streamTransactions(StreamTransactionsRequest request, Consumer<TransactionStreamEntry> consumer) {
+        AtomicReference<String> cursor = new AtomicReference<>(request.getAfterCursor());
+        executeWithRetry(() -> {
+            Iterator<TransactionStreamEntry> entries = blockingStub.streamTransactions(
+                    request.toBuilder().setAfterCursor(cursor.get()).build());
+            while (entries.hasNext()) {
+                TransactionStreamEntry entry = entries.next();
+                consumer.accept(entry);
+                cursor.set(entry.getCursor());
+            }
+            return null;
+        });
+    }
+
     private void refreshToken() {
         jwtToken = tokenObtainService.obtainTokenFromAuthServer();
         // Extract expiration from token or get it from the service
@@ -276,6 +311,16 @@ public class TransactionServiceClient {
         logger.info("JWT token refreshed, expires in " + (tokenExpirationTime - System.currentTimeMillis()) + "ms");
     }
 
+    private String adminToken() {
+        synchronized (tokenLock) {
+            if (adminToken == null || adminTokenExpirationTime - System.currentTimeMillis() < TOKEN_EXPIRY_BUFFER_MS) {
+                adminToken = tokenObtainService.obtainAdminTokenFromAuthServer();
+                adminTokenExpirationTime = System.currentTimeMillis() + TOKEN_EXPIRY_BUFFER_MS * 5;
+            }
+            return adminToken;
+        }
+    }
+
     private void updateStubWithToken() {
         if (blockingStub != null && jwtToken != null) {
             blockingStub = blockingStub.withCallCredentials(new JwtCredential(jwtToken));
@@ -0,0 +1,74 @@
+package com.Middlewear.controller;
+
+import com.AccountService.grpc.AccountStatus;
+import com.AccountService.grpc.AccountType;
+import com.AccountService.grpc.CurrencyType;
+import com.AccountService.grpc.ListAccountsRequest;
+import com.Middlewear.client.AccountServiceClient;
+import com.Middlewear.dto.AccountListEntryDto;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/accounts")
+public class AccountController {
+
+    private final AccountServiceClient accountServiceClient;
+    private final ObjectMapper objectMapper;
+
+    public AccountController(AccountServiceClient accountServiceClient, ObjectMapper objectMapper) {
+        this.accountServiceClient = accountServiceClient;
+        this.objectMapper = objectMapper;
+    }
+
+    // Back-office listing as newline-delimited JSON, written as entries arrive from the account service
+    @GetMapping
+    @PreAuthorize("hasAuthority('SCOPE_account:admin')")
+    public ResponseEntity<?> listAccounts(@RequestParam(required = false) List<String> type,
+                                          @RequestParam(required = false) List<String> status,
+                                          @RequestParam(required = false) List<String> currency,
+                                          @RequestParam(required = false) String userId,
+                                          @RequestParam(required = false) String after,
+                                          @RequestParam(defaultValue = "0") int limit) {
+        ListAccountsRequest.Builder request = ListAccountsRequest.newBuilder().setLimit(limit);
+        try {
+            if (type != null) {
+                type.forEach(value -> request.addAccountTypes(AccountType.valueOf(value)));
+            }
+            if (status != null) {
+                status.forEach(value -> request.addAccountStatuses(AccountStatus.valueOf(value)));
+            }
+            if (currency != null) {
+                currency.forEach(value -> request.addCurrencyTypes(CurrencyType.valueOf(value)));
+            }
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+        if (userId != null) {
+            request.setUserId(userId);
+        }
+        if (after != null) {
+            request.setAfterCursor(after);
+        }
+
+        StreamingResponseBody body = out -> accountServiceClient.listAccounts(request.build(), entry -> {
+            try {
+                out.write(objectMapper.writeValueAsBytes(AccountListEntryDto.fromProto(entry)));
+                out.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/x-ndjson"))
+                .body(body);
+    }
+}
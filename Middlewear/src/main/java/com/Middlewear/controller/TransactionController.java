@@ -3,20 +3,34 @@ package com.Middlewear.controller;
 import com.Middlewear.client.TransactionServiceClient;
 import com.Middlewear.dto.TransactionRequestDto;
 import com.Middlewear.dto.TransactionResponseDto;
+import com.Middlewear.dto.TransactionStreamEntryDto;
 import com.Middlewear.dto.TransactionsListResponseDto;
+import com.TransactionService.grpc.StreamTransactionsRequest;
+import com.TransactionService.grpc.TransactionRangeRequest;
 import com.TransactionService.grpc.TransactionResponse;
 import com.TransactionService.grpc.TransactionsListResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
 
 @RestController
 @RequestMapping("/transactions")
 public class TransactionController {
 
     private final TransactionServiceClient transactionServiceClient;
+    private final ObjectMapper objectMapper;
 
-    public TransactionController(TransactionServiceClient transactionServiceClient) {
+    public TransactionController(TransactionServiceClient transactionServiceClient, ObjectMapper objectMapper) {
         this.transactionServiceClient = transactionServiceClient;
+        this.objectMapper = objectMapper;
     }
 
     @PostMapping("/internal-transfer")
@@ -65,16 +79,65 @@ public class TransactionController {
 
     @GetMapping("/account/{accountId}")
     public ResponseEntity<?> getTransactionsByAccount(@PathVariable String accountId,
-                                                      @RequestParam int page,
-                                                      @RequestParam int size) {
+                                                      @RequestParam(defaultValue = "0") int page,
+                                                      @RequestParam(defaultValue = "50") int size,
+                                                      @RequestParam(defaultValue = "false") boolean ascending,
+                                                      @RequestParam(defaultValue = "") String pageToken) {
         try {
-            TransactionsListResponse response = transactionServiceClient.getTransactionsByAccountId(accountId, page, size);
+            TransactionsListResponse response = transactionServiceClient.getTransactionsByAccountId(accountId, page, size,
+                    ascending, pageToken);
             return ResponseEntity.ok(TransactionsListResponseDto.fromProto(response));
         } catch (Exception e) {
             return ResponseEntity.status(500).body(e.getMessage());
         }
     }
 
+    // Statement export, written as transactions arrive from the transaction service
+    @GetMapping("/account/{accountId}/statement")
+    public ResponseEntity<?> streamStatement(@PathVariable String accountId,
+                                             @RequestParam(required = false) String from,
+                                             @RequestParam(required = false) String to,
+                                             @RequestParam(required = false) String after,
+                                             @RequestParam(defaultValue = "ndjson") String format) {
+        boolean csv = format.equalsIgnoreCase("csv");
+        if (!csv && !format.equalsIgnoreCase("ndjson")) {
+            return ResponseEntity.badRequest().body("format must be csv or ndjson");
+        }
+        StreamTransactionsRequest.Builder request = StreamTransactionsRequest.newBuilder().setAccountId(accountId);
+        if (from != null) {
+            request.setFromTime(from);
+        }
+        if (to != null) {
+            request.setToTime(to);
+        }
+        if (after != null) {
+            request.setAfterCursor(after);
+        }
+
+        StreamingResponseBody body = out -> {
+            if (csv) {
+                out.write((TransactionStreamEntryDto.CSV_HEADER + "\r\n").getBytes(StandardCharsets.UTF_8));
+            }
+            transactionServiceClient.streamTransactions(request.build(), entry -> {
+                try {
+                    TransactionStreamEntryDto dto = TransactionStreamEntryDto.fromProto(entry);
+                    if (csv) {
+                        out.write((dto.toCsvRow() + "\r\n").getBytes(StandardCharsets.UTF_8));
+                    } else {
+                        out.write(objectMapper.writeValueAsBytes(dto));
+                        out.write('\n');
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        };
+        return ResponseEntity.ok()
+                .contentType(csv ? MediaType.parseMediaType("text/csv") : MediaType.parseMediaType("application/x-ndjson"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, csv ? "attachment; filename=\"statement-" + accountId.replaceAll("[^A-Za-z0-9_-]", "") + ".csv\"" : "inline")
+                .body(body);
+    }
+
     @GetMapping("/from-account/{accountId}")
     public ResponseEntity<?> getTransactionsByFromAccount(@PathVariable String accountId) {
         try {
@@ -95,6 +158,31 @@ public class TransactionController {
         }
     }
 
+    @GetMapping("/range")
+    @PreAuthorize("hasAuthority('SCOPE_account:admin')")
+    public ResponseEntity<?> getTransactionsInRange(@RequestParam String from,
+                                                    @RequestParam String to,
+                                                    @RequestParam(defaultValue = "") String accountId,
+                                                    @RequestParam(defaultValue = "") String status,
+                                                    @RequestParam(defaultValue = "") String type,
+                                                    @RequestParam(defaultValue = "50") int size,
+                                                    @RequestParam(defaultValue = "") String pageToken) {
+        try {
+            TransactionsListResponse response = transactionServiceClient.getTransactionsInRange(TransactionRangeRequest.newBuilder()
+                    .setFromTime(from)
+                    .setToTime(to)
+                    .setAccountId(accountId)
+                    .setTransactionStatus(status)
+                    .setTransactionType(type)
+                    .setSize(size)
+                    .setPageToken(pageToken)
+                    .build());
+            return ResponseEntity.ok(TransactionsListResponseDto.fromProto(response));
+        } catch (Exception e) {
+            return ResponseEntity.status(500).body(e.getMessage());
+        }
+    }
+
     @GetMapping("/time")
     public ResponseEntity<?> getTransactionsByTime(@RequestParam String transactionTime) {
         try {
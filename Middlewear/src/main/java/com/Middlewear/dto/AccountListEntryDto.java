@@ -0,0 +1,30 @@
+package com.Middlewear.dto;
+
+import com.AccountService.grpc.AccountListEntry;
+import com.AccountService.grpc.AccountResponse;
+
+public class AccountListEntryDto {
+    public String accountNumber;
+    public String accountType;
+    public String accountStatus;
+    public String currency;
+    public String currentBalance;
+    public String availableBalance;
+    public String interestRate;
+    // Pass back as "after" to continue the listing from this entry
+    public String cursor;
+
+    public static AccountListEntryDto fromProto(AccountListEntry entry) {
+        AccountResponse account = entry.getAccount();
+        AccountListEntryDto dto = new AccountListEntryDto();
+        dto.accountNumber = account.getAccountNumber();
+        dto.accountType = account.getAccountType().name();
+        dto.accountStatus = account.getAccountStatus().name();
+        dto.currency = account.getCurrencyType().name();
+        dto.currentBalance = account.getCurrentBalance();
+        dto.availableBalance = account.getAvailableBalance();
+        dto.interestRate = account.getInterestRate();
+        dto.cursor = entry.getCursor();
+        return dto;
+    }
+}
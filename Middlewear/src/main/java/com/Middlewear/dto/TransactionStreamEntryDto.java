@@ -0,0 +1,59 @@
+package com.Middlewear.dto;
+
+import com.TransactionService.grpc.TransactionResponse;
+import com.TransactionService.grpc.TransactionStreamEntry;
+
+public class TransactionStreamEntryDto {
+    public String transactionReference;
+    public String timestamp;
+    public String fromAccount;
+    public String toAccount;
+    public String amount;
+    public String currencyType;
+    public String feeAmount;
+    public String feeCurrency;
+    public String transactionType;
+    public String status;
+    public String description;
+    // Pass back as "after" to continue the statement from this transaction
+    public String cursor;
+
+    public static TransactionStreamEntryDto fromProto(TransactionStreamEntry entry) {
+        TransactionResponse transaction = entry.getTransaction();
+        TransactionStreamEntryDto dto = new TransactionStreamEntryDto();
+        dto.transactionReference = transaction.getTransactionReference();
+        dto.timestamp = transaction.getTimestamp();
+        dto.fromAccount = transaction.getFromAccount();
+        dto.toAccount = transaction.getToAccount();
+        dto.amount = transaction.getAmount();
+        dto.currencyType = transaction.getCurrencyType();
+        dto.feeAmount = transaction.getFeeAmount();
+        dto.feeCurrency = transaction.getFeeCurrency();
+        dto.transactionType = transaction.getTransactionType();
+        dto.status = transaction.getTransactionStatus();
+        dto.description = transaction.getDescription();
+        dto.cursor = entry.getCursor();
+        return dto;
+    }
+
+    public static final String CSV_HEADER = "transactionReference,timestamp,fromAccount,toAccount,amount,currencyType," +
+            "feeAmount,feeCurrency,transactionType,status,description,cursor";
+
+    public String toCsvRow() {
+        return String.join(",", csv(transactionReference), csv(timestamp), csv(fromAccount), csv(toAccount),
+                csv(amount), csv(currencyType), csv(feeAmount), csv(feeCurrency), csv(transactionType),
+                csv(status), csv(description), csv(cursor));
+    }
+
+    // RFC 4180 quoting, plus a leading quote on values a spreadsheet would otherwise run as a formula
+    private static String csv(String value) {
+        if (value == null || value.isEmpty()) {
+            return "";
+        }
+        String safe = "=+-@".indexOf(value.charAt(0)) >= 0 && !value.matches("-?[0-9.]+") ? "'" + value : value;
+        if (safe.contains(",") || safe.contains("\"") || safe.contains("\n") || safe.contains("\r")) {
+            return "\"" + safe.replace("\"", "\"\"") + "\"";
+        }
+        return safe;
+    }
+}
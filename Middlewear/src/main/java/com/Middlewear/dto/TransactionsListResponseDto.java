@@ -7,12 +7,19 @@ import java.util.stream.Collectors;
 
 public class TransactionsListResponseDto {
     public List<TransactionResponseDto> transactions;
+    public int totalCount;
+    public boolean totalCountEstimated;
+    // Pass back as pageToken for the next page; null on the last page
+    public String nextPageToken;
 
     public static TransactionsListResponseDto fromProto(TransactionsListResponse response) {
         TransactionsListResponseDto dto = new TransactionsListResponseDto();
         dto.transactions = response.getTransactionsList().stream()
             .map(TransactionResponseDto::fromProto)
             .collect(Collectors.toList());
+        dto.totalCount = response.getTotalCount();
+        dto.totalCountEstimated = response.getTotalCountEstimated();
+        dto.nextPageToken = response.getNextPageToken().isEmpty() ? null : response.getNextPageToken();
         return dto;
     }
 }
@@ -3,9 +3,11 @@ package com.TransactionService;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.context.annotation.ComponentScan;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
 @ComponentScan("com.TransactionService")
+@EnableScheduling
 public class TransactionService {
     public static void main(String[] args) {
         SpringApplication.run(TransactionService.class, args);
@@ -1,6 +1,10 @@
 package com.TransactionService.client;
 
 import com.AccountService.grpc.*;
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.MoreExecutors;
 import io.grpc.*;
 import java.util.concurrent.Executor;
 
@@ -18,10 +22,12 @@ import javax.annotation.PostConstruct;
 import javax.annotation.PreDestroy;
 import java.io.File;
 import java.math.BigDecimal;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
-import java.util.function.Supplier;
+import java.util.function.Function;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -29,7 +35,8 @@ import java.util.logging.Logger;
 public class AccountServiceClient {
     @Autowired
     TokenObtainService tokenObtainService;
-    private AccountServiceGrpc.AccountServiceBlockingStub blockingStub;
+    // Calls never hold a thread while in flight; the blocking methods below just wait on these futures
+    private volatile AccountServiceGrpc.AccountServiceFutureStub futureStub;
     ManagedChannel channel;
     private String jwtToken;
     private static final Logger logger = Logger.getLogger(AccountServiceClient.class.getName());
@@ -56,6 +63,10 @@ public class AccountServiceClient {
     @Value("${grpc.ssl.clientKeyPath}")
     private String clientKeyPath;
 
+    // Per attempt; a call past it fails DEADLINE_EXCEEDED and the saga retries it by idempotency key
+    @Value("${transaction.account-service.deadline-ms:5000}")
+    private long deadlineMs;
+
     @PostConstruct
     public void init() {
         establishConnection();
@@ -97,7 +108,7 @@ public class AccountServiceClient {
 
                 // Get initial token and create stub
                 refreshToken();
-                blockingStub = AccountServiceGrpc.newBlockingStub(channel)
+                futureStub = AccountServiceGrpc.newFutureStub(channel)
                         .withCallCredentials(new JwtCredential(jwtToken));
 
                 logger.info("gRPC connection established to " + grpcHost + ":" + grpcPort);
@@ -130,35 +141,76 @@ public class AccountServiceClient {
         }
     }
 
-    private <T> T executeWithRetry(Supplier<T> grpcCall, String accountNumber) throws Exception {
-        for (int retry = 0; retry < MAX_RETRIES; retry++) {
-            try {
-                return grpcCall.get();
+    /**
+     * Issues the call and completes with its response. UNAUTHENTICATED refreshes the token and
+     * reissues the call; any other failure completes the future with the exception
+     * handleGrpcException maps it to.
+     */
+    private <T> CompletableFuture<T> executeWithRetry(
+            Function<AccountServiceGrpc.AccountServiceFutureStub, ListenableFuture<T>> grpcCall, String accountNumber) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        attempt(grpcCall, accountNumber, 0, result);
+        return result;
+    }
 
-            } catch (StatusRuntimeException e) {
-                Status.Code code = e.getStatus().getCode();
+    private <T> void attempt(Function<AccountServiceGrpc.AccountServiceFutureStub, ListenableFuture<T>> grpcCall,
+                             String accountNumber, int retry, CompletableFuture<T> result) {
+        Futures.addCallback(grpcCall.apply(futureStub.withDeadlineAfter(deadlineMs, TimeUnit.MILLISECONDS)), new FutureCallback<>() {
+            @Override
+            public void onSuccess(T response) {
+                result.complete(response);
+            }
 
-                if (code == Status.Code.UNAUTHENTICATED) {
-                    logger.warning("Authentication failed on attempt " + (retry + 1) + ": " + e.getMessage());
+            @Override
+            public void onFailure(Throwable t) {
+                if (!(t instanceof StatusRuntimeException e)) {
+                    result.completeExceptionally(t);
+                    return;
+                }
+                if (e.getStatus().getCode() != Status.Code.UNAUTHENTICATED) {
+                    result.completeExceptionally(handleGrpcException(e, accountNumber));
+                    return;
+                }
+                if (retry + 1 >= MAX_RETRIES) {
+                    result.completeExceptionally(new RuntimeException("Authentication failed after " + MAX_RETRIES + " attempts"));
+                    return;
+                }
 
+                logger.warning("Authentication failed on attempt " + (retry + 1) + ": " + e.getMessage());
+                // Fetching a token blocks on the auth server, so keep it off the gRPC callback thread
+                scheduler.execute(() -> {
                     synchronized (tokenLock) {
                         tokenExpirationTime = 0;
                         try {
                             refreshToken();
+                            updateStubWithToken();
                             logger.info("Token refreshed, retrying...");
                         } catch (Exception refreshEx) {
                             logger.log(Level.SEVERE, "Token refresh failed", refreshEx);
-                            throw new RuntimeException("Token refresh failed", refreshEx);
+                            result.completeExceptionally(new RuntimeException("Token refresh failed", refreshEx));
+                            return;
                         }
                     }
+                    attempt(grpcCall, accountNumber, retry + 1, result);
+                });
+            }
+        }, MoreExecutors.directExecutor());
+    }
 
-                } else {
-                    throw handleGrpcException(e, accountNumber);
-                }
+    /**
+     * Waits for an async call and rethrows what it failed with, as the blocking stub used to. The
+     * wait outlasts every attempt running to its deadline, so a lost callback surfaces as a
+     * TimeoutException rather than holding the caller forever.
+     */
+    private <T> T await(CompletableFuture<T> call) throws Exception {
+        try {
+            return call.get(deadlineMs * (MAX_RETRIES + 1), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof Exception cause) {
+                throw cause;
             }
+            throw e;
         }
-
-        throw new RuntimeException("Authentication failed after " + MAX_RETRIES + " attempts");
     }
 
     private Exception handleGrpcException(StatusRuntimeException e, String accountNumber) {
@@ -173,9 +225,10 @@ public class AccountServiceClient {
                 assert metadata != null;
                 String errorType = metadata.get(Metadata.Key.of("error-type", Metadata.ASCII_STRING_MARSHALLER));
 
-                if ("INSUFFICIENT_BALANCE".equals(errorType)) {
+                // AccountService reports INSUFFICIENT_FUNDS with the requested amount under "requested"
+                if ("INSUFFICIENT_FUNDS".equals(errorType) || "INSUFFICIENT_BALANCE".equals(errorType)) {
                     String balance = metadata.get(Metadata.Key.of("balance", Metadata.ASCII_STRING_MARSHALLER));
-                    String requested = metadata.get(Metadata.Key.of("attempted-operation", Metadata.ASCII_STRING_MARSHALLER));
+                    String requested = metadata.get(Metadata.Key.of("requested", Metadata.ASCII_STRING_MARSHALLER));
                     String accountId = metadata.get(Metadata.Key.of("account-number", Metadata.ASCII_STRING_MARSHALLER));
 
                     return new InsufficientFundsException("Insufficient funds: Account " + accountId +
@@ -194,27 +247,44 @@ public class AccountServiceClient {
         }
     }
 
-    public CreditResponse creditAccount(String accountNumber, BigDecimal amount, CurrencyType currencyType) throws Exception {
-        return executeWithRetry(() -> {
-            CreditRequest request = CreditRequest.newBuilder()
-                    .setAccountNumber(accountNumber)
-                    .setAmount(amount.toString())
-                    .setCurrencyType(currencyType)
-                    .build();
-            return blockingStub.creditAccount(request);
-        }, accountNumber);
+    public CompletableFuture<AccountResponse> getAccountDetailsAsync(String accountNumber) {
+        GetAccountRequest request = GetAccountRequest.newBuilder()
+                .setAccountNumber(accountNumber)
+                .build();
+        return executeWithRetry(stub -> stub.getAccountDetails(request), accountNumber);
     }
 
-    public DebitResponse debitAccount(String accountNumber, BigDecimal amount, CurrencyType currencyType) throws Exception {
-        return executeWithRetry(() -> {
-            DebitRequest request = DebitRequest.newBuilder()
-                    .setAccountNumber(accountNumber)
-                    .setAmount(amount.toString())
-                    .setCurrencyType(currencyType)
-                    .build();
-            return blockingStub.debitAccount(request);
+    // The idempotency key makes the retries below safe: a repeat returns the first result
+    public CompletableFuture<CreditResponse> creditAccountAsync(String accountNumber, BigDecimal amount,
+                                                                CurrencyType currencyType, String idempotencyKey) {
+        CreditRequest request = CreditRequest.newBuilder()
+                .setAccountNumber(accountNumber)
+                .setAmount(amount.toString())
+                .setCurrencyType(currencyType)
+                .setIdempotencyKey(idempotencyKey)
+                .build();
+        return executeWithRetry(stub -> stub.creditAccount(request), accountNumber);
+    }
+
+    public CompletableFuture<DebitResponse> debitAccountAsync(String accountNumber, BigDecimal amount,
+                                                              CurrencyType currencyType, String idempotencyKey) {
+        DebitRequest request = DebitRequest.newBuilder()
+                .setAccountNumber(accountNumber)
+                .setAmount(amount.toString())
+                .setCurrencyType(currencyType)
+                .setIdempotencyKey(idempotencyKey)
+                .build();
+        return executeWithRetry(stub -> stub.debitAccount(request), accountNumber);
+    }
+
+    public CreditResponse creditAccount(String accountNumber, BigDecimal amount, CurrencyType currencyType,
+                                        String idempotencyKey) throws Exception {
+        return await(creditAccountAsync(accountNumber, amount, currencyType, idempotencyKey));
+    }
 
-        }, accountNumber);
+    public DebitResponse debitAccount(String accountNumber, BigDecimal amount, CurrencyType currencyType,
+                                      String idempotencyKey) throws Exception {
+        return await(debitAccountAsync(accountNumber, amount, currencyType, idempotencyKey));
     }
 
     private void refreshToken() {
@@ -225,8 +295,8 @@ public class AccountServiceClient {
     }
 
     private void updateStubWithToken() {
-        if (blockingStub != null && jwtToken != null) {
-            blockingStub = blockingStub.withCallCredentials(new JwtCredential(jwtToken));
+        if (futureStub != null && jwtToken != null) {
+            futureStub = futureStub.withCallCredentials(new JwtCredential(jwtToken));
         }
     }
 
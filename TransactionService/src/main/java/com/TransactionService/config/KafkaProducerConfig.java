@@ -0,0 +1,38 @@
+package com.TransactionService.config;
+
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.kafka.DefaultKafkaProducerFactoryCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.Map;
+
+/**
+ * Producer settings for the ledger outbox relay, which sends hundreds of records at a time:
+ * a short linger and large batches let the producer pack them into few compressed requests.
+ * Idempotence with acks=all keeps retried sends from duplicating or reordering records within
+ * a partition. Anything set under spring.kafka.producer still applies to the rest.
+ */
+@Configuration
+public class KafkaProducerConfig {
+
+    @Value("${transaction.kafka.linger-ms:20}")
+    private int lingerMs;
+
+    @Value("${transaction.kafka.batch-size-bytes:262144}")
+    private int batchSizeBytes;
+
+    @Value("${transaction.kafka.compression-type:lz4}")
+    private String compressionType;
+
+    @Bean
+    public DefaultKafkaProducerFactoryCustomizer ledgerProducerCustomizer() {
+        return producerFactory -> producerFactory.updateConfigs(Map.of(
+                ProducerConfig.LINGER_MS_CONFIG, lingerMs,
+                ProducerConfig.BATCH_SIZE_CONFIG, batchSizeBytes,
+                ProducerConfig.COMPRESSION_TYPE_CONFIG, compressionType,
+                ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true,
+                ProducerConfig.ACKS_CONFIG, "all"));
+    }
+}
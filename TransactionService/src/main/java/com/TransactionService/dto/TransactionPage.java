@@ -0,0 +1,20 @@
+package com.TransactionService.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * One keyset page of an account's transaction history.
+ */
+@Getter
+@AllArgsConstructor
+public class TransactionPage {
+    private final List<TransactionResponseDTO> transactions;
+    // Null on the last page
+    private final String nextPageToken;
+    private final long totalCount;
+    // True when totalCount is the planner's estimate rather than an exact count
+    private final boolean totalCountEstimated;
+}
@@ -0,0 +1,28 @@
+package com.TransactionService.dto;
+
+import com.TransactionService.model.TransactionDescription;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Transactions in [fromTime, toTime), optionally narrowed to one account, status and type. Null
+ * filters match everything.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TransactionRangeQuery {
+    private LocalDateTime fromTime;
+    private LocalDateTime toTime;
+    private String accountNumber;
+    private TransactionDescription.TransactionStatus status;
+    private TransactionDescription.TransactionType transactionType;
+    // Next page token of the previous page, empty or null for the first page
+    private String pageToken;
+    private int size;
+}
@@ -0,0 +1,27 @@
+package com.TransactionService.encryptors;
+
+import com.TransactionService.model.Transaction;
+import com.TransactionService.service.BlindIndexService;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+@Component
+public class TransactionBlindIndexListener {
+
+    @Autowired
+    private BlindIndexService blindIndexService;
+
+    @PrePersist
+    @PreUpdate
+    public void beforeWrite(Transaction transaction) {
+        // The accounts of a transaction never change, so existing indexes are left alone
+        if (transaction.getFromAccountHmac() == null) {
+            transaction.setFromAccountHmac(blindIndexService.hash(transaction.getFromAccount()));
+        }
+        if (transaction.getToAccountHmac() == null) {
+            transaction.setToAccountHmac(blindIndexService.hash(transaction.getToAccount()));
+        }
+    }
+}
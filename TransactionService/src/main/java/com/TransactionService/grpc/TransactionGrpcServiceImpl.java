@@ -3,28 +3,39 @@ package com.TransactionService.grpc;
 import com.AccountService.grpc.CurrencyType;
 import com.TransactionService.model.TransactionDescription;
 import io.grpc.Status;
+import io.grpc.stub.ServerCallStreamObserver;
 import io.grpc.stub.StreamObserver;
 import lombok.RequiredArgsConstructor;
 import net.devh.boot.grpc.server.service.GrpcService;
 import org.springframework.beans.factory.annotation.Autowired;
+import com.TransactionService.dto.TransactionPage;
+import com.TransactionService.dto.TransactionRangeQuery;
 import com.TransactionService.dto.TransactionRequestDTO;
 import com.TransactionService.dto.TransactionResponseDTO;
 import com.TransactionService.exceptions.IneligibleAccountException;
 import com.TransactionService.exceptions.InsufficientFundsException;
 import com.TransactionService.exceptions.TransactionNotFoundException;
 import com.TransactionService.service.TransactionService;
+import com.TransactionService.util.TransactionCursor;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
 import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
 
 @GrpcService
 @RequiredArgsConstructor
 public class TransactionGrpcServiceImpl extends TransactionServiceGrpc.TransactionServiceImplBase {
 
     private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ISO_DATE_TIME;
+    private static final int EXPORT_BUFFER_SIZE = 256;
+    private static final long EXPORT_POLL_MS = 100;
 
     @Autowired
     private TransactionService transactionService;
@@ -130,45 +141,27 @@ public class TransactionGrpcServiceImpl extends TransactionServiceGrpc.Transacti
     public void getTransactionsByAccountId(AccountTransactionsRequest request,
                                            StreamObserver<TransactionsListResponse> responseObserver) {
         try {
-            List<TransactionResponseDTO> fromAccountTransaction = null;
-            List<TransactionResponseDTO> toAccountTransaction = null;
-
-            try {
-                fromAccountTransaction = transactionService.getTransactionsByFromAccount(request.getAccountId());
-            } catch (TransactionNotFoundException ignored) {
-                // No transaction found for from account, that's OK
-            }
-
-            try {
-                toAccountTransaction = transactionService.getTransactionsByToAccount(request.getAccountId());
-            } catch (TransactionNotFoundException ignored) {
-                // No transaction found for to account, that's OK
-            }
+            TransactionPage page = transactionService.getTransactionsByAccount(request.getAccountId(),
+                    request.getSortBy(), request.getAscending(), request.getPageToken(), request.getSize());
 
             TransactionsListResponse.Builder responseBuilder = TransactionsListResponse.newBuilder()
                     .setPage(request.getPage())
-                    .setSize(request.getSize());
-
-            int count = 0;
-
-            if (fromAccountTransaction != null) {
-                for (TransactionResponseDTO dto : fromAccountTransaction) {
-                    responseBuilder.addTransactions(buildResponse(dto));
-                    count++;
-                }
+                    .setSize(page.getTransactions().size())
+                    .setTotalCount((int) Math.min(page.getTotalCount(), Integer.MAX_VALUE))
+                    .setTotalCountEstimated(page.isTotalCountEstimated());
+            for (TransactionResponseDTO dto : page.getTransactions()) {
+                responseBuilder.addTransactions(buildResponse(dto));
             }
-
-            if (toAccountTransaction != null) {
-                for (TransactionResponseDTO dto : toAccountTransaction) {
-                    responseBuilder.addTransactions(buildResponse(dto));
-                    count++;
-                }
+            if (page.getNextPageToken() != null) {
+                responseBuilder.setNextPageToken(page.getNextPageToken());
             }
 
-            responseBuilder.setTotalCount(count);
-
             responseObserver.onNext(responseBuilder.build());
             responseObserver.onCompleted();
+        } catch (IllegalArgumentException e) {
+            responseObserver.onError(Status.INVALID_ARGUMENT
+                    .withDescription(e.getMessage())
+                    .asRuntimeException());
         } catch (Exception e) {
             responseObserver.onError(Status.INTERNAL
                     .withDescription("Error retrieving transactions: " + e.getMessage())
@@ -254,6 +247,174 @@ public class TransactionGrpcServiceImpl extends TransactionServiceGrpc.Transacti
         }
     }
 
+    @Override
+    public void getTransactionsInRange(TransactionRangeRequest request, StreamObserver<TransactionsListResponse> responseObserver) {
+        try {
+            TransactionRangeQuery query = TransactionRangeQuery.builder()
+                    .fromTime(LocalDateTime.parse(request.getFromTime(), DATE_FORMATTER))
+                    .toTime(LocalDateTime.parse(request.getToTime(), DATE_FORMATTER))
+                    .accountNumber(request.getAccountId())
+                    .status(request.getTransactionStatus().isEmpty() ? null
+                            : TransactionDescription.TransactionStatus.valueOf(request.getTransactionStatus()))
+                    .transactionType(request.getTransactionType().isEmpty() ? null
+                            : TransactionDescription.TransactionType.valueOf(request.getTransactionType()))
+                    .pageToken(request.getPageToken())
+                    .size(request.getSize())
+                    .build();
+            TransactionPage page = transactionService.getTransactionsInRange(query);
+
+            TransactionsListResponse.Builder responseBuilder = TransactionsListResponse.newBuilder()
+                    .setSize(page.getTransactions().size())
+                    .setTotalCount((int) page.getTotalCount());
+            for (TransactionResponseDTO dto : page.getTransactions()) {
+                responseBuilder.addTransactions(buildResponse(dto));
+            }
+            if (page.getNextPageToken() != null) {
+                responseBuilder.setNextPageToken(page.getNextPageToken());
+            }
+
+            responseObserver.onNext(responseBuilder.build());
+            responseObserver.onCompleted();
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            responseObserver.onError(Status.INVALID_ARGUMENT
+                    .withDescription("Invalid range request: " + e.getMessage())
+                    .asRuntimeException());
+        } catch (Exception e) {
+            responseObserver.onError(Status.INTERNAL
+                    .withDescription("Error retrieving transactions: " + e.getMessage())
+                    .asRuntimeException());
+        }
+    }
+
+    @Override
+    public void streamTransactions(StreamTransactionsRequest request, StreamObserver<TransactionStreamEntry> responseObserver) {
+        TransactionCursor after;
+        LocalDateTime toTime;
+        try {
+            if (!request.getAfterCursor().isEmpty()) {
+                after = TransactionCursor.decode(request.getAfterCursor());
+                if (!after.isAscending()) {
+                    throw new IllegalArgumentException("Cursor was issued for a newest-first listing");
+                }
+            } else if (!request.getFromTime().isEmpty()) {
+                after = TransactionCursor.before(LocalDateTime.parse(request.getFromTime(), DATE_FORMATTER));
+            } else {
+                after = TransactionCursor.start(true);
+            }
+            toTime = request.getToTime().isEmpty()
+                    ? TransactionCursor.start(false).getTransactionTime()
+                    : LocalDateTime.parse(request.getToTime(), DATE_FORMATTER);
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            responseObserver.onError(Status.INVALID_ARGUMENT
+                    .withDescription("Invalid statement request: " + e.getMessage())
+                    .asRuntimeException());
+            return;
+        }
+
+        new TransactionExportStream(request.getAccountId(), after, toTime,
+                (ServerCallStreamObserver<TransactionStreamEntry>) responseObserver).start();
+    }
+
+    /**
+     * Moves a statement from the database cursor to the client through a bounded queue. The reader
+     * thread walks the cursor and builds messages, blocking once the queue is full; the sender thread
+     * forwards them only while the transport reports the client ready and otherwise waits for
+     * onReady. A slow client therefore stalls the cursor instead of growing memory, while rows keep
+     * being decrypted ahead of the network up to the queue's capacity.
+     */
+    private final class TransactionExportStream {
+        private final String accountNumber;
+        private final TransactionCursor after;
+        private final LocalDateTime toTime;
+        private final ServerCallStreamObserver<TransactionStreamEntry> observer;
+        private final BlockingQueue<TransactionStreamEntry> buffer = new ArrayBlockingQueue<>(EXPORT_BUFFER_SIZE);
+        // Released by onReady and on cancellation to wake the sender
+        private final Semaphore readySignal = new Semaphore(0);
+        private volatile boolean cancelled;
+        private volatile boolean readerDone;
+        private volatile Exception failure;
+
+        private TransactionExportStream(String accountNumber, TransactionCursor after, LocalDateTime toTime,
+                                        ServerCallStreamObserver<TransactionStreamEntry> observer) {
+            this.accountNumber = accountNumber;
+            this.after = after;
+            this.toTime = toTime;
+            this.observer = observer;
+        }
+
+        private void start() {
+            observer.setOnCancelHandler(() -> {
+                cancelled = true;
+                readySignal.release();
+            });
+            observer.setOnReadyHandler(readySignal::release);
+            Thread.ofVirtual().name("transaction-export-reader").start(this::read);
+            Thread.ofVirtual().name("transaction-export-sender").start(this::send);
+        }
+
+        private void read() {
+            try {
+                transactionService.streamTransactions(accountNumber, after, toTime, dto -> enqueue(TransactionStreamEntry.newBuilder()
+                        .setTransaction(buildResponse(dto))
+                        .setCursor(new TransactionCursor(true, dto.getTransactionTime(), dto.getId()).encode())
+                        .build()));
+            } catch (CancellationException e) {
+                // The client went away; the read transaction has been rolled back
+            } catch (Exception e) {
+                failure = e;
+            } finally {
+                readerDone = true;
+                readySignal.release();
+            }
+        }
+
+        private void enqueue(TransactionStreamEntry entry) {
+            try {
+                while (!buffer.offer(entry, EXPORT_POLL_MS, TimeUnit.MILLISECONDS)) {
+                    if (cancelled) {
+                        throw new CancellationException("Statement export cancelled by the client");
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new CancellationException("Statement export interrupted");
+            }
+        }
+
+        private void send() {
+            try {
+                while (!cancelled) {
+                    if (!observer.isReady()) {
+                        readySignal.tryAcquire(EXPORT_POLL_MS, TimeUnit.MILLISECONDS);
+                        continue;
+                    }
+                    // Read the flag first: once the reader is done, whatever it queued is already in the buffer
+                    boolean drained = readerDone;
+                    TransactionStreamEntry entry = buffer.poll(EXPORT_POLL_MS, TimeUnit.MILLISECONDS);
+                    if (entry != null) {
+                        observer.onNext(entry);
+                    } else if (drained) {
+                        if (failure != null) {
+                            observer.onError(Status.INTERNAL
+                                    .withDescription("Error streaming transactions: " + failure.getMessage())
+                                    .asRuntimeException());
+                        } else {
+                            observer.onCompleted();
+                        }
+                        return;
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                cancelled = true;
+            } catch (RuntimeException e) {
+                // The call was closed underneath us; make the reader stop too
+                cancelled = true;
+            }
+        }
+    }
+
+    // Optional fields come back as empty strings rather than failing the whole response
     private TransactionResponse buildResponse(TransactionResponseDTO dto) {
     return TransactionResponse.newBuilder()
             .setTransactionReference(dto.getTransactionReference())
@@ -262,11 +423,11 @@ public class TransactionGrpcServiceImpl extends TransactionServiceGrpc.Transacti
             .setAmount(dto.getAmount().toString())
             .setCurrencyType(String.valueOf(dto.getCurrencyType()))
             .setTransactionType(dto.getTransactionType().toString())
-            .setTransactionStatus(dto.getTransactionType().toString())
-            .setFeeAmount(dto.getFeeAmount().toString())
-            .setFeeCurrency(dto.getFeeCurrencyType().toString())
+            .setTransactionStatus(String.valueOf(dto.getStatus()))
+            .setFeeAmount(dto.getFeeAmount() == null ? "" : dto.getFeeAmount().toString())
+            .setFeeCurrency(dto.getFeeCurrencyType() == null ? "" : dto.getFeeCurrencyType().toString())
             .setTimestamp(dto.getTransactionTime() .format(DATE_FORMATTER))
-            .setDescription(dto.getDescription())
+            .setDescription(dto.getDescription() == null ? "" : dto.getDescription())
             .build();
 }
 }
\ No newline at end of file
@@ -65,9 +65,9 @@ public class AuthInterceptor implements ServerInterceptor {
         // Implement method-specific scope checking
         if (methodName.contains("InternalTransfer") || methodName.contains("ProcessDeposit")) {
             return scope.contains("account:transaction");
-        } else if (methodName.contains("GetTransactionByReference") || methodName.contains("GetTransactionsByAccountId") || methodName.contains("GetTransactionByFromAccount") || methodName.contains("GetTransactionByToAccount")) {
+        } else if (methodName.contains("GetTransactionByReference") || methodName.contains("GetTransactionsByAccountId") || methodName.contains("StreamTransactions") || methodName.contains("GetTransactionByFromAccount") || methodName.contains("GetTransactionByToAccount")) {
             return scope.contains("account:read");
-        } else if (methodName.contains("GetTransactionByTransactionTime")) {
+        } else if (methodName.contains("GetTransactionByTransactionTime") || methodName.contains("GetTransactionsInRange")) {
             return scope.contains("account:admin");
         }
         return false;
@@ -0,0 +1,41 @@
+package com.TransactionService.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Checkpoint of a blind index backfill. Every transaction with an id up to lastTransactionId has
+ * been handled, so an interrupted backfill resumes from there.
+ */
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@Table(name = "blind_index_backfill_runs")
+public class BlindIndexBackfillRun {
+    @Id
+    @Column(name = "name", length = 50)
+    private String name;
+
+    @Column(name = "last_transaction_id", nullable = false)
+    private long lastTransactionId;
+
+    @Column(name = "rows_filled", nullable = false)
+    private long rowsFilled;
+
+    @Column(name = "started_at", nullable = false)
+    private LocalDateTime startedAt;
+
+    // Null while the backfill is incomplete
+    @Column(name = "completed_at")
+    private LocalDateTime completedAt;
+
+    public BlindIndexBackfillRun(String name) {
+        this.name = name;
+        this.startedAt = LocalDateTime.now();
+    }
+}
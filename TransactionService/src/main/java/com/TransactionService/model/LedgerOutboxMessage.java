@@ -0,0 +1,40 @@
+package com.TransactionService.model;
+
+import com.TransactionService.encryptors.StringEncryptor;
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * A ledger message waiting to be published. Rows are written in the same database transaction
+ * as the transaction change they describe and deleted by LedgerOutboxRelay once Kafka has
+ * acknowledged them, so a rolled-back transaction never reaches the ledger.
+ */
+@Entity
+@Getter
+@Setter
+@Table(name = "ledger_outbox",
+        indexes = {
+                // Lets the relay find the oldest unsent message of each key cheaply
+                @Index(name = "idx_ledger_outbox_key", columnList = "message_key, id"),
+        })
+public class LedgerOutboxMessage {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // Kafka record key (the transaction reference); deterministic encryption keeps equal keys comparable
+    @Column(name = "message_key", nullable = false)
+    @Convert(converter = StringEncryptor.class)
+    private String messageKey;
+
+    // LedgerEntryRequest as JSON
+    @Column(name = "payload", nullable = false, columnDefinition = "text")
+    @Convert(converter = StringEncryptor.class)
+    private String payload;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+}
@@ -12,15 +12,19 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
+@EntityListeners(TransactionBlindIndexListener.class)
 @Getter
 @Setter
 @Table(name = "transaction",
         indexes = {
-                @Index(name = "idx_transaction_from_account", columnList = "fromAccount"),
-                @Index(name = "idx_transaction_to_account", columnList = "toAccount"),
-                @Index(name = "idx_transaction_time", columnList = "transactionTime"),
+                // Per-account history is read as a range scan in keyset order, see TransactionRepository
+                @Index(name = "idx_transaction_from_account_hmac_time", columnList = "from_account_hmac, transactionTime, id"),
+                @Index(name = "idx_transaction_to_account_hmac_time", columnList = "to_account_hmac, transactionTime, id"),
+                @Index(name = "idx_transaction_time", columnList = "transactionTime, id"),
                 @Index(name = "idx_transaction_status", columnList = "status"),
-                @Index(name = "idx_transaction_reference", columnList = "transactionReference", unique = true)
+                // Unique together with the partition key, as the partitioned table can only enforce it,
+                // see TransactionPartitionManager; references are checked for reuse when generated
+                @Index(name = "idx_transaction_reference", columnList = "transactionReference, transactionTime", unique = true)
         }
 )
 
@@ -29,7 +33,7 @@ public class Transaction {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @Column(name = "transaction_reference", nullable = false, unique = true, length = 36)
+    @Column(name = "transaction_reference", nullable = false, length = 36)
     @Convert(converter = StringEncryptor.class)
     private String transactionReference;
 
@@ -41,6 +45,13 @@ public class Transaction {
     @Convert(converter = StringEncryptor.class)
     private String toAccount;
 
+    // Blind indexes of the accounts, set by TransactionBlindIndexListener; account lookups go through these
+    @Column(name = "from_account_hmac", length = 16)
+    private byte[] fromAccountHmac;
+
+    @Column(name = "to_account_hmac", length = 16)
+    private byte[] toAccountHmac;
+
     @Column(name = "amount", nullable = false, precision = 19, scale = 4)
     @Convert(converter = BigDecimalEncryptor.class)
     private BigDecimal amount;
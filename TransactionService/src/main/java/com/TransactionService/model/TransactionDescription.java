@@ -8,4 +8,13 @@ public class TransactionDescription {
     public enum TransactionStatus {
         PENDING, PROCESSING, COMPLETED, FAILED, CANCELLED, REVERSED
     }
+
+    // Steps of an internal transfer saga; see TransferSagaOrchestrator
+    public enum SagaState {
+        PENDING, DEBITED, CREDITED, COMPLETED, COMPENSATING, COMPENSATED, FAILED;
+
+        public boolean isTerminal() {
+            return this == COMPLETED || this == COMPENSATED || this == FAILED;
+        }
+    }
 }
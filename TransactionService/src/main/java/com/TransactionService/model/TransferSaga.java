@@ -0,0 +1,58 @@
+package com.TransactionService.model;
+
+import com.TransactionService.encryptors.StringEncryptor;
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Progress of one internal transfer. The state only moves forward and each move is committed
+ * before the next remote call, so after a crash the saga resumes from the last step that is
+ * known to have happened. Remote calls carry idempotency keys derived from the transaction
+ * reference, which makes repeating a step whose outcome was lost safe.
+ */
+@Entity
+@Getter
+@Setter
+@Table(name = "transfer_sagas",
+        indexes = {
+                @Index(name = "idx_transfer_saga_state_next", columnList = "state, next_attempt_at"),
+        })
+public class TransferSaga {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "transaction_id", nullable = false, unique = true)
+    private Long transactionId;
+
+    @Column(name = "transaction_reference", nullable = false)
+    @Convert(converter = StringEncryptor.class)
+    private String transactionReference;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "state", nullable = false, length = 20)
+    private TransactionDescription.SagaState state;
+
+    @Column(name = "attempts", nullable = false)
+    private int attempts;
+
+    @Column(name = "last_error")
+    @Convert(converter = StringEncryptor.class)
+    private String lastError;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "state_changed_at", nullable = false)
+    private LocalDateTime stateChangedAt;
+
+    // The recovery worker leaves the saga alone until then; doubles as the lease of whoever is driving it
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    @Version
+    private Long version;
+}
@@ -0,0 +1,9 @@
+package com.TransactionService.repository;
+
+import com.TransactionService.model.BlindIndexBackfillRun;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface BlindIndexBackfillRunRepository extends JpaRepository<BlindIndexBackfillRun, String> {
+}
@@ -0,0 +1,26 @@
+package com.TransactionService.repository;
+
+import com.TransactionService.model.LedgerOutboxMessage;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface LedgerOutboxRepository extends JpaRepository<LedgerOutboxMessage, Long> {
+    // Oldest messages first, skipping rows another relay holds. A message is only claimed when every
+    // earlier message with its key is gone or claimed in the same batch, where the producer keeps their
+    // order; a key whose earlier message another relay holds waits, so per-transaction order survives
+    // concurrent relays.
+    @Query(value = "WITH claimed AS (SELECT id FROM ledger_outbox ORDER BY id LIMIT :limit FOR UPDATE SKIP LOCKED) " +
+            "SELECT o.* FROM ledger_outbox o JOIN claimed c ON c.id = o.id WHERE NOT EXISTS " +
+            "(SELECT 1 FROM ledger_outbox e WHERE e.message_key = o.message_key AND e.id < o.id " +
+            "AND e.id NOT IN (SELECT id FROM claimed)) " +
+            "ORDER BY o.id", nativeQuery = true)
+    List<LedgerOutboxMessage> claimBatch(@Param("limit") int limit);
+
+    Optional<LedgerOutboxMessage> findFirstByOrderByIdAsc();
+}
@@ -1,17 +1,92 @@
 package com.TransactionService.repository;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import com.TransactionService.model.Transaction;
 
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface TransactionRepository extends JpaRepository<Transaction, Long> {
     Optional<Transaction> findByTransactionReference(String transactionReference);
-    List<Transaction> findByFromAccount(String fromAccount);
-    List<Transaction> findByToAccount(String toAccount);
-    List<Transaction> findByTransactionTime(LocalDateTime transactionTime);
+    List<Transaction> findByFromAccountHmac(byte[] fromAccountHmac);
+    List<Transaction> findByToAccountHmac(byte[] toAccountHmac);
+
+    // Keyset pages over (transactionTime, id) of everything sent from or to an account, which is passed
+    // as its blind index. Each branch is a range scan of its own account index; transfers to self are
+    // only taken from the first branch. Every keyset bound is repeated as a plain bound on
+    // transaction_time: Postgres prunes monthly partitions on that, not on the row comparison.
+    @Query(value = "SELECT * FROM (" +
+            "(SELECT * FROM transaction WHERE from_account_hmac = :account " +
+            "AND transaction_time <= :afterTime AND (transaction_time, id) < (:afterTime, :afterId) ORDER BY transaction_time DESC, id DESC LIMIT :limit) " +
+            "UNION ALL " +
+            "(SELECT * FROM transaction WHERE to_account_hmac = :account AND from_account_hmac <> :account " +
+            "AND transaction_time <= :afterTime AND (transaction_time, id) < (:afterTime, :afterId) ORDER BY transaction_time DESC, id DESC LIMIT :limit)" +
+            ") page ORDER BY transaction_time DESC, id DESC LIMIT :limit", nativeQuery = true)
+    List<Transaction> findAccountPageDescending(@Param("account") byte[] account,
+                                                @Param("afterTime") LocalDateTime afterTime,
+                                                @Param("afterId") long afterId,
+                                                @Param("limit") int limit);
+
+    @Query(value = "SELECT * FROM (" +
+            "(SELECT * FROM transaction WHERE from_account_hmac = :account " +
+            "AND transaction_time >= :afterTime AND (transaction_time, id) > (:afterTime, :afterId) ORDER BY transaction_time, id LIMIT :limit) " +
+            "UNION ALL " +
+            "(SELECT * FROM transaction WHERE to_account_hmac = :account AND from_account_hmac <> :account " +
+            "AND transaction_time >= :afterTime AND (transaction_time, id) > (:afterTime, :afterId) ORDER BY transaction_time, id LIMIT :limit)" +
+            ") page ORDER BY transaction_time, id LIMIT :limit", nativeQuery = true)
+    List<Transaction> findAccountPageAscending(@Param("account") byte[] account,
+                                               @Param("afterTime") LocalDateTime afterTime,
+                                               @Param("afterId") long afterId,
+                                               @Param("limit") int limit);
+
+    // Range queries: the next rows after the keyset position and before toTime, oldest first, over every
+    // account or over one account's blind index
+    @Query(value = "SELECT * FROM transaction WHERE transaction_time >= :afterTime AND transaction_time < :toTime " +
+            "AND (transaction_time, id) > (:afterTime, :afterId) ORDER BY transaction_time, id LIMIT :limit", nativeQuery = true)
+    List<Transaction> findRange(@Param("afterTime") LocalDateTime afterTime,
+                                @Param("afterId") long afterId,
+                                @Param("toTime") LocalDateTime toTime,
+                                @Param("limit") int limit);
+
+    @Query(value = "SELECT * FROM (" +
+            "(SELECT * FROM transaction WHERE from_account_hmac = :account " +
+            "AND transaction_time >= :afterTime AND transaction_time < :toTime " +
+            "AND (transaction_time, id) > (:afterTime, :afterId) ORDER BY transaction_time, id LIMIT :limit) " +
+            "UNION ALL " +
+            "(SELECT * FROM transaction WHERE to_account_hmac = :account AND from_account_hmac <> :account " +
+            "AND transaction_time >= :afterTime AND transaction_time < :toTime " +
+            "AND (transaction_time, id) > (:afterTime, :afterId) ORDER BY transaction_time, id LIMIT :limit)" +
+            ") page ORDER BY transaction_time, id LIMIT :limit", nativeQuery = true)
+    List<Transaction> findAccountRange(@Param("account") byte[] account,
+                                       @Param("afterTime") LocalDateTime afterTime,
+                                       @Param("afterId") long afterId,
+                                       @Param("toTime") LocalDateTime toTime,
+                                       @Param("limit") int limit);
+
+    // Statement export: the account's rows in [after, toTime) oldest first. Without per-branch ORDER BY the
+    // union is flattened and Postgres merges the two index scans instead of sorting; rows arrive in
+    // fetch-size batches from a server-side cursor, so this must run inside a transaction.
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query(value = "SELECT * FROM transaction WHERE from_account_hmac = :account " +
+            "AND transaction_time >= :afterTime AND (transaction_time, id) > (:afterTime, :afterId) AND transaction_time < :toTime " +
+            "UNION ALL " +
+            "SELECT * FROM transaction WHERE to_account_hmac = :account AND from_account_hmac <> :account " +
+            "AND transaction_time >= :afterTime AND (transaction_time, id) > (:afterTime, :afterId) AND transaction_time < :toTime " +
+            "ORDER BY transaction_time, id", nativeQuery = true)
+    Stream<Transaction> streamAccountTransactions(@Param("account") byte[] account,
+                                                  @Param("afterTime") LocalDateTime afterTime,
+                                                  @Param("afterId") long afterId,
+                                                  @Param("toTime") LocalDateTime toTime);
 }
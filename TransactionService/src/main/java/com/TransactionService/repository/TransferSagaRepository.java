@@ -0,0 +1,32 @@
+package com.TransactionService.repository;
+
+import com.TransactionService.model.TransferSaga;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface TransferSagaRepository extends JpaRepository<TransferSaga, Long> {
+    // Unfinished sagas that are due, skipping rows another node is claiming right now
+    @Query(value = "SELECT * FROM transfer_sagas WHERE state IN ('PENDING', 'DEBITED', 'CREDITED', 'COMPENSATING') " +
+            "AND next_attempt_at <= :now ORDER BY next_attempt_at LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<TransferSaga> findDueForUpdate(@Param("now") LocalDateTime now, @Param("limit") int limit);
+
+    // Pushes the lease forward without touching the version, so the claimer's own transitions still apply
+    @Modifying
+    @Query("UPDATE TransferSaga s SET s.nextAttemptAt = :leaseUntil WHERE s.id IN :ids")
+    int extendLease(@Param("ids") List<Long> ids, @Param("leaseUntil") LocalDateTime leaseUntil);
+
+    // Count and oldest state change per unfinished state, for the saga gauges
+    @Query("SELECT s.state, COUNT(s), MIN(s.stateChangedAt) FROM TransferSaga s " +
+            "WHERE s.state IN (com.TransactionService.model.TransactionDescription.SagaState.PENDING, " +
+            "com.TransactionService.model.TransactionDescription.SagaState.DEBITED, " +
+            "com.TransactionService.model.TransactionDescription.SagaState.CREDITED, " +
+            "com.TransactionService.model.TransactionDescription.SagaState.COMPENSATING) GROUP BY s.state")
+    List<Object[]> summarizeInFlight();
+}
@@ -0,0 +1,63 @@
+package com.TransactionService.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+/**
+ * Counts an account's transactions without walking the whole history of a busy account. Up to
+ * the cap the count is exact and stops reading as soon as the cap is passed; beyond it the
+ * planner's row estimate for the same query is returned instead, never below the cap.
+ */
+@Slf4j
+@Service
+public class AccountTransactionCounter {
+    // Same rows as TransactionRepository's account pages; the account is its blind index
+    private static final String ACCOUNT_IDS = "SELECT id FROM transaction WHERE from_account_hmac = ? " +
+            "UNION ALL SELECT id FROM transaction WHERE to_account_hmac = ? AND from_account_hmac <> ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final int exactCap;
+
+    public AccountTransactionCounter(JdbcTemplate jdbcTemplate,
+                                     ObjectMapper objectMapper,
+                                     @Value("${transaction.history.exact-count-cap:10000}") int exactCap) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.exactCap = Math.max(0, exactCap);
+    }
+
+    public Count count(byte[] account) {
+        Long counted = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM (" + ACCOUNT_IDS + " LIMIT ?) capped",
+                Long.class, account, account, account, exactCap + 1);
+        long exact = counted == null ? 0 : counted;
+        if (exact <= exactCap) {
+            return new Count(exact, false);
+        }
+        return new Count(Math.max(exact, estimate(account)), true);
+    }
+
+    private long estimate(byte[] account) {
+        String plan = jdbcTemplate.queryForObject("EXPLAIN (FORMAT JSON) " + ACCOUNT_IDS,
+                String.class, account, account, account);
+        try {
+            return objectMapper.readTree(plan).path(0).path("Plan").path("Plan Rows").asLong(0);
+        } catch (JsonProcessingException e) {
+            log.debug("Could not read the planner estimate: {}", e.getMessage());
+            return 0;
+        }
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class Count {
+        private final long value;
+        private final boolean estimated;
+    }
+}
@@ -8,16 +8,35 @@ import javax.crypto.SecretKey;
 import javax.crypto.spec.GCMParameterSpec;
 import javax.crypto.spec.SecretKeySpec;
 import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.InvalidAlgorithmParameterException;
 import java.security.MessageDigest;
 import java.security.SecureRandom;
 import java.util.Base64;
-
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * AES-GCM field encryption. Stored format is Base64(iv || ciphertext || tag).
+ *
+ * Cipher and MessageDigest instances are pooled rather than kept in ThreadLocals, so virtual
+ * threads share a bounded set of instances instead of each building their own. Ciphertext is
+ * written straight after the IV in a single output array and decrypted in place from the
+ * decoded input, so a round trip allocates no intermediate buffers.
+ */
 @Service
 public class EncryptionService {
 
     private final SecretKey key;
+    private static final String TRANSFORMATION = "AES/GCM/NoPadding";
     private static final int GCM_IV_LENGTH = 12;
     private static final int GCM_TAG_LENGTH = 16;
+    private static final int POOL_SIZE = 64;
+
+    // SecureRandom is thread-safe; sharing one avoids seeding a new instance per call
+    private final SecureRandom secureRandom = new SecureRandom();
+    private final BlockingQueue<Cipher> cipherPool = new ArrayBlockingQueue<>(POOL_SIZE);
+    private final BlockingQueue<MessageDigest> digestPool = new ArrayBlockingQueue<>(POOL_SIZE);
 
     public EncryptionService(@Value("${encryption.key}") String base64Key) {
         byte[] decodedKey = Base64.getDecoder().decode(base64Key);
@@ -25,56 +44,81 @@ public class EncryptionService {
     }
 
     public String encrypt(String data) throws Exception {
-        byte[] iv = new byte[GCM_IV_LENGTH];
-        new SecureRandom().nextBytes(iv);
-
-        Cipher cipher = Cipher.getInstance("AES/GCM/NoPadding");
-        GCMParameterSpec spec = new GCMParameterSpec(GCM_TAG_LENGTH * 8, iv);
-        cipher.init(Cipher.ENCRYPT_MODE, key, spec);
-
-        byte[] encrypted = cipher.doFinal(data.getBytes());
-        byte[] combined = new byte[iv.length + encrypted.length];
-        System.arraycopy(iv, 0, combined, 0, iv.length);
-        System.arraycopy(encrypted, 0, combined, iv.length, encrypted.length);
-
-        return Base64.getEncoder().encodeToString(combined);
+        return Base64.getEncoder().encodeToString(encryptBytes(data.getBytes(StandardCharsets.UTF_8)));
     }
 
     public String encryptDeterministic(String data) throws Exception {
         if (data == null) return null;
 
-        // Generate a deterministic IV from the data
-        MessageDigest md = MessageDigest.getInstance("SHA-256");
-        byte[] hash = md.digest(data.getBytes(StandardCharsets.UTF_8));
-        byte[] iv = new byte[GCM_IV_LENGTH];
-        System.arraycopy(hash, 0, iv, 0, GCM_IV_LENGTH);
-
-        Cipher cipher = Cipher.getInstance("AES/GCM/NoPadding");
-        GCMParameterSpec spec = new GCMParameterSpec(GCM_TAG_LENGTH * 8, iv);
-        cipher.init(Cipher.ENCRYPT_MODE, key, spec);
+        byte[] plaintext = data.getBytes(StandardCharsets.UTF_8);
 
-        byte[] encrypted = cipher.doFinal(data.getBytes());
-        byte[] combined = new byte[iv.length + encrypted.length];
-        System.arraycopy(iv, 0, combined, 0, iv.length);
-        System.arraycopy(encrypted, 0, combined, iv.length, encrypted.length);
-
-        return Base64.getEncoder().encodeToString(combined);
+        // Generate a deterministic IV from the data
+        MessageDigest md = borrowDigest();
+        byte[] hash;
+        try {
+            hash = md.digest(plaintext);
+        } finally {
+            digestPool.offer(md);
+        }
+
+        return Base64.getEncoder().encodeToString(seal(plaintext, hash));
     }
+
     public String decrypt(String encryptedData) throws Exception {
-        byte[] combined = Base64.getDecoder().decode(encryptedData);
+        return new String(decryptBytes(Base64.getDecoder().decode(encryptedData)), StandardCharsets.UTF_8);
+    }
 
+    /**
+     * Encrypts raw bytes with a random IV, returning iv || ciphertext || tag.
+     */
+    public byte[] encryptBytes(byte[] plaintext) throws GeneralSecurityException {
         byte[] iv = new byte[GCM_IV_LENGTH];
-        System.arraycopy(combined, 0, iv, 0, iv.length);
+        secureRandom.nextBytes(iv);
+        return seal(plaintext, iv);
+    }
 
-        byte[] encrypted = new byte[combined.length - GCM_IV_LENGTH];
-        System.arraycopy(combined, GCM_IV_LENGTH, encrypted, 0, encrypted.length);
+    public byte[] decryptBytes(byte[] combined) throws GeneralSecurityException {
+        Cipher cipher = borrowCipher();
+        try {
+            cipher.init(Cipher.DECRYPT_MODE, key, new GCMParameterSpec(GCM_TAG_LENGTH * 8, combined, 0, GCM_IV_LENGTH));
+            return cipher.doFinal(combined, GCM_IV_LENGTH, combined.length - GCM_IV_LENGTH);
+        } finally {
+            cipherPool.offer(cipher);
+        }
+    }
 
-        Cipher cipher = Cipher.getInstance("AES/GCM/NoPadding");
-        GCMParameterSpec spec = new GCMParameterSpec(GCM_TAG_LENGTH * 8, iv);
-        cipher.init(Cipher.DECRYPT_MODE, key, spec);
+    // ivSource may be longer than the IV (e.g. a digest); only the first GCM_IV_LENGTH bytes are used
+    private byte[] seal(byte[] plaintext, byte[] ivSource) throws GeneralSecurityException {
+        GCMParameterSpec spec = new GCMParameterSpec(GCM_TAG_LENGTH * 8, ivSource, 0, GCM_IV_LENGTH);
+        Cipher cipher = borrowCipher();
+        try {
+            try {
+                cipher.init(Cipher.ENCRYPT_MODE, key, spec);
+            } catch (InvalidAlgorithmParameterException e) {
+                // The provider refuses to encrypt twice in a row with the same IV on one instance,
+                // which deterministic encryption of a repeated value does. Clear it with a throwaway IV.
+                byte[] throwaway = new byte[GCM_IV_LENGTH];
+                secureRandom.nextBytes(throwaway);
+                cipher.init(Cipher.ENCRYPT_MODE, key, new GCMParameterSpec(GCM_TAG_LENGTH * 8, throwaway));
+                cipher.init(Cipher.ENCRYPT_MODE, key, spec);
+            }
+
+            byte[] combined = new byte[GCM_IV_LENGTH + cipher.getOutputSize(plaintext.length)];
+            System.arraycopy(ivSource, 0, combined, 0, GCM_IV_LENGTH);
+            cipher.doFinal(plaintext, 0, plaintext.length, combined, GCM_IV_LENGTH);
+            return combined;
+        } finally {
+            cipherPool.offer(cipher);
+        }
+    }
 
-        byte[] decrypted = cipher.doFinal(encrypted);
+    private Cipher borrowCipher() throws GeneralSecurityException {
+        Cipher cipher = cipherPool.poll();
+        return cipher != null ? cipher : Cipher.getInstance(TRANSFORMATION);
+    }
 
-        return new String(decrypted);
+    private MessageDigest borrowDigest() throws GeneralSecurityException {
+        MessageDigest md = digestPool.poll();
+        return md != null ? md : MessageDigest.getInstance("SHA-256");
     }
 }
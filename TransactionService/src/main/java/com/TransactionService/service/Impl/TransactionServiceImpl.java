@@ -2,9 +2,11 @@ package com.TransactionService.service.Impl;
 
 import com.AccountService.grpc.CreditResponse;
 import com.AccountService.grpc.CurrencyType;
-import com.AccountService.grpc.DebitResponse;
-import com.TransactionService.dto.LedgerEntryRequest;
-import com.TransactionService.service.LedgerKafkaProducer;
+import com.TransactionService.dto.TransactionPage;
+import com.TransactionService.dto.TransactionRangeQuery;
+import com.TransactionService.service.AccountTransactionCounter;
+import com.TransactionService.service.BlindIndexService;
+import com.TransactionService.service.TransferSagaOrchestrator;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import com.TransactionService.client.AccountServiceClient;
@@ -16,15 +18,30 @@ import com.TransactionService.model.TransactionDescription;
 import com.TransactionService.repository.TransactionRepository;
 import com.TransactionService.service.TransactionMapper;
 import com.TransactionService.service.TransactionService;
+import com.TransactionService.util.TransactionCursor;
 import com.TransactionService.util.TransactionNumberGenerator;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
 public class TransactionServiceImpl implements TransactionService, TransactionMapper {
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int MAX_PAGE_SIZE = 500;
+    // Rows a filtered range page may read before returning what it has; status and type are
+    // encrypted with random IVs, so they can only be matched after decryption
+    private static final int MAX_RANGE_SCAN = 5000;
+    private static final Set<String> TIME_SORT_KEYS = Set.of("", "transaction_time", "transactionTime", "timestamp");
+
     @Autowired
     private AccountServiceClient accountServiceClient;
 
@@ -32,64 +49,36 @@ public class TransactionServiceImpl implements TransactionService, TransactionMa
     private TransactionRepository transactionRepository;
 
     @Autowired
-    private LedgerKafkaProducer ledgerKafkaProducer;
+    private TransferSagaOrchestrator transferSagaOrchestrator;
 
-    @Transactional
+    @Autowired
+    private BlindIndexService blindIndexService;
+
+    @Autowired
+    private AccountTransactionCounter accountTransactionCounter;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    // Not transactional: each saga step commits on its own so no transaction spans a call to AccountService
     public TransactionResponseDTO internalTransfer(TransactionRequestDTO request) throws IneligibleAccountException, InsufficientFundsException {
         Transaction transaction = toModel(request);
         transaction.setStatus(TransactionDescription.TransactionStatus.PENDING);
         transaction.setTransactionReference(generateTransactionReference(transaction.getTransactionType()));
-        transactionRepository.save(transaction);
-
-        try {
-            String fromAccountNumber = request.getFromAccount();
-            String toAccountNumber = request.getToAccount();
-            BigDecimal amount = request.getAmount();
-            CurrencyType currencyType = request.getCurrencyType();
-
-            DebitResponse debitResponse = accountServiceClient.debitAccount(fromAccountNumber, amount, currencyType);
-            LedgerEntryRequest debitEntryRequest = LedgerEntryRequest.builder()
-                    .accountNumber(fromAccountNumber)
-                    .amount(amount)
-                    .currencyType(currencyType.toString())
-                    .type("DEBIT")
-                    .transactionId(transaction.getTransactionReference())
-                    .build();
-
-            ledgerKafkaProducer.sendLedgerEntryRequest(debitEntryRequest);
-
-            CreditResponse creditResponse = accountServiceClient.creditAccount(toAccountNumber, amount, currencyType);
-            LedgerEntryRequest creditEntryRequest = LedgerEntryRequest.builder()
-                    .accountNumber(fromAccountNumber)
-                    .amount(amount)
-                    .currencyType(currencyType.toString())
-                    .type("CREDIT")
-                    .transactionId(transaction.getTransactionReference())
-                    .build();
 
-            ledgerKafkaProducer.sendLedgerEntryRequest(creditEntryRequest);
-
-            transaction.setStatus(TransactionDescription.TransactionStatus.COMPLETED);
-            transaction.setDebitBalanceAfterTransaction(new BigDecimal(debitResponse.getNewBalance()));
-            transaction.setCreditBalanceAfterTransaction(new BigDecimal(creditResponse.getNewBalance()));
-
-            transactionRepository.save(transaction);
-            return toResponseDTO(transaction);
-
-        } catch(IneligibleAccountException e) {
-            transaction.setStatus(TransactionDescription.TransactionStatus.FAILED);
-            transactionRepository.save(transaction);
+        // A transfer whose outcome is still unknown comes back PENDING or PROCESSING and is finished by recovery
+        TransferSagaOrchestrator.Outcome outcome = transferSagaOrchestrator.start(transaction);
+        Exception rejection = outcome.getRejection();
+        if (rejection instanceof IneligibleAccountException e) {
             throw e;
-
-        } catch(InsufficientFundsException e) {
-            transaction.setStatus(TransactionDescription.TransactionStatus.FAILED);
-            transaction.setRejectionReason(e.getMessage());
-            transactionRepository.save(transaction);
+        }
+        if (rejection instanceof InsufficientFundsException e) {
             throw e;
-
-        } catch (Exception e) {
-            throw new RuntimeException("Deposit failed: " + e.getMessage(), e);
         }
+        if (rejection != null) {
+            throw new RuntimeException("Transfer rejected: " + rejection.getMessage(), rejection);
+        }
+        return toResponseDTO(outcome.getTransaction());
     }
 
     @Transactional
@@ -113,7 +102,8 @@ public class TransactionServiceImpl implements TransactionService, TransactionMa
             CreditResponse creditResponse = accountServiceClient.creditAccount(
                     toAccountNumber,
                     amount,
-                    currencyType
+                    currencyType,
+                    transaction.getTransactionReference() + ":credit"
             );
 
             transaction.setStatus(TransactionDescription.TransactionStatus.COMPLETED);
@@ -143,7 +133,7 @@ public class TransactionServiceImpl implements TransactionService, TransactionMa
 
     @Override
     public List<TransactionResponseDTO> getTransactionsByFromAccount(String fromAccount) {
-        List<Transaction> transactions = transactionRepository.findByFromAccount(fromAccount);
+        List<Transaction> transactions = transactionRepository.findByFromAccountHmac(accountIndex(fromAccount));
 
         return transactions.stream()
                 .map(this::toResponseDTO)
@@ -152,24 +142,158 @@ public class TransactionServiceImpl implements TransactionService, TransactionMa
 
     @Override
     public List<TransactionResponseDTO> getTransactionsByToAccount(String toAccount) {
-        List<Transaction> transactions = transactionRepository.findByToAccount(toAccount);
+        List<Transaction> transactions = transactionRepository.findByToAccountHmac(accountIndex(toAccount));
 
         return transactions.stream()
                 .map(this::toResponseDTO)
                 .toList();
     }
 
+    /**
+     * Keyset page of the account's transactions, sent or received, ordered by (transactionTime, id).
+     * The page token is the TransactionCursor of the last row.
+     */
     @Override
-    public List<TransactionResponseDTO> getTransactionByTransactionTime(LocalDateTime transactionTime) {
-        List<Transaction> transactions = transactionRepository.findByTransactionTime(transactionTime);
+    public TransactionPage getTransactionsByAccount(String accountNumber, String sortBy, boolean ascending,
+                                                    String pageToken, int size) {
+        if (!TIME_SORT_KEYS.contains(sortBy)) {
+            throw new IllegalArgumentException("Transactions can only be sorted by transaction_time");
+        }
+        int pageSize = size <= 0 ? DEFAULT_PAGE_SIZE : Math.min(size, MAX_PAGE_SIZE);
 
-        return transactions.stream()
-                .map(this::toResponseDTO)
-                .toList();
+        TransactionCursor after = pageToken.isEmpty() ? TransactionCursor.start(ascending) : TransactionCursor.decode(pageToken);
+        if (after.isAscending() != ascending) {
+            throw new IllegalArgumentException("Page token was issued for the other sort direction");
+        }
+
+        byte[] account = accountIndex(accountNumber);
+        // One row past the page tells whether another page follows
+        List<Transaction> rows = ascending
+                ? transactionRepository.findAccountPageAscending(account, after.getTransactionTime(), after.getId(), pageSize + 1)
+                : transactionRepository.findAccountPageDescending(account, after.getTransactionTime(), after.getId(), pageSize + 1);
+
+        String nextPageToken = null;
+        if (rows.size() > pageSize) {
+            rows = rows.subList(0, pageSize);
+            Transaction last = rows.get(pageSize - 1);
+            nextPageToken = new TransactionCursor(ascending, last.getTransactionTime(), last.getId()).encode();
+        }
+
+        AccountTransactionCounter.Count total = accountTransactionCounter.count(account);
+        return new TransactionPage(rows.stream().map(this::toResponseDTO).toList(), nextPageToken,
+                total.getValue(), total.isEstimated());
+    }
+
+    /**
+     * Hands the account's transactions in [after, toTime) to the consumer oldest first, reading
+     * them through a database cursor so memory stays flat however long the history is. The
+     * consumer runs inside the read transaction; blocking in it holds the cursor where it is.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public void streamTransactions(String accountNumber, TransactionCursor after, LocalDateTime toTime,
+                                   Consumer<TransactionResponseDTO> consumer) {
+        try (Stream<Transaction> rows = transactionRepository.streamAccountTransactions(accountIndex(accountNumber),
+                after.getTransactionTime(), after.getId(), toTime)) {
+            rows.forEach(transaction -> {
+                TransactionResponseDTO dto = toResponseDTO(transaction);
+                // Otherwise the persistence context would keep every row of the statement
+                entityManager.detach(transaction);
+                consumer.accept(dto);
+            });
+        }
+    }
+
+    // Accounts are matched through their blind indexes, never through the ciphertext
+    private byte[] accountIndex(String accountNumber) {
+        return blindIndexService.hash(accountNumber);
+    }
+
+    /**
+     * Keyset page of the transactions in [fromTime, toTime), oldest first. The time bounds and the
+     * account narrow the scan in the database; status and type are matched on the decrypted rows,
+     * so a filtered page stops after MAX_RANGE_SCAN rows and may hold fewer than size transactions,
+     * or none, while a next page token is still returned. totalCount is the size of the page:
+     * ranges are not counted.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public TransactionPage getTransactionsInRange(TransactionRangeQuery query) {
+        if (query.getFromTime() == null || query.getToTime() == null || !query.getFromTime().isBefore(query.getToTime())) {
+            throw new IllegalArgumentException("A range needs a from time before its to time");
+        }
+        int pageSize = query.getSize() <= 0 ? DEFAULT_PAGE_SIZE : Math.min(query.getSize(), MAX_PAGE_SIZE);
+        boolean filtered = query.getStatus() != null || query.getTransactionType() != null;
+        byte[] account = query.getAccountNumber() == null || query.getAccountNumber().isEmpty()
+                ? null : accountIndex(query.getAccountNumber());
+
+        TransactionCursor after = query.getPageToken() == null || query.getPageToken().isEmpty()
+                ? TransactionCursor.before(query.getFromTime()) : TransactionCursor.decode(query.getPageToken());
+        if (!after.isAscending() || after.getTransactionTime().isBefore(query.getFromTime())) {
+            throw new IllegalArgumentException("Page token was not issued for this range");
+        }
+
+        List<TransactionResponseDTO> matches = new ArrayList<>();
+        int scanned = 0;
+        boolean exhausted = false;
+        while (matches.size() < pageSize && scanned < MAX_RANGE_SCAN) {
+            int limit = filtered ? Math.min(MAX_PAGE_SIZE, MAX_RANGE_SCAN - scanned) : pageSize - matches.size();
+            List<Transaction> rows = account == null
+                    ? transactionRepository.findRange(after.getTransactionTime(), after.getId(), query.getToTime(), limit)
+                    : transactionRepository.findAccountRange(account, after.getTransactionTime(), after.getId(), query.getToTime(), limit);
+
+            int read = 0;
+            for (Transaction transaction : rows) {
+                after = new TransactionCursor(true, transaction.getTransactionTime(), transaction.getId());
+                scanned++;
+                read++;
+                if ((query.getStatus() == null || query.getStatus() == transaction.getStatus())
+                        && (query.getTransactionType() == null || query.getTransactionType() == transaction.getTransactionType())) {
+                    matches.add(toResponseDTO(transaction));
+                    if (matches.size() == pageSize) {
+                        break;
+                    }
+                }
+            }
+            // Rows of a filtered scan are only needed until they are matched
+            entityManager.clear();
+            if (rows.size() < limit && read == rows.size()) {
+                exhausted = true;
+                break;
+            }
+        }
+
+        return new TransactionPage(matches, exhausted ? null : after.encode(), matches.size(), false);
+    }
+
+    // Every transaction recorded within the second of the given time, following the range pages to the end
+    @Override
+    @Transactional(readOnly = true)
+    public List<TransactionResponseDTO> getTransactionByTransactionTime(LocalDateTime transactionTime) {
+        LocalDateTime second = transactionTime.truncatedTo(ChronoUnit.SECONDS);
+        List<TransactionResponseDTO> transactions = new ArrayList<>();
+        String pageToken = null;
+        do {
+            TransactionPage page = getTransactionsInRange(TransactionRangeQuery.builder()
+                    .fromTime(second)
+                    .toTime(second.plusSeconds(1))
+                    .size(MAX_PAGE_SIZE)
+                    .pageToken(pageToken)
+                    .build());
+            transactions.addAll(page.getTransactions());
+            pageToken = page.getNextPageToken();
+        } while (pageToken != null);
+        return transactions;
     }
 
+    // The unique key only covers (reference, transaction time) so it can carry over to the partitioned
+    // table, which leaves a repeated reference at another time to this check
     private String generateTransactionReference(TransactionDescription.TransactionType transactionType) {
-        return TransactionNumberGenerator.generate(transactionType);
+        String reference;
+        do {
+            reference = TransactionNumberGenerator.generate(transactionType);
+        } while (transactionRepository.findByTransactionReference(reference).isPresent());
+        return reference;
     }
 
     @Override
@@ -1,33 +1,84 @@
 package com.TransactionService.service;
 
 import com.TransactionService.dto.LedgerEntryRequest;
-import lombok.RequiredArgsConstructor;
+import com.TransactionService.model.LedgerOutboxMessage;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.KafkaException;
 import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Publishes ledger messages taken from the outbox. Only LedgerOutboxRelay calls this; request
+ * threads write to the outbox through LedgerOutbox and never wait on Kafka.
+ */
 @Service
-@RequiredArgsConstructor
 @Slf4j
 public class LedgerKafkaProducer {
 
     private final KafkaTemplate<String, Object> kafkaTemplate;
-    
+    private final ObjectMapper objectMapper;
+    private final long sendTimeoutMs;
+
     // This topic must match the topic your Ledger Service is listening to
     private static final String LEDGER_REQUEST_TOPIC = "external-ledger-requests";
-    
-    public void sendLedgerEntryRequest(LedgerEntryRequest request) {
-        log.info("Sending ledger entry request to Kafka: {}", request);
-        
-        // Using transactionId as the message key for partitioning
-        kafkaTemplate.send(LEDGER_REQUEST_TOPIC, request.getTransactionId(), request)
-                .whenComplete((result, ex) -> {
-                    if (ex == null) {
-                        log.info("Successfully sent ledger request for transaction: {}", request.getTransactionId());
-                    } else {
-                        log.error("Failed to send ledger request", ex);
-                    }
-                });
 
+    public LedgerKafkaProducer(KafkaTemplate<String, Object> kafkaTemplate,
+                               ObjectMapper objectMapper,
+                               @Value("${transaction.outbox.send-timeout-ms:30000}") long sendTimeoutMs) {
+        this.kafkaTemplate = kafkaTemplate;
+        this.objectMapper = objectMapper;
+        this.sendTimeoutMs = sendTimeoutMs;
+    }
+
+    /**
+     * Sends the messages in order and returns once Kafka has acknowledged all of them. Records
+     * with the same key (transaction reference) go to the same partition in send order. Throws
+     * if any send fails, in which case the whole batch is sent again later; ledger consumers
+     * already de-duplicate on transaction id and entry type.
+     */
+    public void publish(List<LedgerOutboxMessage> messages) {
+        List<CompletableFuture<SendResult<String, Object>>> sends = new ArrayList<>(messages.size());
+        for (LedgerOutboxMessage message : messages) {
+            sends.add(kafkaTemplate.send(LEDGER_REQUEST_TOPIC, message.getMessageKey(), read(message.getPayload())));
+        }
+
+        // No flush: the producer's linger packs the tail of the batch with whatever comes next
+        try {
+            CompletableFuture.allOf(sends.toArray(new CompletableFuture[0])).get(sendTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new KafkaException("Interrupted while waiting for ledger acknowledgements", e);
+        } catch (ExecutionException | TimeoutException e) {
+            throw new KafkaException("Publishing " + messages.size() + " ledger messages failed", e);
+        }
+        log.debug("Published {} ledger messages", messages.size());
+    }
+
+    public String write(LedgerEntryRequest request) {
+        try {
+            return objectMapper.writeValueAsString(request);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Ledger entry cannot be serialized", e);
+        }
+    }
+
+    // Sent as the request object, not the stored string, so the record value keeps its existing format
+    private LedgerEntryRequest read(String payload) {
+        try {
+            return objectMapper.readValue(payload, LedgerEntryRequest.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Stored ledger message is not a ledger entry", e);
+        }
     }
-}
\ No newline at end of file
+}
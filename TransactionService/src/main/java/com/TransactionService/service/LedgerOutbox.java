@@ -0,0 +1,31 @@
+package com.TransactionService.service;
+
+import com.TransactionService.dto.LedgerEntryRequest;
+import com.TransactionService.model.LedgerOutboxMessage;
+import com.TransactionService.repository.LedgerOutboxRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+/**
+ * Queues ledger messages for LedgerOutboxRelay. Must run inside the caller's transaction, so the
+ * message is committed or rolled back together with the change it describes.
+ */
+@Service
+@RequiredArgsConstructor
+public class LedgerOutbox {
+    private final LedgerOutboxRepository outboxRepository;
+    private final LedgerKafkaProducer ledgerKafkaProducer;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enqueue(LedgerEntryRequest request) {
+        LedgerOutboxMessage message = new LedgerOutboxMessage();
+        message.setMessageKey(request.getTransactionId());
+        message.setPayload(ledgerKafkaProducer.write(request));
+        message.setCreatedAt(LocalDateTime.now());
+        outboxRepository.save(message);
+    }
+}
@@ -0,0 +1,116 @@
+package com.TransactionService.service;
+
+import com.TransactionService.model.LedgerOutboxMessage;
+import com.TransactionService.repository.LedgerOutboxRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Drains the ledger outbox to Kafka in large batches.
+ *
+ * Each batch is claimed with SELECT ... FOR UPDATE SKIP LOCKED, published, and deleted in one
+ * transaction that commits only after Kafka acknowledged every message. Several nodes can relay
+ * at once without double-sending a live batch; a node dying mid-batch leaves its rows to be sent
+ * again (at least once). A message is claimed only when every earlier message with the same key
+ * is gone or claimed in the same batch, which the producer sends in id order; a key whose earlier
+ * message another relay holds waits for it, so a transaction's entries always reach Kafka in the
+ * order they were written.
+ *
+ * Metrics: transaction.outbox.pending (rows left after the last run), transaction.outbox.lag
+ * (age of the oldest unsent message), transaction.outbox.published, transaction.outbox.failures
+ * and the transaction.outbox.batch timer.
+ */
+@Slf4j
+@Service
+public class LedgerOutboxRelay {
+    private final LedgerOutboxRepository outboxRepository;
+    private final LedgerKafkaProducer ledgerKafkaProducer;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+    private final Timer batchTimer;
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final int batchSize;
+
+    private volatile long pending;
+    private volatile LocalDateTime oldestCreatedAt;
+
+    public LedgerOutboxRelay(LedgerOutboxRepository outboxRepository,
+                             LedgerKafkaProducer ledgerKafkaProducer,
+                             TransactionTemplate transactionTemplate,
+                             MeterRegistry meterRegistry,
+                             @Value("${transaction.outbox.batch-size:500}") int batchSize) {
+        this.outboxRepository = outboxRepository;
+        this.ledgerKafkaProducer = ledgerKafkaProducer;
+        this.transactionTemplate = transactionTemplate;
+        this.meterRegistry = meterRegistry;
+        this.batchSize = Math.max(1, batchSize);
+        this.batchTimer = Timer.builder("transaction.outbox.batch")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+
+        Gauge.builder("transaction.outbox.pending", this, relay -> relay.pending)
+                .register(meterRegistry);
+        Gauge.builder("transaction.outbox.lag", this, LedgerOutboxRelay::lagSeconds)
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${transaction.outbox.poll-interval-ms:200}")
+    public void relay() {
+        if (!running.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            // Full batches mean more is waiting, so keep going until one comes back short
+            int sent;
+            do {
+                sent = batchTimer.record(() -> transactionTemplate.execute(status -> relayBatch()));
+                meterRegistry.counter("transaction.outbox.published").increment(sent);
+            } while (sent == batchSize);
+        } catch (RuntimeException e) {
+            // The batch rolled back and stays in the table for the next run
+            meterRegistry.counter("transaction.outbox.failures").increment();
+            log.warn("Ledger outbox relay failed, retrying on the next run: {}", e.getMessage());
+        } finally {
+            refreshLag();
+            running.set(false);
+        }
+    }
+
+    private int relayBatch() {
+        List<LedgerOutboxMessage> batch = outboxRepository.claimBatch(batchSize);
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        ledgerKafkaProducer.publish(batch);
+        outboxRepository.deleteAllByIdInBatch(batch.stream().map(LedgerOutboxMessage::getId).toList());
+        return batch.size();
+    }
+
+    private void refreshLag() {
+        try {
+            pending = outboxRepository.count();
+            oldestCreatedAt = outboxRepository.findFirstByOrderByIdAsc()
+                    .map(LedgerOutboxMessage::getCreatedAt)
+                    .orElse(null);
+        } catch (RuntimeException e) {
+            log.debug("Could not read ledger outbox lag: {}", e.getMessage());
+        }
+    }
+
+    private double lagSeconds() {
+        LocalDateTime oldest = oldestCreatedAt;
+        return oldest == null ? 0 : Math.max(0, Duration.between(oldest, LocalDateTime.now()).toMillis() / 1000.0);
+    }
+}
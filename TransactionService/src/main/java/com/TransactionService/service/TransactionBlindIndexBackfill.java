@@ -0,0 +1,144 @@
+package com.TransactionService.service;
+
+import com.TransactionService.model.BlindIndexBackfillRun;
+import com.TransactionService.repository.BlindIndexBackfillRunRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Fills the account blind indexes of transactions written before the columns existed. Walks the
+ * table in id order up to the highest id present at startup (newer rows get their indexes from
+ * TransactionBlindIndexListener); each batch is written with plain JDBC, so row versions are not
+ * bumped, and commits together with the checkpoint, so a restart resumes after the last committed
+ * batch instead of starting over.
+ *
+ * Runs in the background once the application is ready. Until it completes, transactions older
+ * than the index columns are missing from account histories and statements; progress is published
+ * as transaction.index.backfill.remaining.
+ */
+@Slf4j
+@Service
+public class TransactionBlindIndexBackfill {
+    static final String RUN_NAME = "transaction-account-hmac";
+    private static final String SELECT_SQL = "SELECT id, from_account, to_account FROM transaction WHERE id > ? AND id <= ? " +
+            "AND (from_account_hmac IS NULL OR to_account_hmac IS NULL) ORDER BY id LIMIT ?";
+    private static final String UPDATE_SQL = "UPDATE transaction SET from_account_hmac = ?, to_account_hmac = ? WHERE id = ?";
+
+    private final BlindIndexBackfillRunRepository runRepository;
+    private final EncryptionService encryptionService;
+    private final BlindIndexService blindIndexService;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    private volatile boolean stopping;
+    private volatile long remaining;
+
+    @Value("${transaction.blind-index.backfill-enabled:true}")
+    private boolean enabled;
+
+    @Value("${transaction.blind-index.backfill-batch-size:1000}")
+    private int batchSize;
+
+    public TransactionBlindIndexBackfill(BlindIndexBackfillRunRepository runRepository,
+                                         EncryptionService encryptionService,
+                                         BlindIndexService blindIndexService,
+                                         JdbcTemplate jdbcTemplate,
+                                         TransactionTemplate transactionTemplate,
+                                         MeterRegistry meterRegistry) {
+        this.runRepository = runRepository;
+        this.encryptionService = encryptionService;
+        this.blindIndexService = blindIndexService;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+
+        Gauge.builder("transaction.index.backfill.remaining", this, backfill -> backfill.remaining)
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        BlindIndexBackfillRun existing = runRepository.findById(RUN_NAME).orElse(null);
+        if (existing != null && existing.getCompletedAt() != null) {
+            return;
+        }
+        Thread.ofVirtual().name("transaction-index-backfill").start(this::run);
+    }
+
+    @PreDestroy
+    public void stop() {
+        stopping = true;
+    }
+
+    private void run() {
+        try {
+            Long highest = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM transaction", Long.class);
+            long maxId = highest == null ? 0 : highest;
+            BlindIndexBackfillRun run = runRepository.findById(RUN_NAME).orElseGet(() -> new BlindIndexBackfillRun(RUN_NAME));
+            long filledBefore = run.getRowsFilled();
+            log.info("Backfilling transaction blind indexes after id {} up to id {}", run.getLastTransactionId(), maxId);
+
+            while (!stopping && run.getLastTransactionId() < maxId) {
+                Integer scanned = transactionTemplate.execute(status -> fillBatch(run, maxId));
+                remaining = Math.max(0, maxId - run.getLastTransactionId());
+                if (scanned == null || scanned == 0) {
+                    // Nothing without an index is left up to maxId
+                    break;
+                }
+            }
+
+            if (!stopping) {
+                run.setCompletedAt(LocalDateTime.now());
+                runRepository.save(run);
+                remaining = 0;
+                log.info("Transaction blind index backfill complete, {} rows filled in this run",
+                        run.getRowsFilled() - filledBefore);
+            }
+        } catch (RuntimeException e) {
+            log.error("Transaction blind index backfill stopped; it resumes from its checkpoint on the next start", e);
+        }
+    }
+
+    // Fills one batch and moves the checkpoint past it, in the caller's transaction; returns the rows read
+    private int fillBatch(BlindIndexBackfillRun run, long maxId) {
+        List<Object[]> updates = new ArrayList<>();
+        long[] lastId = {run.getLastTransactionId()};
+        int[] scanned = {0};
+        jdbcTemplate.query(SELECT_SQL, rs -> {
+            long id = rs.getLong("id");
+            lastId[0] = id;
+            scanned[0]++;
+            try {
+                updates.add(new Object[]{
+                        blindIndexService.hash(encryptionService.decrypt(rs.getString("from_account"))),
+                        blindIndexService.hash(encryptionService.decrypt(rs.getString("to_account"))),
+                        id});
+            } catch (Exception e) {
+                // Left without an index rather than stalling the backfill on one unreadable row
+                log.warn("Could not index accounts of transaction {}: {}", id, e.getMessage());
+            }
+        }, run.getLastTransactionId(), maxId, batchSize);
+
+        if (!updates.isEmpty()) {
+            jdbcTemplate.batchUpdate(UPDATE_SQL, updates);
+        }
+        run.setLastTransactionId(lastId[0]);
+        run.setRowsFilled(run.getRowsFilled() + updates.size());
+        runRepository.save(run);
+        return scanned[0];
+    }
+}
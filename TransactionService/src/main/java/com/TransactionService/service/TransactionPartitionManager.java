@@ -0,0 +1,115 @@
+package com.TransactionService.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.YearMonth;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Keeps monthly partitions of the transaction table created ahead of time, once the table has been
+ * converted to a table partitioned by range of transaction_time. Time-bounded queries in
+ * TransactionRepository then only touch the partitions of the months they cover. Hibernate's
+ * ddl-auto cannot create a partitioned table, so the conversion is done once by hand; until then
+ * this does nothing but log that the table is not partitioned.
+ *
+ * Conversion (Postgres; the primary key and the reference's unique constraint must include the
+ * partition key, and the id keeps coming from a sequence because partitioned tables only take
+ * identity columns from Postgres 17):
+ * <pre>
+ * CREATE TABLE transaction_partitioned (LIKE transaction INCLUDING DEFAULTS) PARTITION BY RANGE (transaction_time);
+ * ALTER TABLE transaction_partitioned ADD PRIMARY KEY (id, transaction_time);
+ * ALTER TABLE transaction_partitioned ADD UNIQUE (transaction_reference, transaction_time);
+ * CREATE INDEX ON transaction_partitioned (from_account_hmac, transaction_time, id);
+ * CREATE INDEX ON transaction_partitioned (to_account_hmac, transaction_time, id);
+ * CREATE INDEX ON transaction_partitioned (transaction_time, id);
+ * CREATE INDEX ON transaction_partitioned (status);
+ * -- one partition per month from the oldest transaction to this month, named as below:
+ * CREATE TABLE transaction_y2024m01 PARTITION OF transaction_partitioned
+ *     FOR VALUES FROM ('2024-01-01') TO ('2024-02-01');
+ * -- copy in id batches while writes continue, then stop writers and copy the rest:
+ * INSERT INTO transaction_partitioned SELECT * FROM transaction WHERE id > :last AND id <= :next;
+ * CREATE SEQUENCE transaction_partitioned_id_seq OWNED BY transaction_partitioned.id;
+ * SELECT setval('transaction_partitioned_id_seq', (SELECT MAX(id) FROM transaction));
+ * ALTER TABLE transaction_partitioned ALTER id SET DEFAULT nextval('transaction_partitioned_id_seq');
+ * ALTER TABLE transaction RENAME TO transaction_unpartitioned;
+ * ALTER TABLE transaction_partitioned RENAME TO transaction;
+ * </pre>
+ * The entity declares the same indexes and unique key, so both tables are read the same way.
+ * The database only enforces uniqueness of references per transaction time, on either table, so
+ * TransactionServiceImpl looks a generated reference up before using it. Lookups by id or
+ * reference alone probe every partition.
+ */
+@Slf4j
+@Service
+public class TransactionPartitionManager {
+    private static final String PARTITIONED_SQL = "SELECT COUNT(*) FROM pg_partitioned_table p " +
+            "JOIN pg_class c ON c.oid = p.partrelid JOIN pg_namespace n ON n.oid = c.relnamespace " +
+            "WHERE c.relname = 'transaction' AND n.nspname = current_schema()";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private volatile int monthsCovered;
+
+    @Value("${transaction.partitions.months-ahead:3}")
+    private int monthsAhead;
+
+    public TransactionPartitionManager(JdbcTemplate jdbcTemplate, MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+
+        // Future months with a partition in place; inserts fail once a month has none
+        Gauge.builder("transaction.partition.months.ahead", this, manager -> manager.monthsCovered)
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        ensurePartitions();
+    }
+
+    @Scheduled(cron = "${transaction.partitions.cron:0 0 3 * * *}")
+    public void ensurePartitions() {
+        Long partitioned = jdbcTemplate.queryForObject(PARTITIONED_SQL, Long.class);
+        if (partitioned == null || partitioned == 0) {
+            log.debug("transaction is not partitioned, no partitions to create");
+            return;
+        }
+
+        int covered = 0;
+        YearMonth current = YearMonth.now();
+        for (YearMonth month : months(current)) {
+            try {
+                jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + partitionName(month) +
+                        " PARTITION OF transaction FOR VALUES FROM ('" + month.atDay(1) + "') TO ('" +
+                        month.plusMonths(1).atDay(1) + "')");
+                if (month.isAfter(current)) {
+                    covered++;
+                }
+            } catch (DataAccessException e) {
+                // Typically an overlapping partition created by hand; later months are still tried
+                log.warn("Could not create partition {}: {}", partitionName(month), e.getMessage());
+            }
+        }
+        monthsCovered = covered;
+    }
+
+    // The previous month too, in case the clock has only just moved past a month boundary
+    private List<YearMonth> months(YearMonth current) {
+        return IntStream.rangeClosed(-1, Math.max(1, monthsAhead))
+                .mapToObj(current::plusMonths)
+                .toList();
+    }
+
+    static String partitionName(YearMonth month) {
+        return String.format("transaction_y%04dm%02d", month.getYear(), month.getMonthValue());
+    }
+}
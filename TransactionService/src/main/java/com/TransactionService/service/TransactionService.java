@@ -1,12 +1,16 @@
 package com.TransactionService.service;
 
+import com.TransactionService.dto.TransactionPage;
+import com.TransactionService.dto.TransactionRangeQuery;
 import com.TransactionService.dto.TransactionRequestDTO;
 import com.TransactionService.dto.TransactionResponseDTO;
 import com.TransactionService.exceptions.IneligibleAccountException;
 import com.TransactionService.exceptions.InsufficientFundsException;
+import com.TransactionService.util.TransactionCursor;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface TransactionService {
     TransactionResponseDTO internalTransfer(TransactionRequestDTO transactionRequestDTO) throws IneligibleAccountException, InsufficientFundsException;
@@ -14,5 +18,8 @@ public interface TransactionService {
     TransactionResponseDTO getTransactionByReference(String transactionReference);
     List<TransactionResponseDTO> getTransactionsByFromAccount(String fromAccount);
     List<TransactionResponseDTO> getTransactionsByToAccount(String toAccount);
+    TransactionPage getTransactionsByAccount(String accountNumber, String sortBy, boolean ascending, String pageToken, int size);
+    void streamTransactions(String accountNumber, TransactionCursor after, LocalDateTime toTime, Consumer<TransactionResponseDTO> consumer);
+    TransactionPage getTransactionsInRange(TransactionRangeQuery query);
     List<TransactionResponseDTO> getTransactionByTransactionTime(LocalDateTime transactionTime);
 }
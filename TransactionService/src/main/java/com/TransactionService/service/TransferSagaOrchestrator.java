@@ -0,0 +1,472 @@
+package com.TransactionService.service;
+
+import com.AccountService.grpc.AccountResponse;
+import com.AccountService.grpc.AccountStatus;
+import com.AccountService.grpc.CreditResponse;
+import com.AccountService.grpc.DebitResponse;
+import com.TransactionService.client.AccountServiceClient;
+import com.TransactionService.dto.LedgerEntryRequest;
+import com.TransactionService.exceptions.AccountNotFoundException;
+import com.TransactionService.exceptions.IneligibleAccountException;
+import com.TransactionService.exceptions.InsufficientFundsException;
+import com.TransactionService.model.Transaction;
+import com.TransactionService.model.TransactionDescription;
+import com.TransactionService.model.TransferSaga;
+import com.TransactionService.repository.TransactionRepository;
+import com.TransactionService.repository.TransferSagaRepository;
+import io.grpc.Status;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Runs internal transfers as a saga: PENDING, debit the sender, DEBITED, credit the receiver,
+ * CREDITED, COMPLETED. If AccountService rejects the credit, the saga moves to COMPENSATING and
+ * credits the sender back, ending COMPENSATED with the transaction REVERSED. A rejected debit
+ * ends the saga FAILED with nothing to undo.
+ *
+ * Every state change commits in its own short transaction together with its side effects (the
+ * transaction row and ledger outbox messages), so no database transaction spans a remote call.
+ * Each remote call carries an idempotency key derived from the transaction reference, so when a
+ * call's outcome is unknown (timeout, AccountService unavailable) the step is simply repeated
+ * later; only a definite rejection moves the saga down the failure path.
+ *
+ * The request thread drives its own saga first. Sagas left unfinished (unknown outcomes, a
+ * restart) are picked up by the recovery worker, which claims due rows with SKIP LOCKED, leases
+ * them and drives them on virtual threads with a bounded number in flight. Two drivers of the
+ * same saga cannot both apply a transition: the saga row is version-checked.
+ *
+ * Before the saga starts, both accounts are looked up concurrently while the transaction and saga
+ * rows are inserted, so a transfer to or from a frozen, closed or dormant account is refused
+ * without moving money. The lookup is only a precheck: a failed lookup lets the transfer proceed,
+ * and the debit and credit remain the authority.
+ *
+ * Metrics: transaction.transfer.latency (whole transfer as seen by the caller, by saga state),
+ * transaction.saga.inflight and transaction.saga.oldest (count and age of the oldest,
+ * per unfinished state), transaction.saga.duration (start to finish, by final state) and
+ * transaction.saga.recovered.age (age of sagas when the recovery worker picks them up).
+ */
+@Slf4j
+@Service
+public class TransferSagaOrchestrator {
+    private static final List<TransactionDescription.SagaState> IN_FLIGHT = List.of(
+            TransactionDescription.SagaState.PENDING, TransactionDescription.SagaState.DEBITED,
+            TransactionDescription.SagaState.CREDITED, TransactionDescription.SagaState.COMPENSATING);
+    private static final int MAX_ERROR_LENGTH = 500;
+    // Mirrors AccountService's eligibility rules for debits and credits
+    private static final Set<AccountStatus> DEBIT_BLOCKED = Set.of(
+            AccountStatus.FROZEN, AccountStatus.CLOSED, AccountStatus.DORMANT, AccountStatus.INACTIVE);
+    private static final Set<AccountStatus> CREDIT_BLOCKED = Set.of(
+            AccountStatus.FROZEN, AccountStatus.CLOSED, AccountStatus.DORMANT);
+
+    private final TransferSagaRepository sagaRepository;
+    private final TransactionRepository transactionRepository;
+    private final AccountServiceClient accountServiceClient;
+    private final LedgerOutbox ledgerOutbox;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+    private final Semaphore recoveryPermits;
+    private final AtomicBoolean recovering = new AtomicBoolean();
+    private final Timer transferLatency;
+
+    private final Duration lease;
+    private final Duration retryBase;
+    private final Duration retryMax;
+    private final int recoveryBatchSize;
+    private final boolean prechecksEnabled;
+    private final long precheckTimeoutMs;
+
+    // Refreshed by each recovery pass, read by the gauges
+    private final Map<TransactionDescription.SagaState, Long> inFlight = new EnumMap<>(TransactionDescription.SagaState.class);
+    private final Map<TransactionDescription.SagaState, LocalDateTime> oldest = new EnumMap<>(TransactionDescription.SagaState.class);
+
+    public TransferSagaOrchestrator(TransferSagaRepository sagaRepository,
+                                    TransactionRepository transactionRepository,
+                                    AccountServiceClient accountServiceClient,
+                                    LedgerOutbox ledgerOutbox,
+                                    TransactionTemplate transactionTemplate,
+                                    MeterRegistry meterRegistry,
+                                    @Value("${transaction.saga.lease-seconds:60}") long leaseSeconds,
+                                    @Value("${transaction.saga.retry-base-ms:1000}") long retryBaseMs,
+                                    @Value("${transaction.saga.retry-max-ms:300000}") long retryMaxMs,
+                                    @Value("${transaction.saga.recovery-batch-size:200}") int recoveryBatchSize,
+                                    @Value("${transaction.saga.max-parallel:16}") int maxParallel,
+                                    @Value("${transaction.transfer.prechecks-enabled:true}") boolean prechecksEnabled,
+                                    @Value("${transaction.transfer.precheck-timeout-ms:2000}") long precheckTimeoutMs) {
+        this.sagaRepository = sagaRepository;
+        this.transactionRepository = transactionRepository;
+        this.accountServiceClient = accountServiceClient;
+        this.ledgerOutbox = ledgerOutbox;
+        this.transactionTemplate = transactionTemplate;
+        this.meterRegistry = meterRegistry;
+        this.lease = Duration.ofSeconds(leaseSeconds);
+        this.retryBase = Duration.ofMillis(retryBaseMs);
+        this.retryMax = Duration.ofMillis(retryMaxMs);
+        this.recoveryBatchSize = recoveryBatchSize;
+        this.recoveryPermits = new Semaphore(Math.max(1, maxParallel));
+        this.prechecksEnabled = prechecksEnabled;
+        this.precheckTimeoutMs = precheckTimeoutMs;
+
+        for (TransactionDescription.SagaState state : IN_FLIGHT) {
+            Gauge.builder("transaction.saga.inflight", this, orchestrator -> orchestrator.inFlightCount(state))
+                    .tag("state", state.name())
+                    .register(meterRegistry);
+            Gauge.builder("transaction.saga.oldest", this, orchestrator -> orchestrator.oldestAgeSeconds(state))
+                    .tag("state", state.name())
+                    .baseUnit("seconds")
+                    .register(meterRegistry);
+        }
+    }
+
+    /**
+     * Persists the transaction with a new saga and drives it as far as it goes now. The returned
+     * outcome carries AccountService's rejection when the transfer was refused.
+     */
+    public Outcome start(Transaction transaction) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        CompletableFuture<AccountResponse> sender = null;
+        CompletableFuture<AccountResponse> receiver = null;
+        if (prechecksEnabled) {
+            sender = accountServiceClient.getAccountDetailsAsync(transaction.getFromAccount());
+            receiver = accountServiceClient.getAccountDetailsAsync(transaction.getToAccount());
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        // Written while the lookups are in flight, and always before the debit
+        TransferSaga saga = transactionTemplate.execute(status -> {
+            transactionRepository.save(transaction);
+            TransferSaga created = new TransferSaga();
+            created.setTransactionId(transaction.getId());
+            created.setTransactionReference(transaction.getTransactionReference());
+            created.setState(TransactionDescription.SagaState.PENDING);
+            created.setCreatedAt(now);
+            created.setStateChangedAt(now);
+            // Leased to this request thread; recovery only steps in if it does not finish
+            created.setNextAttemptAt(now.plus(lease));
+            return sagaRepository.save(created);
+        });
+
+        Exception rejection = null;
+        if (prechecksEnabled) {
+            rejection = eligibility(sender, transaction.getFromAccount(), DEBIT_BLOCKED, "Debit Account");
+            if (rejection == null) {
+                rejection = eligibility(receiver, transaction.getToAccount(), CREDIT_BLOCKED, "Credit Account");
+            }
+        }
+
+        Outcome outcome;
+        if (rejection == null) {
+            outcome = drive(saga.getId());
+        } else {
+            fail(saga, transaction, rejection);
+            outcome = new Outcome(saga.getState(), transaction, rejection);
+        }
+        sample.stop(Timer.builder("transaction.transfer.latency")
+                .tag("state", outcome.getState().name())
+                .publishPercentileHistogram()
+                .register(meterRegistry));
+        return outcome;
+    }
+
+    // The reason the account cannot take part, or null; a lookup that failed or took too long is not a reason
+    private Exception eligibility(CompletableFuture<AccountResponse> lookup, String accountNumber,
+                                  Set<AccountStatus> blocked, String operation) {
+        AccountResponse account;
+        try {
+            account = lookup.get(precheckTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            return e.getCause() instanceof AccountNotFoundException notFound ? notFound : null;
+        } catch (TimeoutException e) {
+            log.debug("Eligibility lookup for a transfer timed out after {} ms", precheckTimeoutMs);
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+        if (blocked.contains(account.getAccountStatus())) {
+            return new IneligibleAccountException(account.getAccountStatus().toString(), accountNumber, operation);
+        }
+        return null;
+    }
+
+    @Scheduled(fixedDelayString = "${transaction.saga.recovery-interval-ms:5000}")
+    public void recover() {
+        if (!recovering.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            List<TransferSaga> claimed = transactionTemplate.execute(status -> {
+                List<TransferSaga> due = sagaRepository.findDueForUpdate(now, recoveryBatchSize);
+                if (!due.isEmpty()) {
+                    sagaRepository.extendLease(due.stream().map(TransferSaga::getId).toList(), now.plus(lease));
+                }
+                return due;
+            });
+
+            try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+                for (TransferSaga saga : claimed) {
+                    meterRegistry.timer("transaction.saga.recovered.age", "state", saga.getState().name())
+                            .record(Duration.between(saga.getCreatedAt(), now));
+                    recoveryPermits.acquireUninterruptibly();
+                    executor.submit(() -> {
+                        try {
+                            drive(saga.getId());
+                        } catch (RuntimeException e) {
+                            log.error("Recovering transfer saga {} failed", saga.getId(), e);
+                        } finally {
+                            recoveryPermits.release();
+                        }
+                    });
+                }
+            }
+            refreshGauges();
+        } catch (RuntimeException e) {
+            log.error("Transfer saga recovery pass failed", e);
+        } finally {
+            recovering.set(false);
+        }
+    }
+
+    /**
+     * Runs steps until the saga finishes, its next step's outcome is unknown (it is then retried
+     * by the recovery worker after a backoff), or another driver moved it on first.
+     */
+    Outcome drive(long sagaId) {
+        Exception rejection = null;
+        while (true) {
+            TransferSaga saga = sagaRepository.findById(sagaId)
+                    .orElseThrow(() -> new IllegalStateException("Transfer saga " + sagaId + " not found"));
+            Transaction transaction = transactionRepository.findById(saga.getTransactionId())
+                    .orElseThrow(() -> new IllegalStateException("Transaction of saga " + sagaId + " not found"));
+            if (saga.getState().isTerminal()) {
+                return new Outcome(saga.getState(), transaction, rejection);
+            }
+
+            try {
+                Exception stepRejection = step(saga, transaction);
+                if (stepRejection != null) {
+                    rejection = stepRejection;
+                }
+            } catch (StepOutcomeUnknown e) {
+                scheduleRetry(saga, e.getCause());
+                return new Outcome(saga.getState(), transaction, rejection);
+            } catch (OptimisticLockingFailureException e) {
+                log.debug("Transfer saga {} was advanced by another driver", sagaId);
+                return new Outcome(saga.getState(), transaction, rejection);
+            }
+        }
+    }
+
+    // Performs the step for the saga's current state; returns AccountService's rejection, if any
+    private Exception step(TransferSaga saga, Transaction transaction) {
+        String reference = transaction.getTransactionReference();
+        switch (saga.getState()) {
+            case PENDING -> {
+                try {
+                    DebitResponse debit = accountServiceClient.debitAccount(transaction.getFromAccount(),
+                            transaction.getAmount(), transaction.getCurrencyType(), reference + ":debit");
+                    transition(saga, TransactionDescription.SagaState.DEBITED, () -> {
+                        transaction.setStatus(TransactionDescription.TransactionStatus.PROCESSING);
+                        transaction.setDebitBalanceAfterTransaction(new BigDecimal(debit.getNewBalance()));
+                        transactionRepository.save(transaction);
+                        ledgerOutbox.enqueue(ledgerEntry(transaction, transaction.getFromAccount(), "DEBIT"));
+                    });
+                    return null;
+                } catch (Exception e) {
+                    requireRejection(e);
+                    fail(saga, transaction, e);
+                    return e;
+                }
+            }
+            case DEBITED -> {
+                try {
+                    CreditResponse credit = accountServiceClient.creditAccount(transaction.getToAccount(),
+                            transaction.getAmount(), transaction.getCurrencyType(), reference + ":credit");
+                    transition(saga, TransactionDescription.SagaState.CREDITED, () -> {
+                        transaction.setCreditBalanceAfterTransaction(new BigDecimal(credit.getNewBalance()));
+                        transactionRepository.save(transaction);
+                        ledgerOutbox.enqueue(ledgerEntry(transaction, transaction.getToAccount(), "CREDIT"));
+                    });
+                    return null;
+                } catch (Exception e) {
+                    requireRejection(e);
+                    transition(saga, TransactionDescription.SagaState.COMPENSATING, () -> {
+                        transaction.setRejectionReason(e.getMessage());
+                        transactionRepository.save(transaction);
+                    });
+                    return e;
+                }
+            }
+            case CREDITED -> {
+                transition(saga, TransactionDescription.SagaState.COMPLETED, () -> {
+                    transaction.setStatus(TransactionDescription.TransactionStatus.COMPLETED);
+                    transactionRepository.save(transaction);
+                });
+                return null;
+            }
+            case COMPENSATING -> {
+                CreditResponse refund;
+                try {
+                    refund = accountServiceClient.creditAccount(transaction.getFromAccount(),
+                            transaction.getAmount(), transaction.getCurrencyType(), reference + ":compensate");
+                } catch (Exception e) {
+                    // Even a rejected refund (sender frozen meanwhile) is retried: the debit must be given back
+                    log.warn("Compensating credit for transfer saga {} failed: {}", saga.getId(), e.getMessage());
+                    throw new StepOutcomeUnknown(e);
+                }
+                transition(saga, TransactionDescription.SagaState.COMPENSATED, () -> {
+                    transaction.setStatus(TransactionDescription.TransactionStatus.REVERSED);
+                    transaction.setDebitBalanceAfterTransaction(new BigDecimal(refund.getNewBalance()));
+                    transactionRepository.save(transaction);
+                    ledgerOutbox.enqueue(ledgerEntry(transaction, transaction.getFromAccount(), "CREDIT"));
+                });
+                return null;
+            }
+            default -> throw new IllegalStateException("Transfer saga " + saga.getId() + " is already " + saga.getState());
+        }
+    }
+
+    // Nothing was taken from the sender, so there is nothing to undo
+    private void fail(TransferSaga saga, Transaction transaction, Exception rejection) {
+        transition(saga, TransactionDescription.SagaState.FAILED, () -> {
+            transaction.setStatus(TransactionDescription.TransactionStatus.FAILED);
+            transaction.setRejectionReason(rejection.getMessage());
+            transactionRepository.save(transaction);
+        });
+    }
+
+    private void transition(TransferSaga saga, TransactionDescription.SagaState next, Runnable effects) {
+        LocalDateTime now = LocalDateTime.now();
+        transactionTemplate.executeWithoutResult(status -> {
+            effects.run();
+            saga.setState(next);
+            saga.setStateChangedAt(now);
+            saga.setAttempts(0);
+            saga.setLastError(null);
+            saga.setNextAttemptAt(next.isTerminal() ? now : now.plus(lease));
+            sagaRepository.save(saga);
+        });
+        if (next.isTerminal()) {
+            Timer.builder("transaction.saga.duration")
+                    .tag("state", next.name())
+                    .publishPercentileHistogram()
+                    .register(meterRegistry)
+                    .record(Duration.between(saga.getCreatedAt(), now));
+        }
+    }
+
+    private void scheduleRetry(TransferSaga saga, Throwable cause) {
+        int attempts = saga.getAttempts() + 1;
+        // Exponential backoff, capped; the shift is bounded so it cannot overflow
+        Duration delay = retryBase.multipliedBy(1L << Math.min(attempts - 1, 20));
+        saga.setAttempts(attempts);
+        saga.setLastError(truncate(cause.getMessage()));
+        saga.setNextAttemptAt(LocalDateTime.now().plus(delay.compareTo(retryMax) > 0 ? retryMax : delay));
+        try {
+            transactionTemplate.executeWithoutResult(status -> sagaRepository.save(saga));
+        } catch (OptimisticLockingFailureException e) {
+            // Another driver moved the saga on meanwhile
+        }
+        log.warn("Transfer saga {} is waiting in {} after attempt {}: {}", saga.getId(), saga.getState(), attempts, cause.getMessage());
+    }
+
+    // A rejection is AccountService's final answer; anything else may or may not have been applied
+    private static void requireRejection(Exception e) {
+        if (e instanceof InsufficientFundsException || e instanceof IneligibleAccountException
+                || e instanceof AccountNotFoundException) {
+            return;
+        }
+        Status.Code code = Status.fromThrowable(e).getCode();
+        if (code != Status.Code.INVALID_ARGUMENT && code != Status.Code.FAILED_PRECONDITION && code != Status.Code.NOT_FOUND) {
+            throw new StepOutcomeUnknown(e);
+        }
+    }
+
+    private LedgerEntryRequest ledgerEntry(Transaction transaction, String accountNumber, String type) {
+        return LedgerEntryRequest.builder()
+                .accountNumber(accountNumber)
+                .amount(transaction.getAmount())
+                .currencyType(transaction.getCurrencyType().toString())
+                .type(type)
+                .transactionId(transaction.getTransactionReference())
+                .build();
+    }
+
+    private void refreshGauges() {
+        Map<TransactionDescription.SagaState, Long> counts = new EnumMap<>(TransactionDescription.SagaState.class);
+        Map<TransactionDescription.SagaState, LocalDateTime> oldestChanges = new EnumMap<>(TransactionDescription.SagaState.class);
+        for (Object[] row : sagaRepository.summarizeInFlight()) {
+            TransactionDescription.SagaState state = (TransactionDescription.SagaState) row[0];
+            counts.put(state, (Long) row[1]);
+            oldestChanges.put(state, (LocalDateTime) row[2]);
+        }
+        synchronized (inFlight) {
+            inFlight.clear();
+            inFlight.putAll(counts);
+            oldest.clear();
+            oldest.putAll(oldestChanges);
+        }
+    }
+
+    private double inFlightCount(TransactionDescription.SagaState state) {
+        synchronized (inFlight) {
+            return inFlight.getOrDefault(state, 0L);
+        }
+    }
+
+    private double oldestAgeSeconds(TransactionDescription.SagaState state) {
+        LocalDateTime changedAt;
+        synchronized (inFlight) {
+            changedAt = oldest.get(state);
+        }
+        return changedAt == null ? 0 : Duration.between(changedAt, LocalDateTime.now()).toMillis() / 1000.0;
+    }
+
+    private static String truncate(String message) {
+        if (message == null) {
+            return null;
+        }
+        return message.length() <= MAX_ERROR_LENGTH ? message : message.substring(0, MAX_ERROR_LENGTH);
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class Outcome {
+        private final TransactionDescription.SagaState state;
+        private final Transaction transaction;
+        // AccountService's rejection of this driver's debit or credit, null otherwise
+        private final Exception rejection;
+    }
+
+    // Thrown out of a step whose remote call may or may not have taken effect
+    private static class StepOutcomeUnknown extends RuntimeException {
+        StepOutcomeUnknown(Throwable cause) {
+            super(cause);
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.TransactionService.util;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Position in an account's transaction history, in (transactionTime, id) keyset order. Encoded as
+ * an opaque token for clients; it also records the direction it was read in, so a token cannot be
+ * replayed against the opposite ordering.
+ */
+@Getter
+@AllArgsConstructor
+public class TransactionCursor {
+    // Starting points before the first row in either direction
+    private static final LocalDateTime LATEST = LocalDateTime.of(9999, 12, 31, 23, 59, 59);
+    private static final LocalDateTime EARLIEST = LocalDateTime.of(1, 1, 1, 0, 0);
+
+    private final boolean ascending;
+    private final LocalDateTime transactionTime;
+    private final long id;
+
+    public static TransactionCursor start(boolean ascending) {
+        return ascending
+                ? new TransactionCursor(true, EARLIEST, Long.MIN_VALUE)
+                : new TransactionCursor(false, LATEST, Long.MAX_VALUE);
+    }
+
+    // Ascending position just before every row at or after the given time
+    public static TransactionCursor before(LocalDateTime transactionTime) {
+        return new TransactionCursor(true, transactionTime, Long.MIN_VALUE);
+    }
+
+    public String encode() {
+        String position = (ascending ? "A" : "D") + "|" + transactionTime + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(position.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    public static TransactionCursor decode(String token) {
+        try {
+            String[] position = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.US_ASCII).split("\\|");
+            if (position.length != 3 || !(position[0].equals("A") || position[0].equals("D"))) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            return new TransactionCursor(position[0].equals("A"), LocalDateTime.parse(position[1]), Long.parseLong(position[2]));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.UserService.encryptors;
+
+import com.UserService.model.Users;
+import com.UserService.service.BlindIndexService;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+@Component
+public class UsersBlindIndexListener {
+
+    @Autowired
+    private BlindIndexService blindIndexService;
+
+    // Recomputed on every write since email and phone number can be updated
+    @PrePersist
+    @PreUpdate
+    public void beforeWrite(Users user) {
+        user.setEmailHmac(blindIndexService.hash(user.getEmail()));
+        user.setPhoneNumberHmac(blindIndexService.hash(user.getPhoneNumber()));
+    }
+}
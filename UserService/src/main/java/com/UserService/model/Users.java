@@ -15,8 +15,8 @@ import java.util.UUID;
 @Table(name = "users",
         indexes = {
                 @Index(name = "idx_users_user_id", columnList = "user_id"),
-                @Index(name = "idx_users_email", columnList = "email"),
-                @Index(name = "idx_users_phone_number", columnList = "phone_number"),
+                @Index(name = "idx_users_email_hmac", columnList = "email_hmac", unique = true),
+                @Index(name = "idx_users_phone_number_hmac", columnList = "phone_number_hmac", unique = true),
                 @Index(name = "idx_users_tax_id", columnList = "tax_identification_number"),
                 @Index(name = "idx_users_gov_id", columnList = "government_id_number"),
                 @Index(name = "idx_users_kyc_status", columnList = "kyc_verified"),
@@ -25,6 +25,7 @@ import java.util.UUID;
                 @Index(name = "idx_users_created_at", columnList = "created_at")
         }
 )
+@EntityListeners(UsersBlindIndexListener.class)
 @Getter
 @Setter
 public class Users {
@@ -50,18 +51,25 @@ public class Users {
     @Convert(converter = StringEncryptor.class)
     private String lastName;
 
-    @Column(name = "email", nullable = false, unique = true)
+    @Column(name = "email", nullable = false)
     @Convert(converter = SearchableStringEncryptor.class)
     private String email;
 
+    // Blind indexes used for lookups, maintained by UsersBlindIndexListener
+    @Column(name = "email_hmac", length = 16)
+    private byte[] emailHmac;
+
     @Column(name = "password_hash", nullable = false)
     @Convert(converter = StringEncryptor.class)
     private String passwordHash;
 
-    @Column(name = "phone_number", nullable = false, unique = true)
+    @Column(name = "phone_number", nullable = false)
     @Convert(converter = SearchableStringEncryptor.class)
     private String phoneNumber;
 
+    @Column(name = "phone_number_hmac", length = 16)
+    private byte[] phoneNumberHmac;
+
     // Address information
     @Column(name = "address_line1", nullable = false)
     @Convert(converter = StringEncryptor.class)
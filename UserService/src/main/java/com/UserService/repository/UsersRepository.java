@@ -3,9 +3,11 @@ package com.UserService.repository;
 import com.UserService.model.Users;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -16,5 +18,10 @@ public interface UsersRepository extends JpaRepository<Users, Long> {
 
     Optional<Users> findByUserId(UUID userId);
 
-    Optional<Users> findByEmail(String email);
+    // Email and phone number are looked up through their blind indexes, see BlindIndexService
+    Optional<Users> findByEmailHmac(byte[] emailHmac);
+
+    Optional<Users> findByPhoneNumberHmac(byte[] phoneNumberHmac);
+
+    List<Users> findByEmailHmacIsNullOrPhoneNumberHmacIsNullOrderByIdAsc(Pageable pageable);
 }
\ No newline at end of file
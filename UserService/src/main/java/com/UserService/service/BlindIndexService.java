@@ -0,0 +1,62 @@
+package com.UserService.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Keyed HMAC-SHA256 blind indexes for encrypted columns that need equality lookups.
+ * The index is the first 16 bytes of the MAC, stored next to the ciphertext so finders
+ * can match on a short fixed-width value and only decrypt the row they hit.
+ *
+ * The key comes from encryption.blind-index-key, or is derived from encryption.key when unset.
+ * Changing it invalidates every stored index.
+ */
+@Service
+public class BlindIndexService {
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final int INDEX_LENGTH = 16;
+    private static final int POOL_SIZE = 64;
+
+    private final SecretKeySpec key;
+    private final BlockingQueue<Mac> macPool = new ArrayBlockingQueue<>(POOL_SIZE);
+
+    public BlindIndexService(@Value("${encryption.key}") String encryptionKey,
+                             @Value("${encryption.blind-index-key:}") String blindIndexKey) throws GeneralSecurityException {
+        byte[] keyBytes;
+        if (blindIndexKey.isBlank()) {
+            // Derive a separate key so the index never reuses the cipher key directly
+            Mac derive = Mac.getInstance(ALGORITHM);
+            derive.init(new SecretKeySpec(Base64.getDecoder().decode(encryptionKey), ALGORITHM));
+            keyBytes = derive.doFinal("blind-index".getBytes(StandardCharsets.UTF_8));
+        } else {
+            keyBytes = Base64.getDecoder().decode(blindIndexKey);
+        }
+        this.key = new SecretKeySpec(keyBytes, ALGORITHM);
+    }
+
+    public byte[] hash(String value) {
+        if (value == null) return null;
+
+        try {
+            Mac mac = macPool.poll();
+            if (mac == null) {
+                mac = Mac.getInstance(ALGORITHM);
+                mac.init(key);
+            }
+            byte[] digest = mac.doFinal(value.getBytes(StandardCharsets.UTF_8));
+            macPool.offer(mac);
+            return Arrays.copyOf(digest, INDEX_LENGTH);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Blind index computation failed", e);
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.UserService.service;
+
+import com.UserService.model.Users;
+import com.UserService.repository.UsersRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * Fills email and phone number blind indexes for rows written before they existed.
+ * Runs before the web and gRPC servers start, since every lookup goes through the indexes.
+ */
+@Service
+public class UsersBlindIndexBackfill implements SmartInitializingSingleton {
+    private static final Logger logger = LoggerFactory.getLogger(UsersBlindIndexBackfill.class);
+
+    private final UsersRepository usersRepository;
+    private final BlindIndexService blindIndexService;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${users.blind-index.backfill-batch-size:500}")
+    private int batchSize;
+
+    public UsersBlindIndexBackfill(UsersRepository usersRepository,
+                                   BlindIndexService blindIndexService,
+                                   TransactionTemplate transactionTemplate) {
+        this.usersRepository = usersRepository;
+        this.blindIndexService = blindIndexService;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        long filled = 0;
+        while (true) {
+            // Each batch fills its rows, so the next query starts from the first page again
+            Integer batch = transactionTemplate.execute(status -> {
+                List<Users> page = usersRepository.findByEmailHmacIsNullOrPhoneNumberHmacIsNullOrderByIdAsc(PageRequest.of(0, batchSize));
+                for (Users user : page) {
+                    user.setEmailHmac(blindIndexService.hash(user.getEmail()));
+                    user.setPhoneNumberHmac(blindIndexService.hash(user.getPhoneNumber()));
+                }
+                return page.size();
+            });
+            if (batch == null || batch == 0) {
+                break;
+            }
+            filled += batch;
+        }
+        if (filled > 0) {
+            logger.info("Backfilled blind indexes for {} users", filled);
+        }
+    }
+}
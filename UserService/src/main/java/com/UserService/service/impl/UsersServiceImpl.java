@@ -11,6 +11,7 @@ import com.UserService.model.Users;
 import com.UserService.model.userDescription.RiskCategory;
 import com.UserService.model.userDescription.UserStatus;
 import com.UserService.repository.UsersRepository;
+import com.UserService.service.BlindIndexService;
 import com.UserService.service.UsersService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -36,6 +37,9 @@ public class UsersServiceImpl implements UsersService {
     @Autowired
     private AccountServiceClient accountServiceClient;
 
+    @Autowired
+    private BlindIndexService blindIndexService;
+
     @Override
     @Transactional
     public CreateUserResponse createUser(CreateUserRequest request) {
@@ -91,7 +95,7 @@ public class UsersServiceImpl implements UsersService {
     @Cacheable("user")
     public GetUserResponse getUser(GetUserRequest request) throws Exception {
         logger.info("User search for {} starting...", request.getEmail());
-                Users user = usersRepository.findByEmail(request.getEmail())
+                Users user = usersRepository.findByEmailHmac(blindIndexService.hash(request.getEmail()))
                 .orElseThrow(() ->new UserNotFoundException("User not found", "email", request.getEmail()));
 
         // Map user entity to response
@@ -123,7 +127,7 @@ public class UsersServiceImpl implements UsersService {
     @Transactional(readOnly = true)
     @Cacheable("accounts")
     public AccountsListResponse getUserAccounts(String email) throws Exception {
-        Users user = usersRepository.findByEmail(email)
+        Users user = usersRepository.findByEmailHmac(blindIndexService.hash(email))
                 .orElseThrow(() ->new UserNotFoundException("User not found", "email", email));
         logger.info("Account search for {} starting...", user.getUserId());
         return accountServiceClient.getUserAccounts(user.getUserId().toString());
@@ -132,7 +136,7 @@ public class UsersServiceImpl implements UsersService {
     @Override
     @Transactional
     public AccountResponse createAccount (String email, CreateAccountRequest request) throws Exception {
-        Users user = usersRepository.findByEmail(email)
+        Users user = usersRepository.findByEmailHmac(blindIndexService.hash(email))
                 .orElseThrow(() ->new UserNotFoundException("User not found", "email", email));
 
         logger.info("Account creation for {} starting...", user.getUserId());
@@ -144,7 +148,7 @@ public class UsersServiceImpl implements UsersService {
     @Transactional
     public UpdateUserResponse updateUser(UpdateUserRequest request) throws UserNotFoundException {
         // Find user by userId
-        Users user = usersRepository.findByEmail(request.getEmail())
+        Users user = usersRepository.findByEmailHmac(blindIndexService.hash(request.getEmail()))
                 .orElseThrow(() ->new UserNotFoundException("User not found", "email", request.getEmail()));
         // Update user information if provided in the request
         if (request.getFirstName() != null) {
@@ -215,7 +219,7 @@ public class UsersServiceImpl implements UsersService {
     @Transactional
     public DeleteUserResponse deleteUser(DeleteUserRequest request) throws UserNotFoundException {
         // Find user by userId
-        Users user = usersRepository.findByEmail(request.getEmail())
+        Users user = usersRepository.findByEmailHmac(blindIndexService.hash(request.getEmail()))
                 .orElseThrow(() ->new UserNotFoundException("User not found", "email", request.getEmail()));
         // Delete the user
         usersRepository.delete(user);